@@ -0,0 +1,100 @@
+package com.inventory.ex.benchmark;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic catalog of products and overlapping Prices used by the benchmarks.
+ * Every product has a base Price covering the whole year 2020 and promotions with higher priorities overlapping it
+ * and each other.
+ */
+public final class BenchmarkCatalog {
+
+    /**
+     * First product code identifier of the catalog, far from the ones inserted by import.sql.
+     */
+    public static final long FIRST_PRODUCT_ID = 1_000_000;
+
+    /**
+     * Brand identifier of every product of the catalog.
+     */
+    public static final int BRAND_ID = 1;
+
+    private static final long YEAR_START = Timestamp.valueOf(LocalDateTime.parse("2020-01-01T00:00:00")).getTime();
+
+    private static final long YEAR_END = Timestamp.valueOf(LocalDateTime.parse("2020-12-31T23:59:59")).getTime();
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private BenchmarkCatalog() {
+    }
+
+    /**
+     * This method inserts the catalog into the PRODUCT and PRICE tables.
+     *
+     * @param jdbcTemplate The template to run the batched inserts.
+     * @param catalogSize Number of products.
+     * @param pricesPerProduct Number of overlapping Prices of every product.
+     */
+    public static void populate(JdbcTemplate jdbcTemplate, int catalogSize, int pricesPerProduct) {
+
+        List<Object[]> products = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> prices = new ArrayList<>(BATCH_SIZE);
+        long priceId = 1_000;
+        long promotionSpacing = (YEAR_END - YEAR_START) / pricesPerProduct;
+
+        for (int i = 0; i < catalogSize; i++) {
+            long productId = FIRST_PRODUCT_ID + i;
+            products.add(new Object[]{productId, BRAND_ID});
+            prices.add(new Object[]{priceId++, productId, 100.0 + i % 100, 0,
+                    new Timestamp(YEAR_START), new Timestamp(YEAR_END), "EUR"});
+            for (int promotion = 1; promotion < pricesPerProduct; promotion++) {
+                long start = YEAR_START + promotion * promotionSpacing - 15 * DAY;
+                prices.add(new Object[]{priceId++, productId, 90.0 - promotion % 50, 1 + promotion % 3,
+                        new Timestamp(start), new Timestamp(start + 30 * DAY), "EUR"});
+            }
+            if (products.size() >= BATCH_SIZE) {
+                flush(jdbcTemplate, products, prices);
+            }
+        }
+        flush(jdbcTemplate, products, prices);
+    }
+
+    /**
+     * This method generates random requests over the products and dates of the catalog.
+     *
+     * @param catalogSize Number of products.
+     * @param count Number of requests.
+     * @return The generated requests.
+     */
+    public static ProductPriceRequest[] requests(int catalogSize, int count) {
+
+        SplittableRandom random = new SplittableRandom(42);
+        ProductPriceRequest[] requests = new ProductPriceRequest[count];
+        for (int i = 0; i < count; i++) {
+            ProductPriceRequest request = new ProductPriceRequest();
+            request.setProductId(FIRST_PRODUCT_ID + random.nextInt(catalogSize));
+            request.setBrandId(BRAND_ID);
+            request.setApplicationDate(new Timestamp(random.nextLong(YEAR_START, YEAR_END)));
+            requests[i] = request;
+        }
+        return requests;
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, List<Object[]> products, List<Object[]> prices) {
+
+        jdbcTemplate.batchUpdate("INSERT INTO PRODUCT (PRODUCT_ID, BRAND_ID) VALUES (?, ?)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO PRICE (PRICE_ID, PRODUCT_ID, PRICE, PRIORITY, START_DATE, END_DATE, "
+                + "CURRENCY) VALUES (?, ?, ?, ?, ?, ?, ?)", prices);
+        products.clear();
+        prices.clear();
+    }
+}
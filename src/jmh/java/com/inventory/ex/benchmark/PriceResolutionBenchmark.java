@@ -0,0 +1,140 @@
+package com.inventory.ex.benchmark;
+
+import com.inventory.ex.InventoryExApplication;
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.index.PriceSegment;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.index.PriceTimeline;
+import com.inventory.ex.index.PriceTimelineCompiler;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.repository.ProductRepository;
+import com.inventory.ex.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks of the price resolution paths, from the repository query to the in-memory lookups,
+ * over a synthetic catalog parameterised by its size and by the number of overlapping Prices per product.
+ */
+@State(Scope.Benchmark)
+public class PriceResolutionBenchmark {
+
+    private static final int REQUEST_COUNT = 1 << 12;
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    @Param({"1", "4", "16"})
+    private int pricesPerProduct;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private ProductService productService;
+
+    private Map<Long, List<Price>> pricesByProduct;
+
+    private Map<Long, PriceTimeline> timelines;
+
+    private PriceStore priceStore;
+
+    private ProductPriceRequest[] requests;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(InventoryExApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.root=WARN")
+                .run();
+        BenchmarkCatalog.populate(context.getBean(JdbcTemplate.class), catalogSize, pricesPerProduct);
+
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+        List<Price> catalog = context.getBean(PriceRepository.class).findAllWithProduct();
+        pricesByProduct = catalog.stream().collect(Collectors.groupingBy(price -> price.getProduct().getProductId()));
+        timelines = new HashMap<>();
+        pricesByProduct.forEach((productId, prices) -> timelines.put(productId, PriceTimelineCompiler.compile(prices)));
+        priceStore = PriceStore.build(catalog);
+        requests = BenchmarkCatalog.requests(catalogSize, REQUEST_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private ProductPriceRequest nextRequest() {
+        return requests[next++ & (REQUEST_COUNT - 1)];
+    }
+
+    /**
+     * Projection query selecting the Price with the highest priority in the Data Base.
+     */
+    @Benchmark
+    public Optional<ProductPriceResponse> repositoryLookup() {
+
+        ProductPriceRequest request = nextRequest();
+        return productRepository.findProductPriceByDate(request.getProductId(), request.getBrandId(),
+                request.getApplicationDate());
+    }
+
+    /**
+     * Service resolution with the default configuration, going to the Data Base.
+     */
+    @Benchmark
+    public Optional<ProductPriceResponse> serviceResolution() {
+        return productService.getProductPricesByDate(nextRequest());
+    }
+
+    /**
+     * Lookup in the compiled timelines held by the in-memory price index.
+     */
+    @Benchmark
+    public Optional<PriceSegment> timelineLookup() {
+
+        ProductPriceRequest request = nextRequest();
+        return timelines.get(request.getProductId()).findSegment(request.getApplicationDate().getTime());
+    }
+
+    /**
+     * Lookup in the primitive PriceStore held by the in-memory price index.
+     */
+    @Benchmark
+    public int priceStoreLookup() {
+
+        ProductPriceRequest request = nextRequest();
+        return priceStore.findSegment(request.getProductId(), request.getBrandId(),
+                request.getApplicationDate().getTime());
+    }
+
+    /**
+     * Compilation of the timeline of one product, paid once per product when the index is loaded.
+     */
+    @Benchmark
+    public PriceTimeline timelineCompilation() {
+        return PriceTimelineCompiler.compile(pricesByProduct.get(nextRequest().getProductId()));
+    }
+}
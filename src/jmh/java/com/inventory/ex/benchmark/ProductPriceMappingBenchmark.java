@@ -0,0 +1,67 @@
+package com.inventory.ex.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.service.ProductPriceMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Benchmarks of the work done after the price resolution: mapping the Price into the response DTO and writing it
+ * as JSON with the same Jackson configuration used by Spring MVC. The ObjectMapper is built by the Jackson
+ * auto-configuration of Spring Boot, with the spring.jackson properties of application.properties, so the dates are
+ * written as the endpoint writes them.
+ */
+@State(Scope.Benchmark)
+public class ProductPriceMappingBenchmark {
+
+    private Price price;
+
+    private ProductPriceResponse productPriceResponse;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+
+        price = new Price();
+        price.setPriceId(4);
+        price.setPrice(38.95);
+        price.setPriority(1);
+        price.setCurrency("EUR");
+        price.setStartDate(Timestamp.valueOf(LocalDateTime.parse("2020-06-15T16:00:00")));
+        price.setEndDate(Timestamp.valueOf(LocalDateTime.parse("2020-12-31T23:59:59")));
+
+        productPriceResponse = ProductPriceMapper.toProductPriceResponse(35455, 1, price);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run()) {
+            writer = context.getBean(ObjectMapper.class).writerFor(ProductPriceResponse.class);
+        }
+    }
+
+    @Benchmark
+    public ProductPriceResponse dtoMapping() {
+        return ProductPriceMapper.toProductPriceResponse(35455, 1, price);
+    }
+
+    @Benchmark
+    public byte[] jacksonSerialization() throws JsonProcessingException {
+        return writer.writeValueAsBytes(productPriceResponse);
+    }
+}
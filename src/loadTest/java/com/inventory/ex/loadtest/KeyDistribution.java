@@ -0,0 +1,71 @@
+package com.inventory.ex.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the product indexes requested by the load test.
+ */
+public interface KeyDistribution {
+
+    /**
+     * @param random The random generator of the calling client.
+     * @return The next product index, between 0 and the number of products (exclusive).
+     */
+    int next(SplittableRandom random);
+
+    /**
+     * This method creates the distribution with the specified name.
+     *
+     * @param name Name of the distribution, uniform or zipfian.
+     * @param count Number of products.
+     * @param zipfExponent Exponent of the zipfian distribution.
+     * @return The distribution.
+     */
+    static KeyDistribution of(String name, int count, double zipfExponent) {
+
+        return switch (name) {
+            case "uniform" -> random -> random.nextInt(count);
+            case "zipfian" -> new Zipfian(count, zipfExponent);
+            default -> throw new IllegalArgumentException("Unknown key distribution: " + name);
+        };
+    }
+
+    /**
+     * Zipfian distribution where the product index 0 is the most requested one. The cumulative probabilities are
+     * computed once, and every sample is a binary search over them.
+     */
+    final class Zipfian implements KeyDistribution {
+
+        private final double[] cumulativeProbabilities;
+
+        Zipfian(int count, double exponent) {
+
+            cumulativeProbabilities = new double[count];
+            double sum = 0;
+            for (int rank = 0; rank < count; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulativeProbabilities[rank] = sum;
+            }
+            for (int rank = 0; rank < count; rank++) {
+                cumulativeProbabilities[rank] /= sum;
+            }
+        }
+
+        @Override
+        public int next(SplittableRandom random) {
+
+            double value = random.nextDouble();
+            int low = 0;
+            int high = cumulativeProbabilities.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulativeProbabilities[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.inventory.ex.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Settings of a load test run, read from the loadTest.* system properties passed by the Gradle task.
+ *
+ * @param baseUrl Base URL of the running application.
+ * @param path Path of the endpoint receiving the price requests.
+ * @param concurrency Number of concurrent clients, each one sending its next request when the previous one ends,
+ * or on its schedule with a target rate.
+ * @param ratePerSecond Target rate of requests per second of all the clients together, measuring the latencies from
+ * the scheduled send times, or 0 for a closed loop.
+ * @param warmup Duration of the warm-up phase, whose latencies are discarded.
+ * @param duration Duration of the measured phase.
+ * @param distribution Distribution of the requested products, uniform or zipfian.
+ * @param zipfExponent Exponent of the zipfian distribution, the higher the more skewed.
+ * @param firstProductId First product code identifier of the requested range.
+ * @param productCount Number of consecutive product code identifiers requested.
+ * @param brandId Product brand identifier of every request.
+ * @param fromDate First application date of the requests.
+ * @param toDate Last application date of the requests.
+ * @param p99BudgetMillis Maximum p99 latency in milliseconds before the run fails.
+ * @param maxErrorRate Maximum ratio of failed requests before the run fails.
+ */
+public record LoadTestSettings(String baseUrl, String path, int concurrency, double ratePerSecond, Duration warmup,
+                               Duration duration, String distribution, double zipfExponent, long firstProductId,
+                               int productCount, int brandId, LocalDateTime fromDate, LocalDateTime toDate,
+                               double p99BudgetMillis, double maxErrorRate) {
+
+    /**
+     * This method reads the settings from the system properties, with defaults matching the data of import.sql.
+     *
+     * @return The settings of the run.
+     */
+    public static LoadTestSettings fromSystemProperties() {
+
+        return new LoadTestSettings(
+                property("baseUrl", "http://localhost:8080"),
+                property("path", "/product/price"),
+                Integer.parseInt(property("concurrency", "32")),
+                Double.parseDouble(property("ratePerSecond", "0")),
+                Duration.ofSeconds(Long.parseLong(property("warmupSeconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("durationSeconds", "30"))),
+                property("distribution", "uniform"),
+                Double.parseDouble(property("zipfExponent", "0.99")),
+                Long.parseLong(property("firstProductId", "35455")),
+                Integer.parseInt(property("productCount", "1")),
+                Integer.parseInt(property("brandId", "1")),
+                LocalDateTime.parse(property("fromDate", "2020-06-14T00:00:00")),
+                LocalDateTime.parse(property("toDate", "2020-12-31T23:59:59")),
+                Double.parseDouble(property("p99BudgetMillis", "50")),
+                Double.parseDouble(property("maxErrorRate", "0.01")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+}
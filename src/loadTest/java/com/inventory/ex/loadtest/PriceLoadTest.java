@@ -0,0 +1,189 @@
+package com.inventory.ex.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator driving the price endpoint of a running application with a fixed number of concurrent clients.
+ * Without a target rate, each client sends its next request as soon as the previous one is answered, a closed loop
+ * whose latencies only cover the requests actually sent, so a stall of the server also stops the requests that would
+ * have measured it. With a target rate, every client sends its requests on a fixed schedule, and the latency of a
+ * request is measured from the time it should have been sent, so the requests delayed by a stall record the time
+ * they waited too, which corrects the coordinated omission. The latencies of the measured phase are recorded in an
+ * HdrHistogram. The process exits with an error when the p99 latency exceeds the budget or
+ * too many requests fail, so the Gradle loadTest task fails the build.
+ */
+public final class PriceLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestSettings settings;
+
+    private final HttpClient httpClient;
+
+    private final KeyDistribution keyDistribution;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    private PriceLoadTest(LoadTestSettings settings) {
+
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.keyDistribution = KeyDistribution.of(settings.distribution(), settings.productCount(),
+                settings.zipfExponent());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        System.out.println("Load test settings: " + settings);
+
+        if (!new PriceLoadTest(settings).run()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method runs the warm-up and measured phases, then reports the results.
+     *
+     * @return True if the p99 latency and the error rate are within their budgets.
+     */
+    private boolean run() throws InterruptedException, IOException {
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + settings.warmup().toNanos();
+        long endNanos = measureFromNanos + settings.duration().toNanos();
+
+        // Every client sends its share of the target rate, the clients being staggered over the interval
+        long intervalNanos = settings.ratePerSecond() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.concurrency() / settings.ratePerSecond()) : 0;
+
+        SplittableRandom seed = new SplittableRandom(42);
+        List<Thread> clients = new ArrayList<>(settings.concurrency());
+        for (int i = 0; i < settings.concurrency(); i++) {
+            SplittableRandom random = seed.split();
+            long firstSendNanos = startNanos + intervalNanos * i / settings.concurrency();
+            Thread client = new Thread(() -> drive(random, firstSendNanos, intervalNanos, measureFromNanos, endNanos),
+                    "load-client-" + i);
+            client.start();
+            clients.add(client);
+        }
+
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        return report(histogram, errors.sum());
+    }
+
+    /**
+     * Loop of one client, sending requests until the end of the run, on a fixed schedule when the interval between
+     * its requests is set, or otherwise as soon as the previous one is answered.
+     */
+    private void drive(SplittableRandom random, long firstSendNanos, long intervalNanos, long measureFromNanos,
+                       long endNanos) {
+
+        long fromSecond = settings.fromDate().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = settings.toDate().toEpochSecond(ZoneOffset.UTC);
+        URI uri = URI.create(settings.baseUrl() + settings.path());
+
+        long sendNanos = intervalNanos > 0 ? firstSendNanos : System.nanoTime();
+        while (sendNanos < endNanos) {
+            // A request behind its schedule is sent at once, and its latency still starts at its scheduled time
+            long waitNanos = sendNanos - System.nanoTime();
+            while (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+                waitNanos = sendNanos - System.nanoTime();
+            }
+            long productId = settings.firstProductId() + keyDistribution.next(random);
+            LocalDateTime applicationDate = LocalDateTime.ofEpochSecond(random.nextLong(fromSecond, toSecond + 1), 0,
+                    ZoneOffset.UTC);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":" + productId
+                            + ",\"brandId\":" + settings.brandId()
+                            + ",\"applicationDate\":\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(applicationDate)
+                            + "\"}"))
+                    .build();
+
+            boolean failed;
+            try {
+                failed = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() != 200;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // Only the requests ending in the measured phase are recorded
+            long end = System.nanoTime();
+            if (end >= measureFromNanos) {
+                recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - sendNanos),
+                        HIGHEST_TRACKABLE_MICROS));
+                if (failed) {
+                    errors.increment();
+                }
+            }
+            sendNanos = intervalNanos > 0 ? sendNanos + intervalNanos : end;
+        }
+    }
+
+    /**
+     * This method prints the latency percentiles and the throughput, and writes the full latency distribution.
+     */
+    private boolean report(Histogram histogram, long errorCount) throws IOException {
+
+        double seconds = settings.duration().toMillis() / 1000.0;
+        long requests = histogram.getTotalCount();
+        double p99Millis = histogram.getValueAtPercentile(99) / 1000.0;
+        double errorRate = requests == 0 ? 1 : (double) errorCount / requests;
+
+        PrintStream out = System.out;
+        out.printf("Requests: %d, errors: %d (%.3f%%), throughput: %.1f req/s%n", requests, errorCount,
+                errorRate * 100, requests / seconds);
+        out.printf("Latency ms: p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                p99Millis, histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+
+        Path outputDir = Path.of(System.getProperty("loadTest.outputDir", "build/loadtest"));
+        Files.createDirectories(outputDir);
+        Path distributionFile = outputDir.resolve("latency-" + System.currentTimeMillis() + ".hgrm");
+        try (PrintStream distribution = new PrintStream(Files.newOutputStream(distributionFile))) {
+            histogram.outputPercentileDistribution(distribution, 1000.0);
+        }
+        out.println("Latency distribution in ms written to " + distributionFile.toAbsolutePath());
+
+        boolean passed = p99Millis <= settings.p99BudgetMillis() && errorRate <= settings.maxErrorRate();
+        if (!passed) {
+            out.printf("FAILED: p99 %.3f ms (budget %.3f ms), error rate %.3f%% (maximum %.3f%%)%n", p99Millis,
+                    settings.p99BudgetMillis(), errorRate * 100, settings.maxErrorRate() * 100);
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,188 @@
+package com.inventory.ex.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark launching the application in several modes, like the executable jar, the AOT processed build,
+ * the CDS archive or the native image, and measuring the time from the launch of the process to the first successful
+ * response of the price endpoint, which includes the JVM boot, the context refresh and the replay of import.sql.
+ * The modes are launched in turns, every one the same number of times, and the median, minimum and maximum times
+ * are reported against the first mode, which is the executable jar.
+ * The modes are received as arguments, each one as --mode, its name and its command line, which is completed with
+ * the server port. A command starting with java runs the JVM of the benchmark.
+ */
+public final class StartupBenchmark {
+
+    private static final String MODE_ARGUMENT = "--mode";
+
+    private final Map<String, List<String>> modes;
+
+    private final int runs;
+
+    private final int port;
+
+    private final URI uri;
+
+    private final Duration timeout;
+
+    private final Path outputDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(Map<String, List<String>> modes) {
+
+        this.modes = modes;
+        this.runs = Integer.parseInt(property("runs", "5"));
+        this.port = Integer.parseInt(property("port", "18080"));
+        this.uri = URI.create("http://localhost:" + port
+                + property("path", "/product/35455/brand/1/price?at=2020-06-14T10:00:00"));
+        this.timeout = Duration.ofSeconds(Long.parseLong(property("timeoutSeconds", "120")));
+        this.outputDir = Path.of(property("outputDir", "build/startup"));
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, List<String>> modes = parseModes(args);
+        if (modes.isEmpty()) {
+            throw new IllegalArgumentException("No startup mode to measure");
+        }
+        new StartupBenchmark(modes).run();
+    }
+
+    /**
+     * This method launches every mode in turns and reports their startup times.
+     */
+    private void run() throws IOException, InterruptedException {
+
+        Files.createDirectories(outputDir);
+        Map<String, long[]> startupMillis = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> startupMillis.put(mode, new long[runs]));
+
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long millis = measure(mode.getKey(), mode.getValue());
+                startupMillis.get(mode.getKey())[run] = millis;
+                System.out.printf("Run %d of %s: first response in %d ms%n", run + 1, mode.getKey(), millis);
+            }
+        }
+        report(startupMillis);
+    }
+
+    /**
+     * Launches the application, waits for its first successful response and stops it.
+     *
+     * @return The time from the launch to the first response, in milliseconds.
+     */
+    private long measure(String mode, List<String> command) throws IOException, InterruptedException {
+
+        List<String> processCommand = new ArrayList<>(command);
+        if (processCommand.get(0).equals("java")) {
+            processCommand.set(0, Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        }
+        processCommand.add("--server.port=" + port);
+
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(processCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(outputDir.resolve(mode + ".log").toFile())
+                .start();
+        try {
+            long deadline = startNanos + timeout.toNanos();
+            while (!respond()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application of the mode " + mode + " exited with status "
+                            + process.exitValue() + ", see " + outputDir.resolve(mode + ".log"));
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("The application of the mode " + mode + " did not respond in "
+                            + timeout);
+                }
+                Thread.sleep(5);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Sends a request to the application, which does not respond while it starts.
+     */
+    private boolean respond() throws InterruptedException {
+
+        try {
+            return httpClient.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method prints the median, minimum and maximum startup times of every mode, and writes them to a file.
+     */
+    private void report(Map<String, long[]> startupMillis) throws IOException {
+
+        Path reportFile = outputDir.resolve("startup-" + System.currentTimeMillis() + ".txt");
+        try (PrintStream file = new PrintStream(Files.newOutputStream(reportFile))) {
+            long baselineMillis = -1;
+            for (Map.Entry<String, long[]> mode : startupMillis.entrySet()) {
+                long[] millis = mode.getValue().clone();
+                Arrays.sort(millis);
+                long medianMillis = millis[millis.length / 2];
+                if (baselineMillis < 0) {
+                    baselineMillis = medianMillis;
+                }
+                String line = String.format("%-10s median=%d ms min=%d ms max=%d ms (%.2fx of %s)", mode.getKey(),
+                        medianMillis, millis[0], millis[millis.length - 1], (double) medianMillis / baselineMillis,
+                        startupMillis.keySet().iterator().next());
+                System.out.println(line);
+                file.println(line);
+            }
+        }
+        System.out.println("Startup times written to " + reportFile.toAbsolutePath());
+    }
+
+    /**
+     * Reads the modes from the arguments, each one as --mode, its name and its command line.
+     */
+    private static Map<String, List<String>> parseModes(String[] args) {
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        List<String> command = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(MODE_ARGUMENT) && i + 1 < args.length) {
+                command = new ArrayList<>();
+                modes.put(args[++i], command);
+            } else if (command != null) {
+                command.add(args[i]);
+            }
+        }
+        modes.values().removeIf(List::isEmpty);
+        return modes;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("startup." + name, defaultValue);
+    }
+}
@@ -0,0 +1,92 @@
+package com.inventory.ex.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity tag of a resolved product price, which identifies the Price applying and the segment of its timeline in
+ * which it applies, together with the version of the timeline of the product and, for a price converted to another
+ * currency, the currency and the version of the FX rates. A response is still valid for another date while the
+ * versions are the same and the date is inside the segment, so a conditional request is answered without resolving it.
+ *
+ * @param priceId Applicable price schedule identifier.
+ * @param validFrom First instant of the segment, in epoch milliseconds, inclusive.
+ * @param validUntil Last instant of the segment, in epoch milliseconds, exclusive.
+ * @param version Version of the price timeline of the product.
+ * @param currency Currency the price is converted to, or null for the currency of the Price.
+ * @param fxVersion Version of the FX rates converting the price, 0 when not converted.
+ */
+public record PriceEtag(long priceId, long validFrom, long validUntil, long version, String currency,
+                        long fxVersion) {
+
+    /**
+     * Separator of the fields in the entity tag.
+     */
+    private static final String SEPARATOR = ".";
+
+    /**
+     * This method returns the entity tag as written in the ETag header, quoted.
+     *
+     * @return The entity tag.
+     */
+    public String format() {
+
+        StringBuilder etag = new StringBuilder().append('"')
+                .append(priceId).append(SEPARATOR).append(validFrom).append(SEPARATOR).append(validUntil)
+                .append(SEPARATOR).append(version);
+        if (currency != null) {
+            etag.append(SEPARATOR).append(currency).append(SEPARATOR).append(fxVersion);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * This method checks if the response tagged is still the one of a product price request.
+     *
+     * @param version Current version of the price timeline of the product.
+     * @param currency Currency requested, or null for the currency of the Price.
+     * @param fxVersion Current version of the FX rates, ignored when no currency is requested.
+     * @param date Date and time requested, in epoch milliseconds.
+     * @return True if the response tagged answers the request.
+     */
+    public boolean matches(long version, String currency, long fxVersion, long date) {
+
+        if (this.version != version || validFrom > date || date >= validUntil) {
+            return false;
+        }
+        return currency == null ? this.currency == null : currency.equals(this.currency) && this.fxVersion == fxVersion;
+    }
+
+    /**
+     * This method reads the entity tags of an If-None-Match header, skipping the weak prefixes and the tags not
+     * written by this class.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header.
+     * @return The PriceEtags of the header, in the same order.
+     */
+    public static List<PriceEtag> parse(String ifNoneMatch) {
+
+        List<PriceEtag> etags = new ArrayList<>();
+        for (String value : ifNoneMatch.split(",")) {
+            String etag = value.trim();
+            if (etag.startsWith("W/")) {
+                etag = etag.substring(2);
+            }
+            if (etag.length() < 2 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+                continue;
+            }
+            String[] fields = etag.substring(1, etag.length() - 1).split("\\.");
+            if (fields.length != 4 && fields.length != 6) {
+                continue;
+            }
+            try {
+                etags.add(new PriceEtag(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields.length == 6 ? fields[4] : null,
+                        fields.length == 6 ? Long.parseLong(fields[5]) : 0));
+            } catch (NumberFormatException e) {
+                // Not written by this class
+            }
+        }
+        return etags;
+    }
+}
@@ -0,0 +1,170 @@
+package com.inventory.ex.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.inventory.ex.index.PriceSegment;
+import com.inventory.ex.index.PriceTimelineCompiler;
+import com.inventory.ex.index.ProductKey;
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import com.inventory.ex.persistance.PriceChangedEvent;
+import com.inventory.ex.repository.PriceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of the resolved PriceSegment of the most requested products, in front of the Data Base.
+ * The entries are evicted by size with the W-TinyLFU policy of Caffeine, so the hot products stay cached.
+ * An entry only answers the dates inside its segment, which ends with the winning Price or when another Price
+ * takes precedence, and it expires when the current time reaches the end of the segment instead of on a fixed TTL.
+ * A miss is resolved outside of any lock of the cache, so the other products are never blocked by the Data Base. The
+ * products are hashed into a fixed number of stripes with an invalidation generation each, read before the Prices
+ * are read, and the segment is only stored if the generation of its stripe is unchanged, so a segment read before a
+ * commit is never stored after the invalidation of the commit.
+ * Enabled with the property inventory.price-cache.enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.price-cache.enabled", havingValue = "true")
+public class PriceLookupCache {
+
+    /**
+     * The class retrieving the Prices from the Data Base on a cache miss.
+     */
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /**
+     * Number of stripes of the invalidation generations, a power of two.
+     */
+    private static final int STRIPES = 4096;
+
+    /**
+     * Resolved segments by product and brand.
+     */
+    private final Cache<ProductKey, PriceSegment> segments;
+
+    /**
+     * Invalidation generation of every stripe of products, increased before the segments are discarded.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * Builds the cache and exposes its statistics as metrics.
+     *
+     * @param maximumSize Maximum number of products kept in the cache.
+     * @param meterRegistry The registry of the application metrics.
+     */
+    public PriceLookupCache(@Value("${inventory.price-cache.maximum-size:10000}") long maximumSize,
+                            MeterRegistry meterRegistry) {
+
+        segments = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new SegmentExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, segments, "price-lookup");
+    }
+
+    /**
+     * This method returns the resolved segment of the product containing the specified date, retrieving and
+     * resolving the Prices of the product from the Data Base if the cached segment does not contain the date.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param date Date and time to apply the product price, in epoch milliseconds.
+     * @return Optional of the PriceSegment, or an empty object if no Price applies to the date.
+     */
+    public Optional<PriceSegment> findSegment(long productId, int brandId, long date) {
+
+        ProductKey productKey = new ProductKey(productId, brandId);
+        PriceSegment segment = segments.getIfPresent(productKey);
+        if (segment != null && segment.contains(date)) {
+            return Optional.of(segment);
+        }
+
+        // The generation is read before the Prices, so a change committed while they are read, or before the segment
+        // is stored, is seen either by the check under the lock of the entry or by the invalidation following it
+        int stripe = stripe(productId);
+        long generation = generations.get(stripe);
+        PriceSegment resolvedSegment = PriceTimelineCompiler
+                .compile(priceRepository.findByProductIdAndBrandId(productId, brandId))
+                .findSegment(date)
+                .orElse(null);
+        if (resolvedSegment != null) {
+            segments.asMap().compute(productKey, (key, cachedSegment) ->
+                    generations.get(stripe) == generation ? resolvedSegment : cachedSegment);
+        }
+        return Optional.ofNullable(resolvedSegment);
+    }
+
+    /**
+     * This method discards the cached segment of a product once the change of one of its Prices is committed,
+     * before its version is increased.
+     *
+     * @param priceChangedEvent The event with the product changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void priceChanged(PriceChangedEvent priceChangedEvent) {
+
+        generations.incrementAndGet(stripe(priceChangedEvent.productId()));
+        segments.invalidate(new ProductKey(priceChangedEvent.productId(), priceChangedEvent.brandId()));
+    }
+
+    /**
+     * This method discards every cached segment once the catalog has been changed in bulk, before the versions are
+     * increased.
+     *
+     * @param catalogChangedEvent The event with the number of Prices changed.
+     */
+    @EventListener
+    @Order(0)
+    public void catalogChanged(CatalogChangedEvent catalogChangedEvent) {
+
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        segments.invalidateAll();
+    }
+
+    private static int stripe(long productId) {
+        return (Long.hashCode(productId) * 0x9E3779B9) >>> 20;
+    }
+
+    /**
+     * Expiration of the cached segments when the current time reaches their end. Segments already ended only serve
+     * lookups of past dates and are just evicted by size.
+     */
+    private static class SegmentExpiry implements Expiry<ProductKey, PriceSegment> {
+
+        @Override
+        public long expireAfterCreate(ProductKey productKey, PriceSegment segment, long currentTime) {
+
+            long remainingMillis = segment.validUntil() - System.currentTimeMillis();
+            return remainingMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(remainingMillis) : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(ProductKey productKey, PriceSegment segment, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(productKey, segment, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ProductKey productKey, PriceSegment segment, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.inventory.ex.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ex.config.MetricsConfiguration;
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.index.PriceIndex;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.shard.PriceShards;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import static com.inventory.ex.service.ProductPriceMapper.toProductPriceResponse;
+
+/**
+ * Cache of the response body of every resolved price segment of the in-memory price index, already serialized.
+ * The response is the same for every date inside a segment, so it is serialized by Jackson, and compressed with gzip
+ * when requested, the first time the segment is resolved and the same bytes are written for the next lookups.
+ * The responses are keyed by their content, the product, brand and fields of the winning Price, so the responses of
+ * the Prices not changed are kept when the index is refreshed, and a changed Price is served under a new key. The
+ * responses are evicted by size with the W-TinyLFU policy of Caffeine, so the stale ones are evicted first.
+ * Enabled with the property inventory.price-response-cache.enabled, which requires inventory.price-index.enabled.
+ * The segments are resolved in the index without going through the service, so it cannot be enabled together with
+ * inventory.price-shards.enabled, whose brand bulkheads it would bypass.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.price-response-cache.enabled", havingValue = "true")
+public class PriceResponseCache {
+
+    /**
+     * The in-memory index resolving the segments.
+     */
+    private final PriceIndex priceIndex;
+
+    /**
+     * The JSON mapper configured by Spring, so the bytes are the same written by the controller.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Serialized response of the requests without any applicable Price.
+     */
+    private final byte[] emptyResponse;
+
+    /**
+     * Compressed response of the requests without any applicable Price.
+     */
+    private final byte[] emptyResponseGzip;
+
+    /**
+     * Lookups answered with bytes already serialized.
+     */
+    private final Counter hits;
+
+    /**
+     * Lookups serializing the response of the segment.
+     */
+    private final Counter misses;
+
+    /**
+     * Serialized responses by their content.
+     */
+    private final Cache<ResponseKey, EncodedResponse> responses;
+
+    /**
+     * Builds the cache.
+     *
+     * @param priceIndex The provider of the in-memory price index.
+     * @param priceShards The provider of the shards of the price lookups, which must not be enabled.
+     * @param objectMapper The JSON mapper configured by Spring.
+     * @param maximumSize Maximum number of responses kept in the cache.
+     * @param meterRegistry The registry of the application metrics.
+     */
+    public PriceResponseCache(ObjectProvider<PriceIndex> priceIndex, ObjectProvider<PriceShards> priceShards,
+                              ObjectMapper objectMapper,
+                              @Value("${inventory.price-response-cache.maximum-size:100000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+
+        this.priceIndex = priceIndex.getIfAvailable();
+        if (this.priceIndex == null) {
+            throw new IllegalStateException(
+                    "inventory.price-response-cache.enabled requires inventory.price-index.enabled=true");
+        }
+        if (priceShards.getIfAvailable() != null) {
+            throw new IllegalStateException("inventory.price-response-cache.enabled bypasses the brand bulkheads of "
+                    + "inventory.price-shards.enabled");
+        }
+        this.objectMapper = objectMapper;
+        this.emptyResponse = serialize(new ProductPriceResponse());
+        this.emptyResponseGzip = gzip(emptyResponse);
+        this.hits = Counter.builder("inventory.price.response.cache").tag("result", "hit")
+                .description("Price responses written from the serialized segments").register(meterRegistry);
+        this.misses = Counter.builder("inventory.price.response.cache").tag("result", "miss")
+                .description("Price responses serialized for a segment").register(meterRegistry);
+        this.responses = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * This method returns the serialized response of the product's price for the specified date.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @param gzip Whether the response is returned compressed with gzip.
+     * @return The bytes of the response body, which must not be modified.
+     */
+    @Timed(value = MetricsConfiguration.PRICE_RESOLUTION_TIMER, extraTags = {"operation", "single"}, histogram = true)
+    public byte[] getResponse(ProductPriceRequest productPriceRequest, boolean gzip) {
+
+        if (productPriceRequest.getApplicationDate() == null) {
+            return gzip ? emptyResponseGzip : emptyResponse;
+        }
+
+        PriceStore priceStore = priceIndex.getPriceStore();
+        int segment = priceStore.findSegment(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                productPriceRequest.getApplicationDate().getTime());
+        if (segment == PriceStore.NOT_FOUND) {
+            return gzip ? emptyResponseGzip : emptyResponse;
+        }
+
+        ResponseKey responseKey = new ResponseKey(productPriceRequest.getProductId(),
+                productPriceRequest.getBrandId(), priceStore.priceId(segment), priceStore.startDate(segment),
+                priceStore.endDate(segment), priceStore.price(segment), priceStore.currency(segment));
+        EncodedResponse encoded = responses.getIfPresent(responseKey);
+        byte[] response = encoded == null ? null : gzip ? encoded.gzip : encoded.json;
+        if (response != null) {
+            hits.increment();
+            return response;
+        }
+
+        misses.increment();
+        if (encoded == null) {
+            encoded = responses.get(responseKey, key -> new EncodedResponse(
+                    serialize(toProductPriceResponse(productPriceRequest, priceStore, segment))));
+        }
+        if (!gzip) {
+            return encoded.json;
+        }
+        response = gzip(encoded.json);
+        encoded.gzip = response;
+        return response;
+    }
+
+    private byte[] serialize(ProductPriceResponse productPriceResponse) {
+
+        try {
+            return objectMapper.writeValueAsBytes(productPriceResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the price response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Content of a response: the requested product and brand, and the fields of the winning Price.
+     */
+    private record ResponseKey(long productId, int brandId, long priceId, long startDate, long endDate, double price,
+                               String currency) {
+    }
+
+    /**
+     * Serialized response, and its copy compressed with gzip once requested.
+     */
+    private static final class EncodedResponse {
+
+        /**
+         * The JSON response.
+         */
+        private final byte[] json;
+
+        /**
+         * The JSON response compressed with gzip, or null until requested.
+         */
+        private volatile byte[] gzip;
+
+        private EncodedResponse(byte[] json) {
+            this.json = json;
+        }
+    }
+}
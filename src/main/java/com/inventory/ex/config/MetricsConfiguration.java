@@ -0,0 +1,34 @@
+package com.inventory.ex.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the application metrics exposed through Actuator.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Name of the timer around the price endpoints.
+     */
+    public static final String PRICE_REQUEST_TIMER = "inventory.price.request";
+
+    /**
+     * Name of the timer around the price resolution of the service.
+     */
+    public static final String PRICE_RESOLUTION_TIMER = "inventory.price.resolution";
+
+    /**
+     * Aspect recording the methods annotated with @Timed.
+     *
+     * @param meterRegistry The registry of the application metrics.
+     * @return The TimedAspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
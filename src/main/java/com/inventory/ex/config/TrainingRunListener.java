@@ -0,0 +1,77 @@
+package com.inventory.ex.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Ends a training run of the application once it is ready, after optionally sending it one request, so the classes
+ * loaded by the startup and by a first request can be archived in a CDS archive when the JVM exits.
+ * Enabled with the property inventory.training-run.enabled. The property is read at runtime instead of being a
+ * condition of the bean, so an AOT processed build can also be trained.
+ */
+@Slf4j
+@Component
+public class TrainingRunListener {
+
+    /**
+     * Whether the application exits once it is ready.
+     */
+    @Value("${inventory.training-run.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Path and query of the GET request sent to the application before exiting, or empty for none.
+     */
+    @Value("${inventory.training-run.path:}")
+    private String path;
+
+    /**
+     * This method sends the training request and closes the application, exiting the JVM.
+     *
+     * @param applicationReadyEvent The event of the application ready to serve requests.
+     */
+    @EventListener
+    public void applicationReady(ApplicationReadyEvent applicationReadyEvent) {
+
+        if (!enabled) {
+            return;
+        }
+        ConfigurableApplicationContext applicationContext = applicationReadyEvent.getApplicationContext();
+        if (!path.isBlank() && applicationContext instanceof WebServerApplicationContext webServerContext) {
+            sendRequest(webServerContext.getWebServer().getPort());
+        }
+        log.info("Training run ended in {} ms, exiting", applicationReadyEvent.getTimeTaken().toMillis());
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+
+    /**
+     * Sends the training request to the application, whose outcome does not matter.
+     */
+    private void sendRequest(int port) {
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path.trim()))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            int status = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            log.info("Training request {} answered with status {}", path, status);
+        } catch (IOException e) {
+            log.warn("Training request {} failed", path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.ex.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration running the Tomcat request handling, and therefore the service and repository calls made by it, on
+ * virtual threads instead of the platform thread pool. A thread blocked on a JDBC call then releases its carrier
+ * thread, so the number of in-flight requests is no longer bounded by the size of the Tomcat pool.
+ * Enabled with the property inventory.threads.virtual, it requires Java 21 or later at runtime. The request handling
+ * does not hold any monitor around blocking calls, so the carrier threads are not pinned by it: the price cache reads
+ * the Prices outside of any lock of the cache, the price writes are serialised with ReentrantLocks and the connection
+ * pool parks the threads waiting for a connection. The refreshes of the price index, the price snapshot and the FX
+ * rates query the Data Base holding their monitor, but they run on their own platform threads or at startup.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "inventory.threads.virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    /**
+     * Executor starting a new virtual thread for every task.
+     *
+     * @return The ExecutorService, shut down with the application context.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+
+        try {
+            ExecutorService executorService =
+                    (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("Request handling runs on virtual threads");
+            return executorService;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on Java "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor could not be created", e);
+        }
+    }
+
+    /**
+     * Customizer making Tomcat process every request on a virtual thread.
+     *
+     * @param virtualThreadExecutor The executor of virtual threads.
+     * @return The TomcatProtocolHandlerCustomizer.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Executor of the asynchronous Spring MVC requests on virtual threads, replacing the default thread pool.
+     *
+     * @param virtualThreadExecutor The executor of virtual threads.
+     * @return The AsyncTaskExecutor.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.ex.controller;
+
+import com.inventory.ex.dto.request.PriceWriteRequest;
+import com.inventory.ex.dto.response.PriceResponse;
+import com.inventory.ex.service.PriceWriteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This is the Controller class for the Price write endpoints, on the servlet stack.
+ */
+@RequestMapping(value = "price")
+@RestController
+@Validated
+@Profile("!reactive")
+public class PriceController {
+
+    /**
+     * This is the business logic class supporting the Price endpoints.
+     */
+    @Autowired
+    private PriceWriteService priceWriteService;
+
+    /**
+     * This method creates a Price of an existing product.
+     *
+     * @param priceWriteRequest The request object with the fields of the Price.
+     * @return The ResponseEntity with the Price created, or a not found status if the product does not exist.
+     */
+    @PostMapping
+    public ResponseEntity<PriceResponse> createPrice(@RequestBody PriceWriteRequest priceWriteRequest){
+
+        return priceWriteService.createPrice(priceWriteRequest)
+                .map(priceResponse -> new ResponseEntity<>(priceResponse, HttpStatus.CREATED))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * This method updates the fields of a Price.
+     *
+     * @param priceId Applicable price schedule identifier.
+     * @param priceWriteRequest The request object with the new fields of the Price.
+     * @return The ResponseEntity with the Price updated, or a not found status if it does not exist.
+     */
+    @PutMapping("/{priceId}")
+    public ResponseEntity<PriceResponse> updatePrice(@PathVariable long priceId,
+                                                     @RequestBody PriceWriteRequest priceWriteRequest){
+
+        return priceWriteService.updatePrice(priceId, priceWriteRequest)
+                .map(priceResponse -> new ResponseEntity<>(priceResponse, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * This method ends a Price at the current date, or removes it if it has not started yet.
+     *
+     * @param priceId Applicable price schedule identifier.
+     * @return The ResponseEntity with a no content status, or a not found status if the Price does not exist.
+     */
+    @DeleteMapping("/{priceId}")
+    public ResponseEntity<Void> endPrice(@PathVariable long priceId){
+
+        return new ResponseEntity<>(priceWriteService.endPrice(priceId) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * This method answers the requests with invalid Price fields with a bad request status.
+     *
+     * @param illegalArgumentException The exception describing the invalid fields.
+     * @return The ResponseEntity with the description of the invalid fields.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidPrice(IllegalArgumentException illegalArgumentException){
+
+        return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
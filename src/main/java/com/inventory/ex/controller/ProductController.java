@@ -1,30 +1,118 @@
 package com.inventory.ex.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.ex.cache.PriceEtag;
+import com.inventory.ex.cache.PriceResponseCache;
+import com.inventory.ex.config.MetricsConfiguration;
+import com.inventory.ex.dto.request.PriceTimelineRequest;
 import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.PriceTimelineResponse;
 import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.dto.response.ProductPriceValidity;
+import com.inventory.ex.fx.FxRateStore;
+import com.inventory.ex.index.PriceVersions;
+import com.inventory.ex.service.InvalidPriceRequestException;
 import com.inventory.ex.service.ProductService;
+import com.inventory.ex.shard.PriceShardRejectedException;
+import com.inventory.ex.warmup.HotKeyRecorder;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
- * This is the Controller class for the Product endpoint.
+ * This is the Controller class for the Product endpoint, on the servlet stack.
  */
 @RequestMapping(value = "product")
 @RestController
 @Validated
+@Profile("!reactive")
 public class ProductController {
 
+    /**
+     * Media type of the newline-delimited JSON streams.
+     */
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     /**
      * This is the business logic class supporting Product endpoint.
      */
     @Autowired
     private ProductService productService;
 
+    /**
+     * The cache of the serialized responses of the resolved price segments, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceResponseCache priceResponseCache;
+
+    /**
+     * The recorder of the most requested products, warmed up at the next start, only available when enabled.
+     * The lookups are recorded here, where the requests arrive, whatever path resolves them.
+     */
+    @Autowired(required = false)
+    private HotKeyRecorder hotKeyRecorder;
+
+    /**
+     * The JSON mapper configured by Spring, used to read and write the streamed records.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The versions of the price timelines of the products, validating the entity tags of the responses.
+     */
+    @Autowired
+    private PriceVersions priceVersions;
+
+    /**
+     * The FX rates, whose version validates the entity tags of the responses converted to another currency.
+     */
+    @Autowired
+    private FxRateStore fxRateStore;
+
+    /**
+     * Maximum time a response of the GET price endpoint may be cached by the clients.
+     */
+    @Value("${inventory.price-http-cache.max-age:60s}")
+    private Duration httpCacheMaxAge;
+
+    /**
+     * Maximum number of requests of a batch, larger inputs being streamed.
+     */
+    @Value("${inventory.price-batch.max-size:1000}")
+    private int batchMaxSize;
+
+    /**
+     * Number of streamed requests resolved together, which bounds the memory used by a stream.
+     */
+    @Value("${inventory.price-stream.chunk-size:500}")
+    private int streamChunkSize;
+
     /**
      * This method retrieves a message to verify that the application is running.
      *
@@ -38,12 +126,47 @@ public class ProductController {
 
     /**
      * This method returns the product's price to apply to the specified date.
+     * When the response cache is enabled the serialized response is written straight to the HTTP response,
+     * compressed with gzip if the client accepts it, and no ResponseEntity is returned.
      *
      * @param productPriceRequest The request object with the required parameters.
+     * @param acceptEncoding The content codings accepted by the client.
+     * @param response The HTTP response where the serialized response is written.
      * @return The retrieved ResponseEntity with the information requested, or an empty object if not found.
+     * @throws IOException If the serialized response cannot be written.
      */
     @PostMapping("/price")
-    public ResponseEntity<ProductPriceResponse> getProductPrice(@RequestBody ProductPriceRequest productPriceRequest){
+    @Timed(value = MetricsConfiguration.PRICE_REQUEST_TIMER, extraTags = {"endpoint", "price"}, histogram = true)
+    public ResponseEntity<ProductPriceResponse> getProductPrice(
+            @RequestBody ProductPriceRequest productPriceRequest,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        recordHotKey(productPriceRequest.getProductId(), productPriceRequest.getBrandId());
+        // The cached responses are in the currency of the Prices
+        if(priceResponseCache == null || productPriceRequest.getCurrency() != null){
+            return getProductPrice(productPriceRequest);
+        }
+
+        boolean gzip = acceptEncoding != null && acceptsGzip(acceptEncoding);
+        byte[] body = priceResponseCache.getResponse(productPriceRequest, gzip);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip){
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.getOutputStream().write(body);
+        return null;
+    }
+
+    /**
+     * This method returns the product's price to apply to the specified date, serialized by Spring.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The retrieved ResponseEntity with the information requested, or an empty object if not found.
+     */
+    public ResponseEntity<ProductPriceResponse> getProductPrice(ProductPriceRequest productPriceRequest){
 
         Optional<ProductPriceResponse> optionalProductPrice =
                 productService.getProductPricesByDate(productPriceRequest);
@@ -51,4 +174,261 @@ public class ProductController {
 
         return new ResponseEntity<>(productPriceResponse, HttpStatus.OK);
     }
+
+
+    /**
+     * This method returns the product's price to apply to the specified date, or to the current date when not
+     * specified, as a cacheable response.
+     * The response is tagged with the Price applying and the segment of the price timeline in which it applies, and
+     * may be cached for the remaining time of the segment when the date is the current one, up to the maximum age.
+     * A conditional request whose entity tag is still current and whose segment contains the date is answered with a
+     * not modified status without resolving the price again.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param at Date and time to apply the product price in UTC, or null for the current one.
+     * @param currency Currency to convert the price to, or null for the currency of the Price.
+     * @param ifNoneMatch The entity tags of the responses already cached by the client.
+     * @return The retrieved ResponseEntity with the information requested, or an empty object if not found, or a not
+     * modified status.
+     */
+    @GetMapping("/{productId}/brand/{brandId}/price")
+    @Timed(value = MetricsConfiguration.PRICE_REQUEST_TIMER, extraTags = {"endpoint", "price-get"}, histogram = true)
+    public ResponseEntity<ProductPriceResponse> getCacheableProductPrice(
+            @PathVariable long productId, @PathVariable int brandId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) String currency,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+
+        recordHotKey(productId, brandId);
+        long now = System.currentTimeMillis();
+        // Read in UTC, as the dates of the JSON requests
+        long date = at == null ? now : at.toInstant(ZoneOffset.UTC).toEpochMilli();
+        // The versions are read before resolving, so the response is never tagged newer than it is
+        long version = priceVersions.version(productId);
+        long fxVersion = currency == null ? 0 : fxRateStore.getVersion();
+
+        if(ifNoneMatch != null){
+            for(PriceEtag priceEtag : PriceEtag.parse(ifNoneMatch)){
+                if(priceEtag.matches(version, currency, fxVersion, date)){
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(priceEtag.format())
+                            .cacheControl(cacheControl(priceEtag.validUntil(), at == null, now))
+                            .build();
+                }
+            }
+        }
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(productId);
+        productPriceRequest.setBrandId(brandId);
+        productPriceRequest.setApplicationDate(new Timestamp(date));
+        productPriceRequest.setCurrency(currency);
+        ProductPriceValidity productPriceValidity = productService.getProductPriceValidity(productPriceRequest);
+        ProductPriceResponse productPriceResponse = productPriceValidity.getProductPriceResponse();
+
+        // A price not found may be created at any time
+        if(productPriceResponse.getPriceList() == 0){
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productPriceResponse);
+        }
+        PriceEtag priceEtag = new PriceEtag(productPriceResponse.getPriceList(), productPriceValidity.getValidFrom(),
+                productPriceValidity.getValidUntil(), version, currency, fxVersion);
+        return ResponseEntity.ok()
+                .eTag(priceEtag.format())
+                .cacheControl(cacheControl(productPriceValidity.getValidUntil(), at == null, now))
+                .body(productPriceResponse);
+    }
+
+    /**
+     * This method returns the price of several products, each one for its own date.
+     *
+     * @param productPriceRequests The request objects with the required parameters.
+     * @return The retrieved ResponseEntity with the information requested in the same order as the requests, with
+     * an empty object for every request not found.
+     * @throws InvalidPriceRequestException If there are more requests than the maximum size of a batch.
+     */
+    @PostMapping("/prices")
+    @Timed(value = MetricsConfiguration.PRICE_REQUEST_TIMER, extraTags = {"endpoint", "prices"}, histogram = true)
+    public ResponseEntity<List<ProductPriceResponse>> getProductPrices(
+            @RequestBody List<ProductPriceRequest> productPriceRequests){
+
+        if(productPriceRequests.size() > batchMaxSize){
+            throw new InvalidPriceRequestException("A batch cannot have more than " + batchMaxSize
+                    + " requests, stream them to /product/prices/stream instead");
+        }
+        productPriceRequests.forEach(request -> recordHotKey(request.getProductId(), request.getBrandId()));
+        return new ResponseEntity<>(productService.getProductPricesByDates(productPriceRequests), HttpStatus.OK);
+    }
+
+
+    /**
+     * This method streams the price of any number of products, each one for its own date.
+     * The request body is read as newline-delimited JSON request objects and a newline-delimited JSON response
+     * object is written for each one, in the same order, as soon as every chunk of requests is resolved.
+     * Memory use is bounded by the chunk size, and a client that stops reading the responses also stops the reading
+     * of the requests.
+     *
+     * @param inputStream The request body with the newline-delimited request objects.
+     * @param response The HTTP response where the newline-delimited response objects are written.
+     * @throws IOException If the request body cannot be read or the response cannot be written.
+     */
+    @PostMapping(value = "/prices/stream", consumes = NDJSON_MEDIA_TYPE, produces = NDJSON_MEDIA_TYPE)
+    @Timed(value = MetricsConfiguration.PRICE_REQUEST_TIMER, extraTags = {"endpoint", "stream"}, histogram = true)
+    public void streamProductPrices(InputStream inputStream, HttpServletResponse response) throws IOException {
+
+        response.setContentType(NDJSON_MEDIA_TYPE);
+
+        try (MappingIterator<ProductPriceRequest> productPriceRequests =
+                     objectMapper.readerFor(ProductPriceRequest.class).readValues(inputStream);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(ProductPriceResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            List<ProductPriceRequest> chunk = new ArrayList<>(streamChunkSize);
+
+            while (productPriceRequests.hasNextValue()) {
+                chunk.add(productPriceRequests.nextValue());
+                if (chunk.size() == streamChunkSize) {
+                    writeProductPrices(chunk, writer, generator);
+                }
+            }
+            writeProductPrices(chunk, writer, generator);
+        }
+    }
+
+    /**
+     * This method streams the effective prices of a product over a period, as newline-delimited JSON objects in date
+     * order, each one with the Price applying and the part of the period in which it is effective.
+     *
+     * @param priceTimelineRequest The request object with the product and the period.
+     * @param response The HTTP response where the newline-delimited response objects are written.
+     * @throws IOException If the response cannot be written.
+     * @throws InvalidPriceRequestException If the request is not valid, answered with a bad request status before
+     * any segment is written.
+     */
+    @PostMapping(value = "/price/timeline", produces = NDJSON_MEDIA_TYPE)
+    @Timed(value = MetricsConfiguration.PRICE_REQUEST_TIMER, extraTags = {"endpoint", "timeline"}, histogram = true)
+    public void streamPriceTimeline(@RequestBody PriceTimelineRequest priceTimelineRequest,
+                                    HttpServletResponse response) throws IOException {
+
+        // Validated before the response is written, since the stream commits it
+        productService.validate(priceTimelineRequest);
+        response.setContentType(NDJSON_MEDIA_TYPE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(PriceTimelineResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            productService.streamPriceTimeline(priceTimelineRequest, priceTimelineResponse -> {
+                try {
+                    writer.writeValue(generator, priceTimelineResponse);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * This method answers the requests that are not valid, such as those of a currency without FX rates or a batch
+     * too large, with a bad request status.
+     *
+     * @param invalidPriceRequestException The exception describing why the request is not valid.
+     * @return The ResponseEntity with the description of why the request is not valid.
+     */
+    @ExceptionHandler(InvalidPriceRequestException.class)
+    public ResponseEntity<String> invalidRequest(InvalidPriceRequestException invalidPriceRequestException){
+
+        return new ResponseEntity<>(invalidPriceRequestException.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * This method answers the requests rejected by the shards of the price lookups with a service unavailable status.
+     *
+     * @param priceShardRejectedException The exception describing the reason of the rejection.
+     * @return The ResponseEntity with the reason of the rejection.
+     */
+    @ExceptionHandler(PriceShardRejectedException.class)
+    public ResponseEntity<String> lookupRejected(PriceShardRejectedException priceShardRejectedException){
+
+        return new ResponseEntity<>(priceShardRejectedException.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * This method tells whether the content codings accepted by the client include gzip with a quality above zero,
+     * named or through the wildcard, so gzip;q=0 refuses it.
+     */
+    private static boolean acceptsGzip(String acceptEncoding){
+
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for(String coding : acceptEncoding.split(",")){
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            double quality = 1;
+            for(int i = 1; i < parameters.length; i++){
+                String parameter = parameters[i].trim();
+                if(parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '='){
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if(name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")){
+                gzipQuality = Math.max(gzipQuality, quality);
+            } else if(name.equals("*")){
+                wildcardQuality = Math.max(wildcardQuality, quality);
+            }
+        }
+        return (gzipQuality >= 0 ? gzipQuality : wildcardQuality) > 0;
+    }
+
+    /**
+     * This method returns the caching of a price response, which applies until the end of its segment when requested
+     * for the current date, and for any date while the Prices are not changed, so its age is always bounded.
+     */
+    private CacheControl cacheControl(long validUntil, boolean currentDate, long now){
+
+        long maxAge = httpCacheMaxAge.toSeconds();
+        if(currentDate){
+            maxAge = Math.max(0, Math.min(maxAge, (validUntil - now) / 1000));
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic();
+    }
+
+    /**
+     * This method records a lookup of the price of a product, when the warm-up is enabled.
+     */
+    private void recordHotKey(long productId, int brandId){
+
+        if(hotKeyRecorder != null){
+            hotKeyRecorder.record(productId, brandId);
+        }
+    }
+
+    /**
+     * This method resolves a chunk of streamed requests, writes their responses and empties the chunk.
+     */
+    private void writeProductPrices(List<ProductPriceRequest> chunk, ObjectWriter writer, JsonGenerator generator)
+            throws IOException {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+        chunk.forEach(request -> recordHotKey(request.getProductId(), request.getBrandId()));
+        for (ProductPriceResponse productPriceResponse : productService.getProductPricesByDates(chunk)) {
+            writer.writeValue(generator, productPriceResponse);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+    }
 }
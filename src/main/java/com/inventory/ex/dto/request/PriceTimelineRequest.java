@@ -0,0 +1,41 @@
+package com.inventory.ex.dto.request;
+
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+/**
+ * PriceTimelineRequest class with the necessary fields to get the Product prices over a period. The dates of the
+ * period are required, which ProductService checks before streaming.
+ */
+@Data
+public class PriceTimelineRequest {
+
+    /**
+     * Product code identifier.
+     */
+    private long productId;
+
+    /**
+     * Product brand identifier.
+     */
+    private int brandId;
+
+    /**
+     * First date and time of the period, inclusive.
+     */
+    private Timestamp fromDate;
+
+    /**
+     * Last date and time of the period, inclusive.
+     */
+    private Timestamp toDate;
+
+    /**
+     * Currency code, ISO standardized, to convert the prices to, optional. The prices are returned in their own
+     * currency when not specified.
+     */
+    private String currency;
+
+
+}
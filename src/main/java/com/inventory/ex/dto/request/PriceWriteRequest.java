@@ -0,0 +1,49 @@
+package com.inventory.ex.dto.request;
+
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+/**
+ * PriceWriteRequest class with the fields of a Price to create or update. The dates and the currency are required,
+ * which PriceWriteService checks before writing.
+ */
+@Data
+public class PriceWriteRequest {
+
+    /**
+     * Product code identifier.
+     */
+    private long productId;
+
+    /**
+     * Product brand identifier.
+     */
+    private int brandId;
+
+    /**
+     * Start date on which the indicated rate price applies.
+     */
+    private Timestamp startDate;
+
+    /**
+     * End date on which the indicated rate price applies.
+     */
+    private Timestamp endDate;
+
+    /**
+     * Price rate application priority. The higher value has a higher priority.
+     */
+    private int priority;
+
+    /**
+     * Final sale price.
+     */
+    private double price;
+
+    /**
+     * Currency code, ISO standardized.
+     */
+    private String currency;
+
+}
@@ -29,5 +29,11 @@ public class ProductPriceRequest {
     @NotNull
     private Timestamp applicationDate;
 
+    /**
+     * Currency code, ISO standardized, to convert the price to, optional. The price is returned in its own currency
+     * when not specified.
+     */
+    private String currency;
+
 
 }
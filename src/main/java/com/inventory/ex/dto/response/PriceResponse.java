@@ -0,0 +1,54 @@
+package com.inventory.ex.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceResponse {
+
+    /**
+     * Applicable price schedule identifier.
+     */
+    private long priceList;
+
+    /**
+     * Product code identifier.
+     */
+    private long productId;
+
+    /**
+     * Product brand identifier.
+     */
+    private int brandId;
+
+    /**
+     * Start date on which the indicated rate price applies.
+     */
+    private Timestamp startDate;
+
+    /**
+     * End date on which the indicated rate price applies.
+     */
+    private Timestamp endDate;
+
+    /**
+     * Price rate application priority. The higher value has a higher priority.
+     */
+    private int priority;
+
+    /**
+     * Final sale price.
+     */
+    private double price;
+
+    /**
+     * Currency code, ISO standardized.
+     */
+    private String currency;
+
+}
@@ -0,0 +1,63 @@
+package com.inventory.ex.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * PriceTimelineResponse class with a segment of the timeline of a product over a period: the Price applying and the
+ * part of the period in which it is effective.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTimelineResponse {
+
+    /**
+     * Product code identifier.
+     */
+    private long productId;
+
+    /**
+     * Product brand identifier.
+     */
+    private int brandId;
+
+    /**
+     * First date and time on which the price is effective in the requested period, inclusive.
+     */
+    private Timestamp effectiveFrom;
+
+    /**
+     * Last date and time on which the price is effective in the requested period, inclusive.
+     */
+    private Timestamp effectiveTo;
+
+    /**
+     * Applicable price schedule identifier.
+     */
+    private long priceList;
+
+    /**
+     * Start date on which the indicated rate price applies.
+     */
+    private Timestamp startDate;
+
+    /**
+     * End date on which the indicated rate price applies.
+     */
+    private Timestamp endDate;
+
+    /**
+     * Final sale price.
+     */
+    private double price;
+
+    /**
+     * Currency code, ISO standardized, of the price.
+     */
+    private String currency;
+
+}
@@ -1,10 +1,14 @@
 package com.inventory.ex.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.sql.Timestamp;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductPriceResponse {
 
     /**
@@ -37,4 +41,9 @@ public class ProductPriceResponse {
      */
     private double price;
 
+    /**
+     * Currency code, ISO standardized, of the price.
+     */
+    private String currency;
+
 }
@@ -0,0 +1,27 @@
+package com.inventory.ex.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPriceValidity {
+
+    /**
+     * The product's price information, or an empty object if not found.
+     */
+    private ProductPriceResponse productPriceResponse;
+
+    /**
+     * First instant on which the same price information applies, in epoch milliseconds, inclusive.
+     */
+    private long validFrom;
+
+    /**
+     * Last instant on which the same price information applies, in epoch milliseconds, exclusive. Equal to validFrom
+     * when the price is not found.
+     */
+    private long validUntil;
+}
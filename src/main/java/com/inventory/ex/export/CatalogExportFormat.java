@@ -0,0 +1,150 @@
+package com.inventory.ex.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats of the catalog exports, written one record at a time so the export is never held in memory.
+ */
+public enum CatalogExportFormat {
+
+    /**
+     * Comma separated values, with a header line and the columns
+     * PRODUCT_ID,BRAND_ID,PRICE_LIST,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY.
+     */
+    CSV {
+        @Override
+        public void writeHeader(Writer writer) throws IOException {
+            writer.write("PRODUCT_ID,BRAND_ID,PRICE_LIST,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY\n");
+        }
+
+        @Override
+        public RecordWriter open(Writer writer, ObjectMapper objectMapper) {
+
+            return new RecordWriter() {
+                @Override
+                public void write(CatalogExportRecord catalogExportRecord) throws IOException {
+
+                    writer.append(Long.toString(catalogExportRecord.productId())).append(',')
+                            .append(Integer.toString(catalogExportRecord.brandId())).append(',')
+                            .append(Long.toString(catalogExportRecord.priceList())).append(',')
+                            .append(DATE_FORMAT.format(catalogExportRecord.startDate().toLocalDateTime())).append(',')
+                            .append(DATE_FORMAT.format(catalogExportRecord.endDate().toLocalDateTime())).append(',')
+                            .append(Integer.toString(catalogExportRecord.priority())).append(',')
+                            .append(Double.toString(catalogExportRecord.price())).append(',')
+                            .append(catalogExportRecord.currency()).append('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+    },
+
+    /**
+     * Newline-delimited JSON, with an object per line with the fields of CatalogExportRecord.
+     */
+    NDJSON {
+        @Override
+        public void writeHeader(Writer writer) {
+        }
+
+        @Override
+        public RecordWriter open(Writer writer, ObjectMapper objectMapper) throws IOException {
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+            ObjectWriter objectWriter = objectMapper.writerFor(CatalogExportRecord.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            return new RecordWriter() {
+                @Override
+                public void write(CatalogExportRecord catalogExportRecord) throws IOException {
+
+                    objectWriter.writeValue(generator, catalogExportRecord);
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    generator.flush();
+                }
+            };
+        }
+    };
+
+    /**
+     * Format of the dates of the CSV exports, the same as the price feeds.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * This method writes the header of an export, before the records of every partition.
+     *
+     * @param writer The writer of the export.
+     * @throws IOException If the header cannot be written.
+     */
+    public abstract void writeHeader(Writer writer) throws IOException;
+
+    /**
+     * This method opens a writer of records over a writer of the export. Closing it flushes the records written,
+     * but does not close the underlying writer.
+     *
+     * @param writer The writer of the export.
+     * @param objectMapper The mapper of the JSON records.
+     * @return The RecordWriter.
+     * @throws IOException If the writer cannot be opened.
+     */
+    public abstract RecordWriter open(Writer writer, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * This method returns the format of an export from its file extension, ignoring a final .gz extension.
+     *
+     * @param export The path of the export.
+     * @return The CatalogExportFormat, NDJSON for the .ndjson, .jsonl and .json extensions and CSV otherwise.
+     */
+    public static CatalogExportFormat of(Path export) {
+
+        String fileName = export.getFileName().toString().toLowerCase();
+        if (isCompressed(export)) {
+            fileName = fileName.substring(0, fileName.length() - ".gz".length());
+        }
+        return fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") || fileName.endsWith(".json")
+                ? NDJSON : CSV;
+    }
+
+    /**
+     * This method returns whether an export is compressed with gzip, from its file extension.
+     *
+     * @param export The path of the export.
+     * @return true for the .gz extension.
+     */
+    public static boolean isCompressed(Path export) {
+        return export.getFileName().toString().toLowerCase().endsWith(".gz");
+    }
+
+    /**
+     * Writer of the records of an export.
+     */
+    public interface RecordWriter extends AutoCloseable {
+
+        /**
+         * This method writes a record.
+         *
+         * @param catalogExportRecord The record.
+         * @throws IOException If the record cannot be written.
+         */
+        void write(CatalogExportRecord catalogExportRecord) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+}
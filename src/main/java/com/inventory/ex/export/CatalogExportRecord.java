@@ -0,0 +1,19 @@
+package com.inventory.ex.export;
+
+import java.sql.Timestamp;
+
+/**
+ * The effective Price of a product at the date of a catalog export.
+ *
+ * @param productId Product code identifier.
+ * @param brandId Product brand identifier.
+ * @param priceList Applicable price schedule identifier.
+ * @param startDate Start date on which the price applies.
+ * @param endDate End date on which the price applies.
+ * @param priority Price rate application priority. The higher value has a higher priority.
+ * @param price Final sale price.
+ * @param currency Currency code, ISO standardized.
+ */
+public record CatalogExportRecord(long productId, int brandId, long priceList, Timestamp startDate,
+                                  Timestamp endDate, int priority, double price, String currency) {
+}
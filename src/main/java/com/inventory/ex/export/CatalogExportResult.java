@@ -0,0 +1,21 @@
+package com.inventory.ex.export;
+
+/**
+ * Result of a catalog export.
+ *
+ * @param rows Number of products exported with their effective Price.
+ * @param partitions Number of product ranges resolved in parallel.
+ * @param elapsedNanos Duration of the export, in nanoseconds.
+ * @param peakHeapBytes Peak use of the heap during the export, in bytes.
+ */
+public record CatalogExportResult(long rows, int partitions, long elapsedNanos, long peakHeapBytes) {
+
+    /**
+     * This method returns the throughput of the export.
+     *
+     * @return Rows exported per second.
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000d / elapsedNanos;
+    }
+}
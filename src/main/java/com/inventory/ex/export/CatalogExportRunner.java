@@ -0,0 +1,55 @@
+package com.inventory.ex.export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+
+/**
+ * Exports the catalog to the file configured with the property inventory.export.file once the application is started,
+ * at the date of the property inventory.export.application-date or at the current date when not set, and in the
+ * currency of the property inventory.export.currency or in the currency of every Price when not set.
+ * It runs after the bulk load of a price feed, when both are configured.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.export.file")
+public class CatalogExportRunner implements ApplicationRunner {
+
+    /**
+     * The exporter of the catalog.
+     */
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    /**
+     * The path of the CSV or NDJSON export, compressed when it ends with .gz.
+     */
+    @Value("${inventory.export.file}")
+    private Path export;
+
+    /**
+     * Date and time to apply the product prices, like 2020-06-14T10:00:00, or empty for the current date.
+     */
+    @Value("${inventory.export.application-date:}")
+    private String applicationDate;
+
+    /**
+     * Currency code, ISO standardized, to convert the prices to, or empty for the currency of every Price.
+     */
+    @Value("${inventory.export.currency:}")
+    private String currency;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        catalogExporter.export(applicationDate.isBlank()
+                ? new Timestamp(System.currentTimeMillis())
+                : Timestamp.valueOf(applicationDate.trim().replace('T', ' ')), export,
+                currency.isBlank() ? null : currency.trim());
+    }
+}
@@ -0,0 +1,301 @@
+package com.inventory.ex.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ex.fx.FxRateStore;
+import com.inventory.ex.fx.FxRateTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export of the effective Price of every product at a date, as a CSV or NDJSON file, optionally compressed with gzip.
+ * The PRODUCT_ID key space is split into contiguous ranges resolved in parallel on a dedicated ForkJoinPool, each
+ * one with a single query streaming its candidate Prices ordered by precedence, the higher priority first and then
+ * the lowest price id, as the Data Base path of ProductService. Every range is written to its own part file, a gzip
+ * member of its own when compressed, and the parts are then appended in order to the export, so it is sorted by
+ * product and never held in memory.
+ * The prices can be converted to another currency with the FX rates loaded when the export starts, so the whole
+ * export uses the same rates and never queries them per row.
+ */
+@Slf4j
+@Component
+public class CatalogExporter {
+
+    private static final String SELECT_PRODUCT_ID_RANGE = "SELECT MIN(PRODUCT_ID), MAX(PRODUCT_ID) FROM PRODUCT";
+
+    private static final String SELECT_EFFECTIVE_PRICES = "SELECT pr.PRODUCT_ID, p.BRAND_ID, pr.PRICE_ID, "
+            + "pr.START_DATE, pr.END_DATE, pr.PRIORITY, pr.PRICE, pr.CURRENCY "
+            + "FROM PRICE pr JOIN PRODUCT p ON p.PRODUCT_ID = pr.PRODUCT_ID "
+            + "WHERE pr.PRODUCT_ID BETWEEN ? AND ? AND pr.START_DATE <= ? AND pr.END_DATE >= ? "
+            + "ORDER BY pr.PRODUCT_ID, pr.PRIORITY DESC, pr.PRICE_ID";
+
+    /**
+     * Number of rows fetched from the Data Base at once by the query of a range.
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * Size of the buffers of the part files.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The template running the queries.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The mapper of the NDJSON exports.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The FX rates converting the prices to the requested currency.
+     */
+    @Autowired
+    private FxRateStore fxRateStore;
+
+    /**
+     * Number of ranges of the product key space, 0 for four per thread.
+     */
+    @Value("${inventory.export.partitions:0}")
+    private int partitions;
+
+    /**
+     * Number of threads of the ForkJoinPool resolving the ranges, 0 for the number of processors.
+     */
+    @Value("${inventory.export.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * This method exports the effective Price of every product at a date, with the format given by the extension of
+     * the export, and compressed with gzip when it ends with .gz. The export is written to a temporary file and then
+     * moved, so an incomplete export never replaces a previous one.
+     *
+     * @param applicationDate Date and time to apply the product prices.
+     * @param export The path of the CSV or NDJSON export.
+     * @return The CatalogExportResult.
+     * @throws IOException If the export cannot be written.
+     */
+    public CatalogExportResult export(Timestamp applicationDate, Path export) throws IOException {
+        return export(applicationDate, export, null);
+    }
+
+    /**
+     * This method exports the effective Price of every product at a date, as the export method without currency
+     * does, with the prices converted to a currency.
+     *
+     * @param applicationDate Date and time to apply the product prices.
+     * @param export The path of the CSV or NDJSON export.
+     * @param currency Currency code, ISO standardized, to convert the prices to, or null for the currency of every
+     * Price.
+     * @return The CatalogExportResult.
+     * @throws IOException If the export cannot be written.
+     * @throws IllegalArgumentException If there is no FX rate for the currency or the one of a price.
+     */
+    public CatalogExportResult export(Timestamp applicationDate, Path export, String currency) throws IOException {
+
+        // The rates are read once, so every price of the export is converted with the same ones
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int toCurrency = currency == null ? FxRateTable.NOT_FOUND : fxRateTable.requirePosition(currency);
+
+        long startTime = System.nanoTime();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(memoryPool -> memoryPool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        CatalogExportFormat format = CatalogExportFormat.of(export);
+        boolean compressed = CatalogExportFormat.isCompressed(export);
+        Path directory = export.toAbsolutePath().getParent();
+        String prefix = export.getFileName().toString();
+        List<long[]> ranges = ranges();
+
+        List<Path> parts = new ArrayList<>(ranges.size() + 1);
+        long rows = 0;
+        ForkJoinPool forkJoinPool = new ForkJoinPool(threads());
+        try {
+            Path header = Files.createTempFile(directory, prefix, ".part");
+            parts.add(header);
+            try (Writer writer = open(header, compressed)) {
+                format.writeHeader(writer);
+            }
+
+            List<ForkJoinTask<Long>> tasks = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                Path part = Files.createTempFile(directory, prefix, ".part");
+                parts.add(part);
+                tasks.add(forkJoinPool.submit(() -> exportRange(range[0], range[1], applicationDate, format, part,
+                        compressed, fxRateTable, toCurrency)));
+            }
+            for (ForkJoinTask<Long> task : tasks) {
+                rows += task.get();
+            }
+
+            Path temporaryExport = directory.resolve(prefix + ".tmp");
+            try (FileChannel output = FileChannel.open(temporaryExport, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Path part : parts) {
+                    try (FileChannel input = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long position = 0;
+                        while (position < input.size()) {
+                            position += input.transferTo(position, input.size() - position, output);
+                        }
+                    }
+                }
+            }
+            Files.move(temporaryExport, export, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Catalog export interrupted", e);
+        } catch (ExecutionException e) {
+            // The failure of a range may be wrapped again by the ForkJoinPool
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+            }
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+
+        long peakHeapBytes = heapPools.stream().mapToLong(memoryPool -> memoryPool.getPeakUsage().getUsed()).sum();
+        CatalogExportResult result = new CatalogExportResult(rows, ranges.size(), System.nanoTime() - startTime,
+                peakHeapBytes);
+        log.info("Catalog exported to {} at {} with {} prices in {} partitions in {} ms, {} rows/s, peak heap {} MB",
+                export, applicationDate, result.rows(), result.partitions(), result.elapsedNanos() / 1_000_000,
+                Math.round(result.rowsPerSecond()), result.peakHeapBytes() / (1024 * 1024));
+        return result;
+    }
+
+    /**
+     * This method splits the PRODUCT_ID key space into contiguous ranges of the same width.
+     *
+     * @return The first and last product identifiers of every range, both inclusive, in order.
+     */
+    private List<long[]> ranges() {
+
+        long[] productIdRange = jdbcTemplate.query(SELECT_PRODUCT_ID_RANGE,
+                resultSet -> resultSet.next() && resultSet.getObject(1) != null
+                        ? new long[]{resultSet.getLong(1), resultSet.getLong(2)} : null);
+        List<long[]> ranges = new ArrayList<>();
+        if (productIdRange == null) {
+            return ranges;
+        }
+
+        long span = productIdRange[1] - productIdRange[0] + 1;
+        long rangeCount = Math.min(partitions > 0 ? partitions : threads() * 4L, span);
+        long width = (span + rangeCount - 1) / rangeCount;
+        for (long first = productIdRange[0]; first <= productIdRange[1]; first += width) {
+            ranges.add(new long[]{first, Math.min(first + width - 1, productIdRange[1])});
+            if (productIdRange[1] - first < width) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * This method writes the effective Price of every product of a range to a part file. The candidate Prices of a
+     * product are read in precedence order, so the first one is the effective one and the others are skipped.
+     * The prices are converted to the currency at the position toCurrency of the table, unless it is NOT_FOUND.
+     *
+     * @return The number of rows written.
+     */
+    private long exportRange(long firstProductId, long lastProductId, Timestamp applicationDate,
+                             CatalogExportFormat format, Path part, boolean compressed, FxRateTable fxRateTable,
+                             int toCurrency) throws IOException {
+
+        long[] rows = {0};
+        try (Writer writer = open(part, compressed);
+             CatalogExportFormat.RecordWriter recordWriter = format.open(writer, objectMapper)) {
+
+            long[] previousProductId = {0};
+            jdbcTemplate.query(connection -> {
+                PreparedStatement preparedStatement = connection.prepareStatement(SELECT_EFFECTIVE_PRICES);
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                preparedStatement.setLong(1, firstProductId);
+                preparedStatement.setLong(2, lastProductId);
+                preparedStatement.setTimestamp(3, applicationDate);
+                preparedStatement.setTimestamp(4, applicationDate);
+                return preparedStatement;
+            }, (RowCallbackHandler) resultSet -> {
+                long productId = resultSet.getLong(1);
+                if (rows[0] > 0 && productId == previousProductId[0]) {
+                    return;
+                }
+                previousProductId[0] = productId;
+                rows[0]++;
+                double price = resultSet.getDouble(7);
+                String priceCurrency = resultSet.getString(8);
+                if (toCurrency != FxRateTable.NOT_FOUND) {
+                    price = fxRateTable.convert(price, fxRateTable.requirePosition(priceCurrency), toCurrency);
+                    priceCurrency = fxRateTable.currency(toCurrency);
+                }
+                try {
+                    recordWriter.write(new CatalogExportRecord(productId, resultSet.getInt(2), resultSet.getLong(3),
+                            resultSet.getTimestamp(4), resultSet.getTimestamp(5), resultSet.getInt(6), price,
+                            priceCurrency));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return rows[0];
+    }
+
+    /**
+     * This method returns the number of threads resolving the ranges.
+     */
+    private int threads() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * This method opens a buffered writer over a part file, compressed as a gzip member when requested.
+     */
+    private static Writer open(Path part, boolean compressed) throws IOException {
+
+        OutputStream outputStream = Files.newOutputStream(part);
+        outputStream = compressed
+                ? new GZIPOutputStream(outputStream, BUFFER_SIZE)
+                : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
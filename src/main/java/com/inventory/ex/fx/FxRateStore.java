@@ -0,0 +1,133 @@
+package com.inventory.ex.fx;
+
+import com.inventory.ex.persistance.FxRate;
+import com.inventory.ex.repository.FxRateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Holder of the FX rates stored in the Data Base, loaded at startup into an immutable FxRateTable.
+ * The table is loaded again every refresh interval and replaces the current one with a single volatile write, so the
+ * conversions never wait nor query the Data Base, and a conversion reading the table once uses consistent rates.
+ * The version of the rates is increased every time the rates loaded differ from the previous ones.
+ */
+@Slf4j
+@Component
+public class FxRateStore {
+
+    /**
+     * The class retrieving the FX rates from the Data Base.
+     */
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    /**
+     * Interval between two loads of the FX rates.
+     */
+    @Value("${inventory.fx.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    /**
+     * Rates between every pair of currencies.
+     */
+    private volatile FxRateTable fxRateTable = FxRateTable.EMPTY;
+
+    /**
+     * FX rates of the table currently loaded, by currency.
+     */
+    private Map<String, Double> rates = Map.of();
+
+    /**
+     * Version of the rates currently loaded.
+     */
+    private volatile long version;
+
+    /**
+     * The thread loading the FX rates every refresh interval.
+     */
+    private ScheduledExecutorService refresher;
+
+    /**
+     * This method loads the FX rates and starts loading them again every refresh interval.
+     */
+    @PostConstruct
+    public void start() {
+
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-rate-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method stops loading the FX rates.
+     */
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * This method loads every FX rate stored in the Data Base into a new table, which replaces the current one and
+     * increases the version when the rates have changed.
+     */
+    public synchronized void refresh() {
+
+        Map<String, Double> loadedRates = fxRateRepository.findAll().stream()
+                .collect(Collectors.toMap(FxRate::getCurrency, FxRate::getRate));
+        if (loadedRates.equals(rates)) {
+            return;
+        }
+        fxRateTable = FxRateTable.of(loadedRates);
+        rates = loadedRates;
+        version++;
+        log.debug("FX rates loaded for {} currencies", loadedRates.size());
+    }
+
+    /**
+     * This method returns the table currently loaded. The positions returned by its lookups are only valid in that
+     * same table, so it is read once per conversion, or once per batch of conversions.
+     *
+     * @return The FxRateTable.
+     */
+    public FxRateTable getRateTable() {
+        return fxRateTable;
+    }
+
+    /**
+     * This method returns the version of the rates currently loaded, which changes with the rates. It is increased
+     * after the table is replaced, so a version read before a conversion is never newer than its rates.
+     *
+     * @return The version of the rates.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Loads the FX rates, keeping the current ones when they cannot be read.
+     */
+    private void scheduledRefresh() {
+
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("FX rates refresh failed, keeping the current rates", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.inventory.ex.fx;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable matrix of the exchange rates between every pair of currencies, built from their rates to a base currency.
+ * The currencies are addressed by their position, so a conversion is a single array read once the positions are
+ * known, and the converted amounts are rounded to the minor unit of their currency.
+ * The currencies can be found by code or by their ASCII bytes packed into a long, which the hot path reads from the
+ * request without building any String.
+ */
+public final class FxRateTable {
+
+    /**
+     * Position returned when a currency is not in the table.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Table without any currency.
+     */
+    public static final FxRateTable EMPTY = of(Map.of());
+
+    /**
+     * Code of every currency, by position.
+     */
+    private final String[] currencies;
+
+    /**
+     * ASCII bytes of the code of every currency packed into a long, by position.
+     */
+    private final long[] packedCurrencies;
+
+    /**
+     * Position of every currency, by code.
+     */
+    private final Map<String, Integer> positions;
+
+    /**
+     * Rate from every currency to every other one, at position from * size + to.
+     */
+    private final double[] rates;
+
+    /**
+     * Number of minor units in a unit of every currency, by position.
+     */
+    private final double[] minorUnits;
+
+    private FxRateTable(String[] currencies, double[] baseRates) {
+
+        int size = currencies.length;
+        this.currencies = currencies;
+        this.packedCurrencies = new long[size];
+        this.positions = new HashMap<>(size * 2);
+        this.rates = new double[size * size];
+        this.minorUnits = new double[size];
+        for (int from = 0; from < size; from++) {
+            packedCurrencies[from] = pack(currencies[from]);
+            positions.put(currencies[from], from);
+            minorUnits[from] = Math.pow(10, fractionDigits(currencies[from]));
+            for (int to = 0; to < size; to++) {
+                rates[from * size + to] = from == to ? 1 : baseRates[from] / baseRates[to];
+            }
+        }
+    }
+
+    /**
+     * This method builds the table from the rates of every currency to the base currency.
+     *
+     * @param baseRates Value of one unit of every currency in the base currency, by currency code.
+     * @return The FxRateTable.
+     * @throws IllegalArgumentException If a rate is not positive or a code does not fit in a packed long.
+     */
+    public static FxRateTable of(Map<String, Double> baseRates) {
+
+        String[] currencies = baseRates.keySet().stream().sorted().toArray(String[]::new);
+        double[] rates = new double[currencies.length];
+        for (int position = 0; position < currencies.length; position++) {
+            rates[position] = baseRates.get(currencies[position]);
+            if (!(rates[position] > 0)) {
+                throw new IllegalArgumentException("Invalid rate of " + currencies[position] + ": " + rates[position]);
+            }
+            if (pack(currencies[position]) == 0) {
+                throw new IllegalArgumentException("Invalid currency code: " + currencies[position]);
+            }
+        }
+        return new FxRateTable(currencies, rates);
+    }
+
+    /**
+     * This method packs the ASCII characters of a currency code into a long, the first one in the highest byte.
+     *
+     * @param currency The currency code.
+     * @return The packed code, or 0 if it is empty, longer than 8 characters or not ASCII.
+     */
+    public static long pack(CharSequence currency) {
+
+        if (currency.isEmpty() || currency.length() > Long.BYTES) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < currency.length(); i++) {
+            char character = currency.charAt(i);
+            if (character == 0 || character > 0x7F) {
+                return 0;
+            }
+            packed = packed << 8 | character;
+        }
+        return packed;
+    }
+
+    /**
+     * This method returns the position of a currency.
+     *
+     * @param currency The currency code.
+     * @return The position, or NOT_FOUND.
+     */
+    public int position(String currency) {
+
+        Integer position = currency == null ? null : positions.get(currency);
+        return position == null ? NOT_FOUND : position;
+    }
+
+    /**
+     * This method returns the position of a currency which must be in the table.
+     *
+     * @param currency The currency code.
+     * @return The position.
+     * @throws IllegalArgumentException If the currency is not in the table.
+     */
+    public int requirePosition(String currency) {
+
+        int position = position(currency);
+        if (position == NOT_FOUND) {
+            throw new IllegalArgumentException("No FX rate for the currency " + currency);
+        }
+        return position;
+    }
+
+    /**
+     * This method returns the position of a currency from its packed code, without allocating memory.
+     *
+     * @param packedCurrency The currency code packed with pack.
+     * @return The position, or NOT_FOUND.
+     */
+    public int position(long packedCurrency) {
+
+        for (int position = 0; position < packedCurrencies.length; position++) {
+            if (packedCurrencies[position] == packedCurrency) {
+                return position;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @param position The position of the currency.
+     * @return The currency code.
+     */
+    public String currency(int position) {
+        return currencies[position];
+    }
+
+    /**
+     * @param from The position of the currency of the amount.
+     * @param to The position of the currency to convert the amount to.
+     * @return The value of one unit of the first currency in the second one.
+     */
+    public double rate(int from, int to) {
+        return rates[from * currencies.length + to];
+    }
+
+    /**
+     * This method converts an amount, rounded half up to the minor unit of the target currency.
+     *
+     * @param amount The amount.
+     * @param from The position of the currency of the amount.
+     * @param to The position of the currency to convert the amount to.
+     * @return The converted amount, or the same amount if both currencies are the same.
+     */
+    public double convert(double amount, int from, int to) {
+
+        if (from == to) {
+            return amount;
+        }
+        return Math.round(amount * rates[from * currencies.length + to] * minorUnits[to]) / minorUnits[to];
+    }
+
+    /**
+     * @return The number of currencies of the table.
+     */
+    public int size() {
+        return currencies.length;
+    }
+
+    @Override
+    public String toString() {
+        return "FxRateTable" + Arrays.toString(currencies);
+    }
+
+    /**
+     * Returns the number of decimals of the minor unit of a currency, 2 for the codes unknown to java.util.Currency.
+     */
+    private static int fractionDigits(String currency) {
+
+        try {
+            int fractionDigits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return fractionDigits < 0 ? 2 : fractionDigits;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+}
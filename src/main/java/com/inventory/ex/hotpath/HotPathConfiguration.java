@@ -0,0 +1,78 @@
+package com.inventory.ex.hotpath;
+
+import com.inventory.ex.fx.FxRateStore;
+import com.inventory.ex.index.PriceIndex;
+import com.inventory.ex.shard.PriceShards;
+import com.inventory.ex.warmup.HotKeyRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration of the hot path of POST /product/price, resolving the prices in the in-memory price index without
+ * allocating memory per request. The servlet is mapped to the exact path, so it takes precedence over the Spring MVC
+ * dispatcher for it while every other endpoint is still served by the controllers.
+ * The hot path records the requests in the timer of the endpoint and their products for the warm-up, but it resolves
+ * the prices in the calling thread without going through the service, so the resolution timer is not recorded, and it
+ * cannot be enabled together with the shards, whose brand bulkheads it would bypass.
+ * Enabled with the property inventory.price-hot-path.enabled, which requires inventory.price-index.enabled.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "inventory.price-hot-path.enabled", havingValue = "true")
+public class HotPathConfiguration {
+
+    /**
+     * Path served by the hot path.
+     */
+    static final String PRICE_PATH = "/product/price";
+
+    /**
+     * The handler of the hot path, reading the price index currently loaded.
+     *
+     * @param priceIndex The provider of the in-memory price index.
+     * @param priceShards The provider of the price shards, which must not be enabled.
+     * @param fxRateStore The holder of the FX rates currently loaded.
+     * @return The HotPathPriceHandler.
+     */
+    @Bean
+    public HotPathPriceHandler hotPathPriceHandler(ObjectProvider<PriceIndex> priceIndex,
+                                                   ObjectProvider<PriceShards> priceShards, FxRateStore fxRateStore) {
+
+        PriceIndex index = priceIndex.getIfAvailable();
+        if (index == null) {
+            throw new IllegalStateException(
+                    "inventory.price-hot-path.enabled requires inventory.price-index.enabled=true");
+        }
+        if (priceShards.getIfAvailable() != null) {
+            throw new IllegalStateException(
+                    "inventory.price-hot-path.enabled bypasses the brand bulkheads of inventory.price-shards.enabled");
+        }
+        return new HotPathPriceHandler(index::getPriceStore, fxRateStore::getRateTable);
+    }
+
+    /**
+     * The registration of the hot path servlet.
+     *
+     * @param hotPathPriceHandler The handler of the hot path.
+     * @param poolSize Maximum number of exchanges kept between requests.
+     * @param meterRegistry The registry of the application metrics.
+     * @param hotKeyRecorder The provider of the recorder of the products looked up, when the warm-up is enabled.
+     * @return The ServletRegistrationBean.
+     */
+    @Bean
+    public ServletRegistrationBean<HotPathPriceServlet> hotPathPriceServlet(
+            HotPathPriceHandler hotPathPriceHandler,
+            @Value("${inventory.price-hot-path.pool-size:256}") int poolSize,
+            MeterRegistry meterRegistry,
+            ObjectProvider<HotKeyRecorder> hotKeyRecorder) {
+
+        return new ServletRegistrationBean<>(new HotPathPriceServlet(hotPathPriceHandler, poolSize, meterRegistry,
+                hotKeyRecorder.getIfAvailable()), PRICE_PATH);
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.ex.hotpath;
+
+import com.inventory.ex.fx.FxRateTable;
+import com.inventory.ex.index.PriceStore;
+
+import java.util.function.Supplier;
+
+/**
+ * Price lookup on the hot path: the request fields are parsed from the request body bytes, the price is resolved in
+ * the primitive PriceStore, converted with the positions of the FxRateTable when another currency is requested, and
+ * the response JSON is written into the reused response buffer of the exchange.
+ * None of these steps allocates memory, so a steady flow of requests produces no garbage.
+ */
+public class HotPathPriceHandler {
+
+    /**
+     * The supplier of the PriceStore currently loaded.
+     */
+    private final Supplier<PriceStore> priceStores;
+
+    /**
+     * The supplier of the FxRateTable currently loaded.
+     */
+    private final Supplier<FxRateTable> fxRateTables;
+
+    /**
+     * Builds the handler.
+     *
+     * @param priceStores The supplier of the PriceStore currently loaded, read once per request.
+     * @param fxRateTables The supplier of the FxRateTable currently loaded, read once per request of a currency.
+     */
+    public HotPathPriceHandler(Supplier<PriceStore> priceStores, Supplier<FxRateTable> fxRateTables) {
+        this.priceStores = priceStores;
+        this.fxRateTables = fxRateTables;
+    }
+
+    /**
+     * This method resolves the request of the exchange and writes its response. A request without applicationDate
+     * gets the empty response, as on the Data Base path.
+     *
+     * @param exchange The exchange with the request body.
+     * @return True if the request body is valid and the response has been written, false otherwise, also when there
+     * is no FX rate for the requested currency or the one of the price.
+     */
+    public boolean handle(PriceExchange exchange) {
+
+        if (!PriceRequestParser.parse(exchange)) {
+            return false;
+        }
+
+        PriceStore priceStore = priceStores.get();
+        int segment = exchange.applicationDatePresent
+                ? priceStore.findSegment(exchange.productId, exchange.brandId, exchange.applicationDate)
+                : PriceStore.NOT_FOUND;
+        if (exchange.currency == 0) {
+            PriceResponseWriter.write(exchange, priceStore, segment);
+            return true;
+        }
+
+        FxRateTable fxRateTable = fxRateTables.get();
+        int to = fxRateTable.position(exchange.currency);
+        if (to == FxRateTable.NOT_FOUND) {
+            return false;
+        }
+        if (segment == PriceStore.NOT_FOUND) {
+            PriceResponseWriter.write(exchange, priceStore, segment);
+            return true;
+        }
+        int from = fxRateTable.position(priceStore.currency(segment));
+        if (from == FxRateTable.NOT_FOUND) {
+            return false;
+        }
+        PriceResponseWriter.write(exchange, priceStore, segment,
+                fxRateTable.convert(priceStore.price(segment), from, to), fxRateTable.currency(to));
+        return true;
+    }
+}
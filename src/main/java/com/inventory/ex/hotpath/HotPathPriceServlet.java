@@ -0,0 +1,127 @@
+package com.inventory.ex.hotpath;
+
+import com.inventory.ex.config.MetricsConfiguration;
+import com.inventory.ex.warmup.HotKeyRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet serving POST /product/price on the hot path, in front of the Spring MVC dispatcher.
+ * The PriceExchanges are kept in a bounded pool, so the request body is read into and the response written from the
+ * same buffers request after request, on platform threads as well as on virtual threads, which are never reused. An
+ * exchange is created when the pool is empty, and discarded when it is full.
+ * The requests are recorded in the same timer as the endpoint of the controller, and their products by the
+ * HotKeyRecorder when the warm-up is enabled.
+ */
+public class HotPathPriceServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Content type of the responses.
+     */
+    private static final String CONTENT_TYPE = "application/json";
+
+    /**
+     * Maximum size of a request body.
+     */
+    private static final int MAXIMUM_BODY_LENGTH = 16 * 1024;
+
+    /**
+     * The exchanges not in use.
+     */
+    private final transient BlockingQueue<PriceExchange> exchanges;
+
+    /**
+     * The handler resolving the requests.
+     */
+    private final transient HotPathPriceHandler hotPathPriceHandler;
+
+    /**
+     * The timer of the requests, with the tags of the endpoint of the controller.
+     */
+    private final transient Timer requestTimer;
+
+    /**
+     * The recorder of the products looked up, or null if the warm-up is not enabled.
+     */
+    private final transient HotKeyRecorder hotKeyRecorder;
+
+    /**
+     * Builds the servlet.
+     *
+     * @param hotPathPriceHandler The handler resolving the requests.
+     * @param poolSize Maximum number of exchanges kept between requests.
+     * @param meterRegistry The registry of the application metrics.
+     * @param hotKeyRecorder The recorder of the products looked up, or null if the warm-up is not enabled.
+     */
+    public HotPathPriceServlet(HotPathPriceHandler hotPathPriceHandler, int poolSize, MeterRegistry meterRegistry,
+                               HotKeyRecorder hotKeyRecorder) {
+
+        this.hotPathPriceHandler = hotPathPriceHandler;
+        this.exchanges = new ArrayBlockingQueue<>(poolSize);
+        this.requestTimer = Timer.builder(MetricsConfiguration.PRICE_REQUEST_TIMER)
+                .tags("endpoint", "price", "class", HotPathPriceServlet.class.getName(), "method", "doPost",
+                        "exception", "none")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hotKeyRecorder = hotKeyRecorder;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        long startTime = System.nanoTime();
+        PriceExchange exchange = exchanges.poll();
+        if (exchange == null) {
+            exchange = new PriceExchange();
+        }
+        try {
+            if (!readBody(request.getInputStream(), exchange) || !hotPathPriceHandler.handle(exchange)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            if (hotKeyRecorder != null) {
+                hotKeyRecorder.record(exchange.productId, exchange.brandId);
+            }
+
+            response.setContentType(CONTENT_TYPE);
+            response.setContentLength(exchange.getOutputLength());
+            response.getOutputStream().write(exchange.getOutput(), 0, exchange.getOutputLength());
+            requestTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        } finally {
+            exchanges.offer(exchange);
+        }
+    }
+
+    /**
+     * Reads the request body into the exchange.
+     *
+     * @return False if the body is larger than the maximum size.
+     */
+    private static boolean readBody(ServletInputStream inputStream, PriceExchange exchange) throws IOException {
+
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(exchange.getBody(), length, exchange.getBody().length - length)) != -1) {
+            length += read;
+            if (length == exchange.getBody().length) {
+                if (length >= MAXIMUM_BODY_LENGTH) {
+                    return false;
+                }
+                exchange.ensureBodyCapacity(length + 1);
+            }
+        }
+        exchange.setBodyLength(length);
+        return true;
+    }
+}
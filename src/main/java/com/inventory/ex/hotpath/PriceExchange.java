@@ -0,0 +1,137 @@
+package com.inventory.ex.hotpath;
+
+import java.util.Arrays;
+
+/**
+ * Reusable state of a price lookup on the hot path: the request body, the parsed request fields and the response
+ * body. An exchange is used by a single request at a time and pooled between requests, so once its buffers have
+ * grown to the size of the requests no memory is allocated per request.
+ */
+public final class PriceExchange {
+
+    /**
+     * Initial capacity of the request and response buffers, enough for the usual bodies.
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * Bytes of the request body, valid up to bodyLength.
+     */
+    byte[] body = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Length of the request body.
+     */
+    int bodyLength;
+
+    /**
+     * Position of the parser in the request body.
+     */
+    int position;
+
+    /**
+     * Bytes of the response body, valid up to outputLength.
+     */
+    byte[] output = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Length of the response body.
+     */
+    int outputLength;
+
+    /**
+     * Product code identifier parsed from the request.
+     */
+    long productId;
+
+    /**
+     * Product brand identifier parsed from the request.
+     */
+    int brandId;
+
+    /**
+     * Date and time to apply the product price parsed from the request, in epoch milliseconds.
+     */
+    long applicationDate;
+
+    /**
+     * Whether the request has a date and time to apply the product price.
+     */
+    boolean applicationDatePresent;
+
+    /**
+     * Currency code to convert the price to parsed from the request, packed as FxRateTable.pack does, or zero when
+     * the price is returned in its own currency.
+     */
+    long currency;
+
+    /**
+     * Last number parsed from the request.
+     */
+    long number;
+
+    /**
+     * This method sets the request body, copying it into the reused buffer.
+     *
+     * @param bytes The bytes of the request body.
+     * @param length The length of the request body.
+     */
+    public void setBody(byte[] bytes, int length) {
+
+        ensureBodyCapacity(length);
+        System.arraycopy(bytes, 0, body, 0, length);
+        bodyLength = length;
+    }
+
+    /**
+     * @return The buffer of the request body, to be filled up to its length before setting bodyLength.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @param length The length of the request body stored in the buffer.
+     */
+    public void setBodyLength(int length) {
+        bodyLength = length;
+    }
+
+    /**
+     * This method grows the buffer of the request body, keeping its content.
+     *
+     * @param capacity The minimum capacity.
+     */
+    public void ensureBodyCapacity(int capacity) {
+
+        if (body.length < capacity) {
+            body = Arrays.copyOf(body, Math.max(capacity, body.length * 2));
+        }
+    }
+
+    /**
+     * @return The buffer of the response body, valid up to its length.
+     */
+    public byte[] getOutput() {
+        return output;
+    }
+
+    /**
+     * @return The length of the response body.
+     */
+    public int getOutputLength() {
+        return outputLength;
+    }
+
+    /**
+     * This method grows the buffer of the response body, keeping its content.
+     *
+     * @param additional The number of bytes about to be written.
+     */
+    void ensureOutputCapacity(int additional) {
+
+        if (output.length < outputLength + additional) {
+            output = Arrays.copyOf(output, Math.max(outputLength + additional, output.length * 2));
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.inventory.ex.hotpath;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parser of the price request JSON reading the productId, brandId, applicationDate and currency fields straight from
+ * the bytes of the request body into a PriceExchange, without building any object.
+ * The applicationDate is accepted as epoch milliseconds, as a date or as a date and time with an optional fraction of
+ * second and an optional Z or offset, the same values accepted by Jackson for the request DTO, and it is read as UTC
+ * when it has no offset. The currency is packed into a long as FxRateTable.pack does, so it must be up to 8 ASCII
+ * characters without escapes. Any other field is skipped.
+ */
+final class PriceRequestParser {
+
+    private static final byte[] PRODUCT_ID = "productId".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] BRAND_ID = "brandId".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] APPLICATION_DATE = "applicationDate".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] CURRENCY = "currency".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private PriceRequestParser() {
+    }
+
+    /**
+     * This method parses the request body of the exchange into its request fields.
+     *
+     * @param exchange The exchange with the request body.
+     * @return True if the body is a valid request object.
+     */
+    static boolean parse(PriceExchange exchange) {
+
+        exchange.position = 0;
+        exchange.productId = 0;
+        exchange.brandId = 0;
+        exchange.applicationDate = 0;
+        exchange.applicationDatePresent = false;
+        exchange.currency = 0;
+
+        if (!consume(exchange, '{')) {
+            return false;
+        }
+        skipWhitespace(exchange);
+        if (peek(exchange) == '}') {
+            exchange.position++;
+            return end(exchange);
+        }
+
+        while (true) {
+            skipWhitespace(exchange);
+            if (!consume(exchange, '"')) {
+                return false;
+            }
+            int keyStart = exchange.position;
+            if (!skipStringContent(exchange)) {
+                return false;
+            }
+            int keyEnd = exchange.position - 1;
+            if (!consume(exchange, ':')) {
+                return false;
+            }
+            skipWhitespace(exchange);
+
+            if (matches(exchange, keyStart, keyEnd, PRODUCT_ID)) {
+                if (!parseLong(exchange)) {
+                    return false;
+                }
+                exchange.productId = exchange.number;
+            } else if (matches(exchange, keyStart, keyEnd, BRAND_ID)) {
+                if (!parseLong(exchange) || exchange.number != (int) exchange.number) {
+                    return false;
+                }
+                exchange.brandId = (int) exchange.number;
+            } else if (matches(exchange, keyStart, keyEnd, APPLICATION_DATE)) {
+                if (!parseApplicationDate(exchange)) {
+                    return false;
+                }
+            } else if (matches(exchange, keyStart, keyEnd, CURRENCY)) {
+                if (!parseCurrency(exchange)) {
+                    return false;
+                }
+            } else if (!skipValue(exchange)) {
+                return false;
+            }
+
+            skipWhitespace(exchange);
+            byte next = peek(exchange);
+            exchange.position++;
+            if (next == '}') {
+                return end(exchange);
+            }
+            if (next != ',') {
+                return false;
+            }
+        }
+    }
+
+    private static boolean parseCurrency(PriceExchange exchange) {
+
+        if (peek(exchange) == 'n') {
+            exchange.currency = 0;
+            return consumeLiteral(exchange, "null");
+        }
+        if (!consumeByte(exchange, '"')) {
+            return false;
+        }
+        long packed = 0;
+        int length = 0;
+        byte current;
+        while ((current = peek(exchange)) != '"') {
+            if (current <= 0 || current == '\\' || ++length > Long.BYTES) {
+                return false;
+            }
+            packed = packed << 8 | current;
+            exchange.position++;
+        }
+        exchange.position++;
+        exchange.currency = length == 0 ? 0 : packed;
+        return length > 0;
+    }
+
+    private static boolean parseApplicationDate(PriceExchange exchange) {
+
+        byte first = peek(exchange);
+        if (first == 'n') {
+            exchange.applicationDatePresent = false;
+            return consumeLiteral(exchange, "null");
+        }
+        if (first != '"') {
+            if (!parseLong(exchange)) {
+                return false;
+            }
+            exchange.applicationDate = exchange.number;
+            exchange.applicationDatePresent = true;
+            return true;
+        }
+
+        exchange.position++;
+        long year = digits(exchange, 4);
+        if (year < 0 || !consumeByte(exchange, '-')) {
+            return false;
+        }
+        long month = digits(exchange, 2);
+        if (month < 1 || month > 12 || !consumeByte(exchange, '-')) {
+            return false;
+        }
+        long day = digits(exchange, 2);
+        if (day < 1 || day > lengthOfMonth(year, month)) {
+            return false;
+        }
+
+        long millis = 0;
+        if (peek(exchange) == 'T') {
+            exchange.position++;
+            long hour = digits(exchange, 2);
+            if (hour < 0 || hour > 23 || !consumeByte(exchange, ':')) {
+                return false;
+            }
+            long minute = digits(exchange, 2);
+            if (minute < 0 || minute > 59) {
+                return false;
+            }
+            long second = 0;
+            if (peek(exchange) == ':') {
+                exchange.position++;
+                second = digits(exchange, 2);
+                if (second < 0 || second > 59) {
+                    return false;
+                }
+            }
+            long fraction = 0;
+            if (peek(exchange) == '.') {
+                exchange.position++;
+                int digitCount = 0;
+                while (isDigit(peek(exchange))) {
+                    if (digitCount++ < 3) {
+                        fraction = fraction * 10 + peek(exchange) - '0';
+                    }
+                    exchange.position++;
+                }
+                if (digitCount == 0) {
+                    return false;
+                }
+                for (int missing = digitCount; missing < 3; missing++) {
+                    fraction *= 10;
+                }
+            }
+            millis = ((hour * 60 + minute) * 60 + second) * 1000 + fraction;
+
+            byte zone = peek(exchange);
+            if (zone == 'Z') {
+                exchange.position++;
+            } else if (zone == '+' || zone == '-') {
+                exchange.position++;
+                long offsetHours = digits(exchange, 2);
+                if (offsetHours < 0) {
+                    return false;
+                }
+                if (peek(exchange) == ':') {
+                    exchange.position++;
+                }
+                long offsetMinutes = isDigit(peek(exchange)) ? digits(exchange, 2) : 0;
+                if (offsetMinutes < 0) {
+                    return false;
+                }
+                long offset = (offsetHours * 60 + offsetMinutes) * 60 * 1000;
+                millis -= zone == '+' ? offset : -offset;
+            }
+        }
+
+        if (!consumeByte(exchange, '"')) {
+            return false;
+        }
+        exchange.applicationDate = epochDay(year, month, day) * MILLIS_PER_DAY + millis;
+        exchange.applicationDatePresent = true;
+        return true;
+    }
+
+    /**
+     * Returns the number of days of a month of the proleptic Gregorian calendar, with the leap years.
+     */
+    private static long lengthOfMonth(long year, long month) {
+
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Returns the days from 1970-01-01 to a date of the proleptic Gregorian calendar.
+     */
+    private static long epochDay(long year, long month, long day) {
+
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Parses a JSON integer into the number of the exchange.
+     */
+    private static boolean parseLong(PriceExchange exchange) {
+
+        boolean negative = peek(exchange) == '-';
+        if (negative) {
+            exchange.position++;
+        }
+        if (!isDigit(peek(exchange))) {
+            return false;
+        }
+        long value = 0;
+        while (isDigit(peek(exchange))) {
+            int digit = peek(exchange) - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return false;
+            }
+            value = value * 10 + digit;
+            exchange.position++;
+        }
+        exchange.number = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Reads an exact number of digits, returning -1 if there are less.
+     */
+    private static long digits(PriceExchange exchange, int count) {
+
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            byte digit = peek(exchange);
+            if (!isDigit(digit)) {
+                return -1;
+            }
+            value = value * 10 + digit - '0';
+            exchange.position++;
+        }
+        return value;
+    }
+
+    /**
+     * Skips any JSON value: a string, a number, a literal, an object or an array.
+     */
+    private static boolean skipValue(PriceExchange exchange) {
+
+        byte first = peek(exchange);
+        if (first == '"') {
+            exchange.position++;
+            return skipStringContent(exchange);
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            while (exchange.position < exchange.bodyLength) {
+                byte current = exchange.body[exchange.position++];
+                if (current == '"') {
+                    if (!skipStringContent(exchange)) {
+                        return false;
+                    }
+                } else if (current == '{' || current == '[') {
+                    depth++;
+                } else if ((current == '}' || current == ']') && --depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int start = exchange.position;
+        while (exchange.position < exchange.bodyLength) {
+            byte current = exchange.body[exchange.position];
+            if (current == ',' || current == '}' || isWhitespace(current)) {
+                break;
+            }
+            exchange.position++;
+        }
+        return exchange.position > start;
+    }
+
+    /**
+     * Skips the content of a string after its opening quote, up to and including its closing quote.
+     */
+    private static boolean skipStringContent(PriceExchange exchange) {
+
+        while (exchange.position < exchange.bodyLength) {
+            byte current = exchange.body[exchange.position++];
+            if (current == '\\') {
+                exchange.position++;
+            } else if (current == '"') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(PriceExchange exchange, int start, int end, byte[] name) {
+        return end - start == name.length
+                && Arrays.equals(exchange.body, start, end, name, 0, name.length);
+    }
+
+    private static boolean consumeLiteral(PriceExchange exchange, String literal) {
+
+        for (int i = 0; i < literal.length(); i++) {
+            if (!consumeByte(exchange, literal.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Consumes a byte after any whitespace.
+     */
+    private static boolean consume(PriceExchange exchange, char expected) {
+
+        skipWhitespace(exchange);
+        return consumeByte(exchange, expected);
+    }
+
+    private static boolean consumeByte(PriceExchange exchange, char expected) {
+
+        if (peek(exchange) != expected) {
+            return false;
+        }
+        exchange.position++;
+        return true;
+    }
+
+    /**
+     * Checks that only whitespace follows the request object.
+     */
+    private static boolean end(PriceExchange exchange) {
+
+        skipWhitespace(exchange);
+        return exchange.position == exchange.bodyLength;
+    }
+
+    private static void skipWhitespace(PriceExchange exchange) {
+
+        while (exchange.position < exchange.bodyLength && isWhitespace(exchange.body[exchange.position])) {
+            exchange.position++;
+        }
+    }
+
+    /**
+     * Returns the byte at the position of the parser, or zero at the end of the body.
+     */
+    private static byte peek(PriceExchange exchange) {
+        return exchange.position < exchange.bodyLength ? exchange.body[exchange.position] : 0;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+}
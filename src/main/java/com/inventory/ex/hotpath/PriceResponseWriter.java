@@ -0,0 +1,211 @@
+package com.inventory.ex.hotpath;
+
+import com.inventory.ex.index.PriceStore;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer of the price response JSON straight into the response buffer of a PriceExchange, producing the same bytes
+ * as Jackson for a ProductPriceResponse: the dates in UTC as yyyy-MM-dd'T'HH:mm:ss.SSS+00:00 and the price as
+ * Double.toString, followed by the currency code, written as it is. Prices with more than six decimals, or out of the plain notation of Double.toString, are written
+ * through Double.toString, which is the only case allocating memory.
+ */
+final class PriceResponseWriter {
+
+    private static final byte[] PRODUCT_ID = "{\"productId\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] BRAND_ID = ",\"brandId\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PRICE_LIST = ",\"priceList\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] START_DATE = ",\"startDate\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] END_DATE = "\",\"endDate\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PRICE = "\",\"price\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] CURRENCY = ",\"currency\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] UTC_OFFSET = "+00:00".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Response of the requests without any applicable Price, as written by Jackson for an empty ProductPriceResponse.
+     */
+    private static final byte[] EMPTY_RESPONSE = ("{\"productId\":0,\"brandId\":0,\"priceList\":0,\"startDate\":null,"
+            + "\"endDate\":null,\"price\":0.0,\"currency\":null}").getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Powers of ten of the decimals written without Double.toString.
+     */
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private PriceResponseWriter() {
+    }
+
+    /**
+     * This method writes the response of the request of the exchange into its response buffer.
+     *
+     * @param exchange The exchange with the parsed request.
+     * @param priceStore The store of the resolved segment.
+     * @param segment The position of the segment containing the requested date, or PriceStore.NOT_FOUND.
+     */
+    static void write(PriceExchange exchange, PriceStore priceStore, int segment) {
+
+        if (segment == PriceStore.NOT_FOUND) {
+            exchange.outputLength = 0;
+            writeBytes(exchange, EMPTY_RESPONSE);
+            return;
+        }
+        write(exchange, priceStore, segment, priceStore.price(segment), priceStore.currency(segment));
+    }
+
+    /**
+     * This method writes the response of the request of the exchange into its response buffer, with the price
+     * converted to another currency.
+     *
+     * @param exchange The exchange with the parsed request.
+     * @param priceStore The store of the resolved segment.
+     * @param segment The position of the segment containing the requested date.
+     * @param price The price of the segment, in the currency written.
+     * @param currency The currency code of the price, ISO standardized.
+     */
+    static void write(PriceExchange exchange, PriceStore priceStore, int segment, double price, String currency) {
+
+        exchange.outputLength = 0;
+
+        writeBytes(exchange, PRODUCT_ID);
+        writeLong(exchange, exchange.productId);
+        writeBytes(exchange, BRAND_ID);
+        writeLong(exchange, exchange.brandId);
+        writeBytes(exchange, PRICE_LIST);
+        writeLong(exchange, priceStore.priceId(segment));
+        writeBytes(exchange, START_DATE);
+        writeDate(exchange, priceStore.startDate(segment));
+        writeBytes(exchange, END_DATE);
+        writeDate(exchange, priceStore.endDate(segment));
+        writeBytes(exchange, PRICE);
+        writeDouble(exchange, price);
+        writeBytes(exchange, CURRENCY);
+        writeAscii(exchange, currency);
+        writeByte(exchange, '"');
+        writeByte(exchange, '}');
+    }
+
+    /**
+     * Writes a date in epoch milliseconds as yyyy-MM-dd'T'HH:mm:ss.SSS+00:00.
+     */
+    private static void writeDate(PriceExchange exchange, long date) {
+
+        long epochDay = Math.floorDiv(date, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(date, MILLIS_PER_DAY);
+
+        // Civil date of the epoch day in the proleptic Gregorian calendar
+        long shiftedDay = epochDay + 719468;
+        long era = Math.floorDiv(shiftedDay, 146097);
+        long dayOfEra = shiftedDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        writeDigits(exchange, year, 4);
+        writeByte(exchange, '-');
+        writeDigits(exchange, month, 2);
+        writeByte(exchange, '-');
+        writeDigits(exchange, day, 2);
+        writeByte(exchange, 'T');
+        writeDigits(exchange, millisOfDay / 3_600_000, 2);
+        writeByte(exchange, ':');
+        writeDigits(exchange, millisOfDay / 60_000 % 60, 2);
+        writeByte(exchange, ':');
+        writeDigits(exchange, millisOfDay / 1000 % 60, 2);
+        writeByte(exchange, '.');
+        writeDigits(exchange, millisOfDay % 1000, 3);
+        writeBytes(exchange, UTC_OFFSET);
+    }
+
+    /**
+     * Writes a double as Double.toString does, with the fewest decimals reading back the same value.
+     */
+    private static void writeDouble(PriceExchange exchange, double value) {
+
+        double magnitude = Math.abs(value);
+        if (Double.isFinite(value) && magnitude < 1e7 && (magnitude >= 1e-3 || magnitude == 0)) {
+            for (int decimals = 0; decimals < POWERS_OF_TEN.length; decimals++) {
+                long scaled = Math.round(magnitude * POWERS_OF_TEN[decimals]);
+                if ((double) scaled / POWERS_OF_TEN[decimals] == magnitude) {
+                    if (value < 0 || Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+                        writeByte(exchange, '-');
+                    }
+                    writeLong(exchange, scaled / POWERS_OF_TEN[decimals]);
+                    writeByte(exchange, '.');
+                    if (decimals == 0) {
+                        writeByte(exchange, '0');
+                    } else {
+                        writeDigits(exchange, scaled % POWERS_OF_TEN[decimals], decimals);
+                    }
+                    return;
+                }
+            }
+        }
+        writeBytes(exchange, Double.toString(value).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeLong(PriceExchange exchange, long value) {
+
+        if (value == Long.MIN_VALUE) {
+            writeBytes(exchange, Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            writeByte(exchange, '-');
+            value = -value;
+        }
+        int digitCount = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digitCount++;
+        }
+        writeDigits(exchange, value, digitCount);
+    }
+
+    /**
+     * Writes the last digits of a non negative number, padded with zeros.
+     */
+    private static void writeDigits(PriceExchange exchange, long value, int count) {
+
+        exchange.ensureOutputCapacity(count);
+        for (int position = exchange.outputLength + count - 1; position >= exchange.outputLength; position--) {
+            exchange.output[position] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        exchange.outputLength += count;
+    }
+
+    private static void writeBytes(PriceExchange exchange, byte[] bytes) {
+
+        exchange.ensureOutputCapacity(bytes.length);
+        System.arraycopy(bytes, 0, exchange.output, exchange.outputLength, bytes.length);
+        exchange.outputLength += bytes.length;
+    }
+
+    /**
+     * Writes the characters of an ASCII text, without encoding it into a new array.
+     */
+    private static void writeAscii(PriceExchange exchange, String text) {
+
+        exchange.ensureOutputCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            exchange.output[exchange.outputLength++] = (byte) text.charAt(i);
+        }
+    }
+
+    private static void writeByte(PriceExchange exchange, char value) {
+
+        exchange.ensureOutputCapacity(1);
+        exchange.output[exchange.outputLength++] = (byte) value;
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.ex.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to non negative int values, with linear probing.
+ * It is sized once for the expected number of keys with a load factor of at most one half, and never resized.
+ * No key or value is boxed, and a lookup reads at most a few adjacent slots of two arrays.
+ */
+final class LongIntHashMap {
+
+    /**
+     * Value returned for the keys not in the map, and marking the empty slots.
+     */
+    static final int MISSING = -1;
+
+    /**
+     * Keys of the slots.
+     */
+    private final long[] keys;
+
+    /**
+     * Values of the slots, MISSING in the empty ones.
+     */
+    private final int[] values;
+
+    /**
+     * Mask of the slot positions, the capacity minus one.
+     */
+    private final int mask;
+
+    /**
+     * Shift selecting the high bits of the mixed key as the first slot.
+     */
+    private final int shift;
+
+    /**
+     * Builds an empty map.
+     *
+     * @param expectedSize The maximum number of keys to put.
+     */
+    LongIntHashMap(int expectedSize) {
+
+        int capacity = 2;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    /**
+     * This method associates a value with a key, replacing the previous value of the key.
+     *
+     * @param key The key.
+     * @param value The value, not negative.
+     */
+    void put(long key, int value) {
+
+        int slot = slot(key);
+        while (values[slot] != MISSING && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * This method returns the value associated with a key.
+     *
+     * @param key The key.
+     * @return The value, or MISSING if the key is not in the map.
+     */
+    int get(long key) {
+
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Returns the first slot of a key, spreading the keys with a Fibonacci hash.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -0,0 +1,225 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.PriceChangedEvent;
+import com.inventory.ex.repository.PriceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of the price timeline of every product, loaded from the Data Base at startup into a PriceStore.
+ * The priorities are resolved once at load time, so the lookups are a hash probe and a binary search over primitive
+ * arrays without any Data Base round trip.
+ * The changes of the Prices and Products made through JPA are collected as they are committed, and applied every
+ * refresh interval as an incremental delta: a new immutable PriceStore copies the unchanged timelines and compiles
+ * again the changed ones, and then replaces the current one with a single volatile write, so the lookups never wait.
+ * A bulk change of the catalog, or too many changed products, rebuilds the whole store instead, compiling partitions
+ * of the products in parallel.
+ * The versions of the changed products are increased once the store reflecting their change is published.
+ * Enabled with the property inventory.price-index.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.price-index.enabled", havingValue = "true")
+public class PriceIndex {
+
+    /**
+     * Maximum number of products queried at once when a delta is applied.
+     */
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    /**
+     * The class retrieving the Prices from the Data Base.
+     */
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /**
+     * The versions of the products, increased once their changes are published.
+     */
+    @Autowired
+    private PriceVersions priceVersions;
+
+    /**
+     * Interval between two refreshes of the index with the changed products.
+     */
+    @Value("${inventory.price-index.refresh-interval:1s}")
+    private Duration refreshInterval;
+
+    /**
+     * Number of changed products above which the index is rebuilt instead of refreshed with a delta.
+     */
+    @Value("${inventory.price-index.full-rebuild-threshold:10000}")
+    private int fullRebuildThreshold;
+
+    /**
+     * Number of product partitions compiled in parallel by a full rebuild, 0 for the number of processors.
+     */
+    @Value("${inventory.price-index.rebuild-partitions:0}")
+    private int rebuildPartitions;
+
+    /**
+     * Compiled price timelines of every product.
+     */
+    private volatile PriceStore priceStore = PriceStore.EMPTY;
+
+    /**
+     * Product code identifiers of the products changed since the last refresh.
+     */
+    private final Set<Long> changedProducts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the next refresh must rebuild the whole index.
+     */
+    private volatile boolean rebuildRequested;
+
+    /**
+     * The thread refreshing the index every refresh interval.
+     */
+    private ScheduledExecutorService refresher;
+
+    /**
+     * This method loads the index and starts refreshing it every refresh interval.
+     */
+    @PostConstruct
+    public void start() {
+
+        load();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method stops refreshing the index.
+     */
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * This method loads every Price stored in the Data Base into the index.
+     */
+    public void load() {
+
+        long startTime = System.nanoTime();
+        List<Price> prices = priceRepository.findAllWithProduct();
+        load(prices);
+        priceVersions.catalogChanged();
+        log.info("Price index loaded with {} prices of {} products in {} ms", prices.size(),
+                priceStore.productCount(), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * This method records the product of a committed change, to be applied at the next refresh.
+     *
+     * @param priceChangedEvent The event with the product changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void priceChanged(PriceChangedEvent priceChangedEvent) {
+        changedProducts.add(priceChangedEvent.productId());
+    }
+
+    /**
+     * This method rebuilds the index once the catalog has been changed in bulk.
+     *
+     * @param catalogChangedEvent The event with the number of Prices changed.
+     */
+    @EventListener
+    public void catalogChanged(CatalogChangedEvent catalogChangedEvent) {
+
+        rebuildRequested = true;
+        refresh();
+    }
+
+    /**
+     * This method applies the changes recorded since the last refresh, rebuilding the whole index when requested or
+     * when too many products have changed. The changes are read from the Data Base after being taken, so a change
+     * committed meanwhile is applied again at the next refresh at worst.
+     */
+    public synchronized void refresh() {
+
+        if (rebuildRequested || changedProducts.size() > fullRebuildThreshold) {
+            rebuildRequested = false;
+            changedProducts.clear();
+            load();
+            return;
+        }
+        if (changedProducts.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        List<Long> productIds = new ArrayList<>(changedProducts);
+        changedProducts.removeAll(productIds);
+        List<Price> prices = new ArrayList<>();
+        try {
+            for (int from = 0; from < productIds.size(); from += QUERY_CHUNK_SIZE) {
+                prices.addAll(priceRepository.findByProductIdsWithProduct(
+                        productIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, productIds.size()))));
+            }
+        } catch (RuntimeException e) {
+            changedProducts.addAll(productIds);
+            throw e;
+        }
+        priceStore = priceStore.withProducts(productIds, prices);
+        priceVersions.productsChanged(productIds);
+        log.debug("Price index refreshed with {} prices of {} changed products in {} ms", prices.size(),
+                productIds.size(), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * This method replaces the content of the index with the specified Prices.
+     *
+     * @param prices The Prices to index, with their Product.
+     */
+    void load(List<Price> prices) {
+
+        int partitions = rebuildPartitions > 0 ? rebuildPartitions : Runtime.getRuntime().availableProcessors();
+        priceStore = PriceStore.build(prices, partitions);
+    }
+
+    /**
+     * This method returns the store currently loaded. The positions returned by its lookups are only valid in that
+     * same store, so it is read once per lookup.
+     *
+     * @return The PriceStore.
+     */
+    public PriceStore getPriceStore() {
+        return priceStore;
+    }
+
+    /**
+     * Refreshes the index from the refresher thread, which must survive any failure.
+     */
+    private void scheduledRefresh() {
+
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Price index refresh failed, retrying at the next interval", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+
+/**
+ * Period of time in which the same Price applies to a product, once the priorities have been resolved.
+ *
+ * @param validFrom First instant of the segment, in epoch milliseconds, inclusive.
+ * @param validUntil Last instant of the segment, in epoch milliseconds, exclusive.
+ * @param price The Price with the highest priority during the whole segment.
+ */
+public record PriceSegment(long validFrom, long validUntil, Price price) {
+
+    /**
+     * Checks if the segment contains the specified date.
+     *
+     * @param date Date in epoch milliseconds.
+     * @return True if the Price of the segment applies to the date.
+     */
+    public boolean contains(long date) {
+        return validFrom <= date && date < validUntil;
+    }
+}
@@ -0,0 +1,561 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable read model of the compiled price timelines of every product, built on primitive arrays.
+ * The products are found in an open-addressing map keyed by (productId << 32) | brandId, which gives the range of
+ * their segments, and the segments are stored as parallel arrays of epoch milliseconds, identifiers, priorities and
+ * prices sorted by product and date. Neither the lookups nor the stored catalog hold any Price, Timestamp or boxed
+ * object, so every segment takes a few dozen bytes.
+ * The segments are addressed by their position, and the accessor methods return the fields of a segment.
+ * The Prices of a product identifier not fitting in 32 bits are skipped and logged, since they can never be found.
+ */
+@Slf4j
+public final class PriceStore {
+
+    /**
+     * Position returned when no segment is found.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Order of the Prices when the store is built: by product, brand and start date.
+     */
+    private static final Comparator<Price> BUILD_ORDER = Comparator
+            .comparingLong((Price price) -> price.getProduct().getProductId())
+            .thenComparingInt(price -> price.getProduct().getBrandId())
+            .thenComparing(Price::getStartDate);
+
+    /**
+     * Store without any product.
+     */
+    public static final PriceStore EMPTY = build(List.of());
+
+    /**
+     * Key of every product, by position.
+     */
+    private final long[] productKeys;
+
+    /**
+     * Position of every product in firstSegments, by product key.
+     */
+    private final LongIntHashMap productPositions;
+
+    /**
+     * First segment of every product, with one more element holding the number of segments.
+     */
+    private final int[] firstSegments;
+
+    /**
+     * First instant of every segment, in epoch milliseconds, inclusive.
+     */
+    private final long[] validFrom;
+
+    /**
+     * Last instant of every segment, in epoch milliseconds, exclusive.
+     */
+    private final long[] validUntil;
+
+    /**
+     * Identifier of the Price selected in every segment.
+     */
+    private final long[] priceIds;
+
+    /**
+     * Start date of the Price selected in every segment, in epoch milliseconds.
+     */
+    private final long[] startDates;
+
+    /**
+     * End date of the Price selected in every segment, in epoch milliseconds, inclusive.
+     */
+    private final long[] endDates;
+
+    /**
+     * Priority of the Price selected in every segment.
+     */
+    private final int[] priorities;
+
+    /**
+     * Final sale price of the Price selected in every segment.
+     */
+    private final double[] prices;
+
+    /**
+     * Currency of the Price selected in every segment, as a position in currencyCodes.
+     */
+    private final short[] currencies;
+
+    /**
+     * Distinct currency codes of the store.
+     */
+    private final String[] currencyCodes;
+
+    private PriceStore(long[] productKeys, int[] firstSegments, int productCount, int segmentCount, long[] validFrom,
+                       long[] validUntil, long[] priceIds, long[] startDates, long[] endDates, int[] priorities,
+                       double[] prices, short[] currencies, String[] currencyCodes) {
+
+        this.productKeys = Arrays.copyOf(productKeys, productCount);
+        this.firstSegments = Arrays.copyOf(firstSegments, productCount + 1);
+        this.firstSegments[productCount] = segmentCount;
+        this.productPositions = new LongIntHashMap(productCount);
+        for (int product = 0; product < productCount; product++) {
+            productPositions.put(productKeys[product], product);
+        }
+        this.validFrom = Arrays.copyOf(validFrom, segmentCount);
+        this.validUntil = Arrays.copyOf(validUntil, segmentCount);
+        this.priceIds = Arrays.copyOf(priceIds, segmentCount);
+        this.startDates = Arrays.copyOf(startDates, segmentCount);
+        this.endDates = Arrays.copyOf(endDates, segmentCount);
+        this.priorities = Arrays.copyOf(priorities, segmentCount);
+        this.prices = Arrays.copyOf(prices, segmentCount);
+        this.currencies = Arrays.copyOf(currencies, segmentCount);
+        this.currencyCodes = currencyCodes;
+    }
+
+    /**
+     * This method builds the store, compiling the timeline of every product with PriceTimelineCompiler.
+     *
+     * @param prices The Prices to store, with their Product, in any order.
+     * @return The PriceStore.
+     */
+    public static PriceStore build(List<Price> prices) {
+        return build(prices, 1);
+    }
+
+    /**
+     * This method builds the store, compiling the timelines of contiguous partitions of the products in parallel
+     * in the common ForkJoinPool, and then concatenating the partitions.
+     *
+     * @param prices The Prices to store, with their Product, in any order.
+     * @param partitions The number of partitions compiled in parallel, 1 to compile them in the calling thread.
+     * @return The PriceStore.
+     */
+    public static PriceStore build(List<Price> prices, int partitions) {
+
+        Price[] rows = storablePrices(prices).toArray(Price[]::new);
+        if (partitions > 1) {
+            Arrays.parallelSort(rows, BUILD_ORDER);
+        } else {
+            Arrays.sort(rows, BUILD_ORDER);
+        }
+        List<Price> sortedRows = Arrays.asList(rows);
+
+        // Partitions of about the same number of rows, never splitting a product
+        int partitionCount = Math.max(1, Math.min(partitions, rows.length));
+        int[] bounds = new int[partitionCount + 1];
+        for (int partition = 1; partition < partitionCount; partition++) {
+            int bound = Math.max(bounds[partition - 1], (int) ((long) rows.length * partition / partitionCount));
+            while (bound > 0 && bound < rows.length && key(rows[bound]) == key(rows[bound - 1])) {
+                bound++;
+            }
+            bounds[partition] = bound;
+        }
+        bounds[partitionCount] = rows.length;
+
+        if (partitionCount == 1) {
+            Builder builder = new Builder(rows.length, rows.length * 2);
+            builder.addProducts(sortedRows);
+            return builder.build();
+        }
+
+        List<PriceStore> parts = IntStream.range(0, partitionCount).parallel()
+                .mapToObj(partition -> {
+                    List<Price> partRows = sortedRows.subList(bounds[partition], bounds[partition + 1]);
+                    Builder builder = new Builder(partRows.size(), partRows.size() * 2);
+                    builder.addProducts(partRows);
+                    return builder.build();
+                })
+                .toList();
+
+        Builder builder = new Builder(parts.stream().mapToInt(PriceStore::productCount).sum(),
+                parts.stream().mapToInt(PriceStore::size).sum());
+        parts.forEach(part -> builder.copyProducts(part, 0, part.productCount()));
+        return builder.build();
+    }
+
+    /**
+     * This method builds a new store applying an incremental change of some products: the timelines of the other
+     * products are copied as they are, and the ones of the changed products are compiled again from their Prices.
+     * This store is not modified, so it can still be read while the new one is built.
+     *
+     * @param productIds Product code identifiers of the changed products, with any of their brands.
+     * @param prices Every current Price of the changed products, with their Product, in any order. A changed product
+     *               without any Price is removed.
+     * @return The new PriceStore.
+     */
+    public PriceStore withProducts(Collection<Long> productIds, List<Price> prices) {
+
+        LongIntHashMap changedProducts = new LongIntHashMap(productIds.size());
+        productIds.forEach(productId -> changedProducts.put(productId, 0));
+
+        List<Price> rows = new ArrayList<>(storablePrices(prices));
+        rows.sort(BUILD_ORDER);
+        Builder builder = new Builder(productCount() + rows.size(), size() + rows.size() * 2);
+
+        // Runs of unchanged products are copied in bulk
+        int unchanged = 0;
+        for (int product = 0; product < productCount(); product++) {
+            if (changedProducts.get(productKeys[product] >>> 32) != LongIntHashMap.MISSING) {
+                builder.copyProducts(this, unchanged, product);
+                unchanged = product + 1;
+            }
+        }
+        builder.copyProducts(this, unchanged, productCount());
+        builder.addProducts(rows);
+        return builder.build();
+    }
+
+    /**
+     * This method returns the key of a product in the store.
+     *
+     * @param productId Product code identifier, which must fit in 32 bits.
+     * @param brandId Product brand identifier.
+     * @return The key, (productId << 32) | brandId.
+     */
+    public static long key(long productId, int brandId) {
+        return productId << 32 | (brandId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * This method returns the segment of the product's timeline containing the specified date.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param date Date and time to apply the product price, in epoch milliseconds.
+     * @return The position of the segment, or NOT_FOUND if no Price applies to the date.
+     */
+    public int findSegment(long productId, int brandId, long date) {
+
+        if (productId >>> 32 != 0) {
+            return NOT_FOUND;
+        }
+        int product = productPositions.get(key(productId, brandId));
+        if (product == LongIntHashMap.MISSING) {
+            return NOT_FOUND;
+        }
+
+        // Last segment starting at or before the date
+        int first = firstSegments[product];
+        int low = first;
+        int high = firstSegments[product + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (validFrom[middle] <= date) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high >= first && date < validUntil[high] ? high : NOT_FOUND;
+    }
+
+    /**
+     * @return The number of products of the store.
+     */
+    public int productCount() {
+        return firstSegments.length - 1;
+    }
+
+    /**
+     * @return The number of segments of the store.
+     */
+    public int size() {
+        return validFrom.length;
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return First instant of the segment, in epoch milliseconds, inclusive.
+     */
+    public long validFrom(int segment) {
+        return validFrom[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Last instant of the segment, in epoch milliseconds, exclusive.
+     */
+    public long validUntil(int segment) {
+        return validUntil[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Identifier of the Price selected in the segment.
+     */
+    public long priceId(int segment) {
+        return priceIds[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Start date of the Price selected in the segment, in epoch milliseconds.
+     */
+    public long startDate(int segment) {
+        return startDates[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return End date of the Price selected in the segment, in epoch milliseconds, inclusive.
+     */
+    public long endDate(int segment) {
+        return endDates[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Priority of the Price selected in the segment.
+     */
+    public int priority(int segment) {
+        return priorities[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Final sale price of the Price selected in the segment.
+     */
+    public double price(int segment) {
+        return prices[segment];
+    }
+
+    /**
+     * @param segment The position of the segment.
+     * @return Currency code of the Price selected in the segment.
+     */
+    public String currency(int segment) {
+        return currencyCodes[currencies[segment]];
+    }
+
+    /**
+     * Returns the key of the Product of a Price.
+     */
+    private static long key(Price price) {
+        return key(price.getProduct().getProductId(), price.getProduct().getBrandId());
+    }
+
+    /**
+     * Returns the Prices whose product identifier fits in the key, logging the ones skipped.
+     */
+    private static List<Price> storablePrices(List<Price> prices) {
+
+        if (prices.stream().allMatch(PriceStore::isStorable)) {
+            return prices;
+        }
+        List<Price> storable = prices.stream().filter(PriceStore::isStorable).toList();
+        log.warn("{} prices skipped by the price store, with a product identifier out of its range, such as {}",
+                prices.size() - storable.size(), prices.stream().filter(price -> !isStorable(price)).findFirst()
+                        .map(price -> price.getProduct().getProductId()).orElse(null));
+        return storable;
+    }
+
+    private static boolean isStorable(Price price) {
+        return price.getProduct().getProductId() >>> 32 == 0;
+    }
+
+    /**
+     * Mutable arrays of a store being built, grown as the products are added.
+     */
+    private static final class Builder {
+
+        /**
+         * Key of every product added, by position.
+         */
+        private long[] productKeys;
+
+        /**
+         * First segment of every product added.
+         */
+        private int[] firstSegments;
+
+        /**
+         * Number of products added.
+         */
+        private int productCount;
+
+        /**
+         * First instant of every segment added.
+         */
+        private long[] validFrom;
+
+        /**
+         * Last instant of every segment added, exclusive.
+         */
+        private long[] validUntil;
+
+        /**
+         * Identifier of the Price of every segment added.
+         */
+        private long[] priceIds;
+
+        /**
+         * Start date of the Price of every segment added.
+         */
+        private long[] startDates;
+
+        /**
+         * End date of the Price of every segment added.
+         */
+        private long[] endDates;
+
+        /**
+         * Priority of the Price of every segment added.
+         */
+        private int[] priorities;
+
+        /**
+         * Final sale price of the Price of every segment added.
+         */
+        private double[] prices;
+
+        /**
+         * Currency position of the Price of every segment added.
+         */
+        private short[] currencies;
+
+        /**
+         * Number of segments added.
+         */
+        private int segmentCount;
+
+        /**
+         * Position of every currency code added.
+         */
+        private final Map<String, Integer> currencyPositions = new LinkedHashMap<>();
+
+        /**
+         * Builds an empty builder sized for the expected number of products and segments.
+         */
+        private Builder(int expectedProducts, int expectedSegments) {
+
+            productKeys = new long[Math.max(1, expectedProducts)];
+            firstSegments = new int[Math.max(1, expectedProducts) + 1];
+            int capacity = Math.max(1, expectedSegments);
+            validFrom = new long[capacity];
+            validUntil = new long[capacity];
+            priceIds = new long[capacity];
+            startDates = new long[capacity];
+            endDates = new long[capacity];
+            priorities = new int[capacity];
+            prices = new double[capacity];
+            currencies = new short[capacity];
+        }
+
+        /**
+         * Compiles and adds the timelines of the products of the specified Prices, sorted in BUILD_ORDER.
+         */
+        private void addProducts(List<Price> rows) {
+
+            for (int from = 0, to; from < rows.size(); from = to) {
+                long key = key(rows.get(from));
+                to = from + 1;
+                while (to < rows.size() && key(rows.get(to)) == key) {
+                    to++;
+                }
+
+                // A timeline has at most one segment per start or end of its Prices
+                ensureCapacity(1, (to - from) * 2);
+                productKeys[productCount] = key;
+                firstSegments[productCount++] = segmentCount;
+                PriceTimelineCompiler.compile(rows.subList(from, to).iterator(), segment -> {
+                    int position = segmentCount++;
+                    Price price = segment.price();
+                    validFrom[position] = segment.validFrom();
+                    validUntil[position] = segment.validUntil();
+                    priceIds[position] = price.getPriceId();
+                    startDates[position] = price.getStartDate().getTime();
+                    endDates[position] = price.getEndDate().getTime();
+                    priorities[position] = price.getPriority();
+                    prices[position] = price.getPrice();
+                    currencies[position] = currencyPosition(price.getCurrency());
+                });
+            }
+        }
+
+        /**
+         * Copies the timelines of the products of a store between two positions, the last one exclusive.
+         */
+        private void copyProducts(PriceStore store, int fromProduct, int toProduct) {
+
+            if (fromProduct >= toProduct) {
+                return;
+            }
+            int fromSegment = store.firstSegments[fromProduct];
+            int segments = store.firstSegments[toProduct] - fromSegment;
+            ensureCapacity(toProduct - fromProduct, segments);
+
+            for (int product = fromProduct; product < toProduct; product++) {
+                productKeys[productCount] = store.productKeys[product];
+                firstSegments[productCount++] = segmentCount + store.firstSegments[product] - fromSegment;
+            }
+            System.arraycopy(store.validFrom, fromSegment, validFrom, segmentCount, segments);
+            System.arraycopy(store.validUntil, fromSegment, validUntil, segmentCount, segments);
+            System.arraycopy(store.priceIds, fromSegment, priceIds, segmentCount, segments);
+            System.arraycopy(store.startDates, fromSegment, startDates, segmentCount, segments);
+            System.arraycopy(store.endDates, fromSegment, endDates, segmentCount, segments);
+            System.arraycopy(store.priorities, fromSegment, priorities, segmentCount, segments);
+            System.arraycopy(store.prices, fromSegment, prices, segmentCount, segments);
+
+            // The currency positions of both stores may differ
+            short[] currencyMapping = new short[store.currencyCodes.length];
+            for (int currency = 0; currency < currencyMapping.length; currency++) {
+                currencyMapping[currency] = currencyPosition(store.currencyCodes[currency]);
+            }
+            for (int segment = 0; segment < segments; segment++) {
+                currencies[segmentCount + segment] = currencyMapping[store.currencies[fromSegment + segment]];
+            }
+            segmentCount += segments;
+        }
+
+        /**
+         * Returns the position of a currency code, adding it when new.
+         */
+        private short currencyPosition(String currency) {
+            return currencyPositions.computeIfAbsent(currency, code -> currencyPositions.size()).shortValue();
+        }
+
+        /**
+         * Grows the arrays, when needed, to hold the specified number of additional products and segments.
+         */
+        private void ensureCapacity(int additionalProducts, int additionalSegments) {
+
+            if (productCount + additionalProducts >= firstSegments.length) {
+                int capacity = Math.max(firstSegments.length * 2, productCount + additionalProducts + 1);
+                productKeys = Arrays.copyOf(productKeys, capacity);
+                firstSegments = Arrays.copyOf(firstSegments, capacity + 1);
+            }
+            if (segmentCount + additionalSegments > validFrom.length) {
+                int capacity = Math.max(validFrom.length * 2, segmentCount + additionalSegments);
+                validFrom = Arrays.copyOf(validFrom, capacity);
+                validUntil = Arrays.copyOf(validUntil, capacity);
+                priceIds = Arrays.copyOf(priceIds, capacity);
+                startDates = Arrays.copyOf(startDates, capacity);
+                endDates = Arrays.copyOf(endDates, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                currencies = Arrays.copyOf(currencies, capacity);
+            }
+        }
+
+        /**
+         * Returns the store with the products added.
+         */
+        private PriceStore build() {
+            return new PriceStore(productKeys, firstSegments, productCount, segmentCount, validFrom, validUntil,
+                    priceIds, startDates, endDates, priorities, prices, currencies,
+                    currencyPositions.keySet().toArray(String[]::new));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventory.ex.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable, non-overlapping sequence of PriceSegments of one product, sorted by date.
+ * Resolving the Price for a date is a single binary search over the segment start dates.
+ */
+public class PriceTimeline {
+
+    /**
+     * Timeline without any segment.
+     */
+    public static final PriceTimeline EMPTY = new PriceTimeline(List.of());
+
+    /**
+     * Start dates of the segments in epoch milliseconds, sorted ascending.
+     */
+    private final long[] starts;
+
+    /**
+     * Segments in the same order as starts.
+     */
+    private final PriceSegment[] segments;
+
+    /**
+     * Builds the timeline from segments already sorted and not overlapping, as produced by PriceTimelineCompiler.
+     *
+     * @param segments The sorted segments.
+     */
+    public PriceTimeline(List<PriceSegment> segments) {
+
+        this.segments = segments.toArray(PriceSegment[]::new);
+        this.starts = segments.stream().mapToLong(PriceSegment::validFrom).toArray();
+    }
+
+    /**
+     * This method returns the segment containing the specified date.
+     *
+     * @param date Date in epoch milliseconds.
+     * @return Optional of the PriceSegment, or an empty object if no Price applies to the date.
+     */
+    public Optional<PriceSegment> findSegment(long date) {
+
+        int position = Arrays.binarySearch(starts, date);
+        if (position < 0) {
+            position = -position - 2;
+        }
+
+        return position >= 0 && date < segments[position].validUntil()
+                ? Optional.of(segments[position]) : Optional.empty();
+    }
+
+    /**
+     * @return The segments of the timeline, sorted by date.
+     */
+    public List<PriceSegment> getSegments() {
+        return List.of(segments);
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Compiler turning the overlapping, prioritised Prices of one product into a PriceTimeline.
+ * The Prices are swept by date: at every instant where a Price starts or ends the Price with the highest priority
+ * among the active ones is selected, and a new segment is emitted whenever the selected Price changes.
+ * Price end dates are inclusive, as in the repository query, so a Price stops applying one millisecond after them.
+ */
+public final class PriceTimelineCompiler {
+
+    /**
+     * Order in which Prices applying to the same date take precedence: the higher priority first and, on equal
+     * priorities, the lowest price id.
+     */
+    public static final Comparator<Price> PRECEDENCE = Comparator.comparingInt(Price::getPriority).reversed()
+            .thenComparingLong(Price::getPriceId);
+
+    private PriceTimelineCompiler() {
+    }
+
+    /**
+     * This method compiles the Prices of one product into a PriceTimeline.
+     *
+     * @param prices The Prices of the product, in any order.
+     * @return The PriceTimeline of the product.
+     */
+    public static PriceTimeline compile(List<Price> prices) {
+
+        List<PriceSegment> segments = new ArrayList<>();
+        compile(prices.stream().sorted(Comparator.comparing(Price::getStartDate)).iterator(), segments::add);
+        return new PriceTimeline(segments);
+    }
+
+    /**
+     * This method compiles the Prices of one product into segments, emitting each segment as soon as it is
+     * complete. Gaps where no Price applies produce no segment.
+     *
+     * @param pricesByStartDate The Prices of the product, sorted by start date.
+     * @param segmentConsumer The consumer receiving the segments in date order.
+     */
+    public static void compile(Iterator<Price> pricesByStartDate, Consumer<PriceSegment> segmentConsumer) {
+
+        PriorityQueue<Price> activeByPrecedence = new PriorityQueue<>(PRECEDENCE);
+        PriorityQueue<Price> activeByEnd = new PriorityQueue<>(Comparator.comparing(Price::getEndDate));
+
+        Price nextPrice = nextValid(pricesByStartDate);
+        Price selected = null;
+        long segmentStart = 0;
+
+        while (nextPrice != null || !activeByEnd.isEmpty()) {
+
+            long instant = Math.min(nextPrice != null ? nextPrice.getStartDate().getTime() : Long.MAX_VALUE,
+                    activeByEnd.isEmpty() ? Long.MAX_VALUE : exclusiveEnd(activeByEnd.peek()));
+
+            // Apply every start and end happening at this instant
+            while (!activeByEnd.isEmpty() && exclusiveEnd(activeByEnd.peek()) == instant) {
+                activeByEnd.poll();
+            }
+            while (nextPrice != null && nextPrice.getStartDate().getTime() == instant) {
+                activeByPrecedence.add(nextPrice);
+                activeByEnd.add(nextPrice);
+                nextPrice = nextValid(pricesByStartDate);
+            }
+            // Ended Prices are only discarded once they reach the head of the precedence queue
+            while (!activeByPrecedence.isEmpty() && exclusiveEnd(activeByPrecedence.peek()) <= instant) {
+                activeByPrecedence.poll();
+            }
+
+            Price winner = activeByPrecedence.peek();
+            if (winner != selected) {
+                if (selected != null) {
+                    segmentConsumer.accept(new PriceSegment(segmentStart, instant, selected));
+                }
+                selected = winner;
+                segmentStart = instant;
+            }
+        }
+    }
+
+    /**
+     * Returns the next Price with a valid date range, skipping the ones ending before they start.
+     */
+    private static Price nextValid(Iterator<Price> prices) {
+
+        while (prices.hasNext()) {
+            Price price = prices.next();
+            if (!price.getEndDate().before(price.getStartDate())) {
+                return price;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first instant in epoch milliseconds in which the Price no longer applies.
+     */
+    private static long exclusiveEnd(Price price) {
+        return price.getEndDate().getTime() + 1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import com.inventory.ex.persistance.PriceChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versions of the price timelines of the products, as seen by the lookups, so a lookup answered before can be known
+ * to be still valid without resolving it again. The products are hashed into a fixed number of stripes, each one
+ * with its own version, so a change of a product also changes the version of the products sharing its stripe, which
+ * only makes their answers look changed.
+ * A version is increased once the change is visible to the lookups: after the commit of the change, and after the
+ * lookup cache has discarded the product, or, when the in-memory index is enabled, once the index publishes the
+ * refreshed timelines. A version read before a lookup is therefore never newer than the answer of the lookup.
+ */
+@Component
+public class PriceVersions {
+
+    /**
+     * Number of stripes of the versions, a power of two.
+     */
+    private static final int STRIPES = 4096;
+
+    /**
+     * Version of every stripe of products.
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    /**
+     * Whether the in-memory index increases the versions once it publishes the changes.
+     */
+    @Value("${inventory.price-index.enabled:false}")
+    private boolean priceIndexEnabled;
+
+    /**
+     * This method returns the current version of the price timeline of a product.
+     *
+     * @param productId Product code identifier.
+     * @return The version, which increases with every change of the Prices of the product.
+     */
+    public long version(long productId) {
+        return versions.get(stripe(productId));
+    }
+
+    /**
+     * This method increases the versions of the products changed.
+     *
+     * @param productIds Product code identifiers of the products changed.
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        productIds.forEach(productId -> versions.incrementAndGet(stripe(productId)));
+    }
+
+    /**
+     * This method increases the versions of every product.
+     */
+    public void catalogChanged() {
+
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            versions.incrementAndGet(stripe);
+        }
+    }
+
+    /**
+     * This method increases the version of a product once the change of one of its Prices is committed, after the
+     * other listeners of the change, unless the in-memory index increases it.
+     *
+     * @param priceChangedEvent The event with the product changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void priceChanged(PriceChangedEvent priceChangedEvent) {
+
+        if (!priceIndexEnabled) {
+            versions.incrementAndGet(stripe(priceChangedEvent.productId()));
+        }
+    }
+
+    /**
+     * This method increases the versions of every product once the catalog has been changed in bulk, after the other
+     * listeners of the change, unless the in-memory index increases them.
+     *
+     * @param catalogChangedEvent The event with the number of Prices changed.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void catalogChanged(CatalogChangedEvent catalogChangedEvent) {
+
+        if (!priceIndexEnabled) {
+            catalogChanged();
+        }
+    }
+
+    private static int stripe(long productId) {
+        return (Long.hashCode(productId) * 0x9E3779B9) >>> 20;
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventory.ex.index;
+
+/**
+ * Identifier of a product price list inside the in-memory price index.
+ *
+ * @param productId Product code identifier.
+ * @param brandId Product brand identifier.
+ */
+public record ProductKey(long productId, int brandId) {
+}
@@ -0,0 +1,22 @@
+package com.inventory.ex.ingest;
+
+/**
+ * Result of a bulk load of Prices.
+ *
+ * @param rows Number of Price rows inserted.
+ * @param products Number of distinct Products of the Prices inserted in every transaction, added up.
+ * @param brandMismatches Number of rows skipped because their brand is not the one of their Product.
+ * @param invalidRows Number of rows skipped because they end before their start or have no currency.
+ * @param elapsedNanos Duration of the load, in nanoseconds.
+ */
+public record BulkLoadResult(long rows, long products, long brandMismatches, long invalidRows, long elapsedNanos) {
+
+    /**
+     * This method returns the throughput of the load.
+     *
+     * @return Price rows inserted per second.
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000d / elapsedNanos;
+    }
+}
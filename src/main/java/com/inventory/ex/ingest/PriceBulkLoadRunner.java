@@ -0,0 +1,39 @@
+package com.inventory.ex.ingest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Loads the price feed configured with the property inventory.bulk-load.file once the application is started,
+ * before the other runners.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "inventory.bulk-load.file")
+public class PriceBulkLoadRunner implements ApplicationRunner {
+
+    /**
+     * The loader of the price feed.
+     */
+    @Autowired
+    private PriceBulkLoader priceBulkLoader;
+
+    /**
+     * The path of the CSV or NDJSON price feed.
+     */
+    @Value("${inventory.bulk-load.file}")
+    private Path feed;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        priceBulkLoader.load(feed);
+    }
+}
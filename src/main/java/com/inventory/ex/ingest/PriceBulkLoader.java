@@ -0,0 +1,247 @@
+package com.inventory.ex.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader of price feeds into the PRODUCT and PRICE tables.
+ * The feed is streamed and inserted with JDBC batches, committing every inventory.bulk-load.commit-size rows, and
+ * the Price identifiers are allocated in blocks from the same sequence used by JPA.
+ * The Products of the feed are inserted when they do not exist. The brand of a Product is never changed, since it
+ * would change the brand of every Price of the Product, so the rows of a Product with another brand than the stored
+ * one, or than the first row of the Product in the chunk, are skipped and counted. The rows ending before their start
+ * or without a currency are skipped and counted as well, as the price writes reject them.
+ */
+@Slf4j
+@Component
+public class PriceBulkLoader {
+
+    /**
+     * Name of the sequence of the Price identifiers.
+     */
+    static final String PRICE_SEQUENCE = "PRICE_SEQ";
+
+    /**
+     * Increment of the sequence of the Price identifiers, the allocationSize of the Price entity.
+     */
+    static final int PRICE_SEQUENCE_INCREMENT = 50;
+
+    private static final String SELECT_BRANDS = "SELECT PRODUCT_ID, BRAND_ID FROM PRODUCT WHERE PRODUCT_ID IN (%s)";
+
+    private static final String INSERT_PRODUCT = "INSERT INTO PRODUCT (PRODUCT_ID, BRAND_ID) VALUES (?, ?)";
+
+    private static final String INSERT_PRICE = "INSERT INTO PRICE (PRICE_ID, PRODUCT_ID, PRICE, PRIORITY, "
+            + "START_DATE, END_DATE, CURRENCY) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The template running the batched inserts.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The template of the transactions committing every chunk of rows.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The mapper of the NDJSON feeds.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The publisher of the application events.
+     */
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Number of rows sent to the Data Base in every JDBC batch.
+     */
+    @Value("${inventory.bulk-load.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Number of rows committed in every transaction.
+     */
+    @Value("${inventory.bulk-load.commit-size:10000}")
+    private int commitSize;
+
+    /**
+     * This method loads a price feed file, with the format given by its extension.
+     *
+     * @param feed The path of the CSV or NDJSON feed.
+     * @return The BulkLoadResult.
+     * @throws IOException If the feed cannot be read.
+     */
+    public BulkLoadResult load(Path feed) throws IOException {
+
+        try (BufferedReader reader = Files.newBufferedReader(feed, StandardCharsets.UTF_8)) {
+            BulkLoadResult result = load(PriceFeedFormat.of(feed).read(reader, objectMapper));
+            log.info("Price feed {} loaded with {} prices of {} products in {} ms, {} rows/s, {} rows skipped", feed,
+                    result.rows(), result.products(), result.elapsedNanos() / 1_000_000,
+                    Math.round(result.rowsPerSecond()), result.brandMismatches() + result.invalidRows());
+            return result;
+        }
+    }
+
+    /**
+     * This method loads the records of a price feed and publishes a CatalogChangedEvent once they are committed.
+     *
+     * @param records The records of the feed, consumed as they are inserted.
+     * @return The BulkLoadResult.
+     */
+    public BulkLoadResult load(Iterator<PriceFeedRecord> records) {
+
+        long startTime = System.nanoTime();
+        SequenceIdAllocator priceIds = new SequenceIdAllocator(jdbcTemplate, PRICE_SEQUENCE,
+                PRICE_SEQUENCE_INCREMENT);
+        List<PriceFeedRecord> chunk = new ArrayList<>(commitSize);
+        long rows = 0;
+        long products = 0;
+        long brandMismatches = 0;
+        long invalidRows = 0;
+
+        while (records.hasNext()) {
+            PriceFeedRecord priceFeedRecord = records.next();
+            if (isValid(priceFeedRecord)) {
+                chunk.add(priceFeedRecord);
+            } else {
+                invalidRows++;
+                log.debug("Price feed row skipped, ending before its start or without currency: {}", priceFeedRecord);
+            }
+            if (chunk.size() >= commitSize || (!records.hasNext() && !chunk.isEmpty())) {
+                ChunkResult chunkResult = commit(chunk, priceIds);
+                rows += chunkResult.rows();
+                products += chunkResult.products();
+                brandMismatches += chunk.size() - chunkResult.rows();
+                chunk.clear();
+                log.debug("{} prices loaded, {} rows/s", rows,
+                        Math.round(rows * 1_000_000_000d / (System.nanoTime() - startTime)));
+            }
+        }
+
+        if (brandMismatches > 0 || invalidRows > 0) {
+            log.warn("{} price feed rows skipped with another brand than their product, {} invalid rows skipped",
+                    brandMismatches, invalidRows);
+        }
+        if (rows > 0) {
+            applicationEventPublisher.publishEvent(new CatalogChangedEvent(rows));
+        }
+        return new BulkLoadResult(rows, products, brandMismatches, invalidRows, System.nanoTime() - startTime);
+    }
+
+    /**
+     * This method inserts a chunk of records in a single transaction, with the Products not stored yet, skipping the
+     * records whose brand is not the one of their Product.
+     *
+     * @param chunk The records to insert.
+     * @param priceIds The allocator of the Price identifiers.
+     * @return The ChunkResult with the number of Prices inserted and of distinct Products of the chunk.
+     */
+    private ChunkResult commit(List<PriceFeedRecord> chunk, SequenceIdAllocator priceIds) {
+
+        return transactionTemplate.execute(status -> {
+            Map<Long, Integer> storedBrands = findBrands(chunk);
+            Map<Long, Integer> brandsByProduct = new HashMap<>();
+            List<Object[]> products = new ArrayList<>();
+            List<Object[]> prices = new ArrayList<>(chunk.size());
+            for (PriceFeedRecord priceFeedRecord : chunk) {
+                int brandId = brandsByProduct.computeIfAbsent(priceFeedRecord.productId(), productId -> {
+                    Integer storedBrand = storedBrands.get(productId);
+                    if (storedBrand == null) {
+                        products.add(new Object[]{productId, priceFeedRecord.brandId()});
+                        return priceFeedRecord.brandId();
+                    }
+                    return storedBrand;
+                });
+                if (brandId != priceFeedRecord.brandId()) {
+                    log.debug("Price feed row skipped, the brand of the product {} is {}: {}",
+                            priceFeedRecord.productId(), brandId, priceFeedRecord);
+                    continue;
+                }
+                prices.add(new Object[]{priceIds.nextId(), priceFeedRecord.productId(), priceFeedRecord.price(),
+                        priceFeedRecord.priority(), priceFeedRecord.startDate(), priceFeedRecord.endDate(),
+                        priceFeedRecord.currency()});
+            }
+
+            batchUpdate(INSERT_PRODUCT, products);
+            batchUpdate(INSERT_PRICE, prices);
+            return new ChunkResult(prices.size(), (int) prices.stream().map(price -> price[1]).distinct().count());
+        });
+    }
+
+    /**
+     * This method reads the brands of the stored Products of a chunk, in queries of inventory.bulk-load.batch-size
+     * Products.
+     *
+     * @param chunk The records of the chunk.
+     * @return The brand identifiers by product code identifier of the Products already stored.
+     */
+    private Map<Long, Integer> findBrands(List<PriceFeedRecord> chunk) {
+
+        List<Long> productIds = chunk.stream().map(PriceFeedRecord::productId).distinct().toList();
+        Map<Long, Integer> storedBrands = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            jdbcTemplate.query(String.format(SELECT_BRANDS, String.join(",", Collections.nCopies(batch.size(), "?"))),
+                    resultSet -> {
+                        storedBrands.put(resultSet.getLong(1), resultSet.getInt(2));
+                    }, batch.toArray());
+        }
+        return storedBrands;
+    }
+
+    /**
+     * Accepts the records ending at or after their start and with a currency.
+     */
+    private static boolean isValid(PriceFeedRecord priceFeedRecord) {
+
+        return priceFeedRecord.startDate() != null && priceFeedRecord.endDate() != null
+                && !priceFeedRecord.endDate().before(priceFeedRecord.startDate())
+                && priceFeedRecord.currency() != null && !priceFeedRecord.currency().isBlank();
+    }
+
+    /**
+     * This method runs a statement for every row, in JDBC batches of inventory.bulk-load.batch-size rows.
+     *
+     * @param sql The statement.
+     * @param rows The arguments of every row.
+     */
+    private void batchUpdate(String sql, List<Object[]> rows) {
+
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    /**
+     * Result of the commit of a chunk.
+     *
+     * @param rows Number of Price rows inserted.
+     * @param products Number of distinct Products of the Prices inserted.
+     */
+    private record ChunkResult(int rows, int products) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.inventory.ex.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Formats of the price feeds, read as a stream of PriceFeedRecord so the whole feed is never held in memory.
+ */
+public enum PriceFeedFormat {
+
+    /**
+     * Comma separated values, with a header line and the columns
+     * PRODUCT_ID,BRAND_ID,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY.
+     */
+    CSV {
+        @Override
+        public Iterator<PriceFeedRecord> read(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+
+            reader.readLine();
+            return new Iterator<>() {
+
+                private String line = nextLine();
+
+                @Override
+                public boolean hasNext() {
+                    return line != null;
+                }
+
+                @Override
+                public PriceFeedRecord next() {
+
+                    if (line == null) {
+                        throw new NoSuchElementException();
+                    }
+                    PriceFeedRecord priceFeedRecord = parse(line);
+                    line = nextLine();
+                    return priceFeedRecord;
+                }
+
+                private String nextLine() {
+
+                    try {
+                        String nextLine = reader.readLine();
+                        while (nextLine != null && nextLine.isBlank()) {
+                            nextLine = reader.readLine();
+                        }
+                        return nextLine;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+    },
+
+    /**
+     * Newline-delimited JSON, with an object per line with the fields of PriceFeedRecord.
+     */
+    NDJSON {
+        @Override
+        public Iterator<PriceFeedRecord> read(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+            return objectMapper.readerFor(PriceFeedRecord.class).readValues(reader);
+        }
+    };
+
+    /**
+     * This method reads the records of a price feed.
+     *
+     * @param reader The reader of the feed.
+     * @param objectMapper The mapper of the JSON records.
+     * @return Iterator of the records, read as they are consumed.
+     * @throws IOException If the feed cannot be read.
+     */
+    public abstract Iterator<PriceFeedRecord> read(BufferedReader reader, ObjectMapper objectMapper)
+            throws IOException;
+
+    /**
+     * This method returns the format of a price feed from its file extension.
+     *
+     * @param feed The path of the feed.
+     * @return The PriceFeedFormat, NDJSON for the .ndjson, .jsonl and .json extensions and CSV otherwise.
+     */
+    public static PriceFeedFormat of(Path feed) {
+
+        String fileName = feed.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") || fileName.endsWith(".json")
+                ? NDJSON : CSV;
+    }
+
+    /**
+     * This method parses a CSV line of a price feed.
+     *
+     * @param line The CSV line.
+     * @return The PriceFeedRecord.
+     */
+    static PriceFeedRecord parse(String line) {
+
+        String[] columns = line.split(",", -1);
+        if (columns.length != 7) {
+            throw new IllegalArgumentException("Expected 7 columns in the price feed line: " + line);
+        }
+        return new PriceFeedRecord(
+                Long.parseLong(columns[0].trim()),
+                Integer.parseInt(columns[1].trim()),
+                timestamp(columns[2]),
+                timestamp(columns[3]),
+                Integer.parseInt(columns[4].trim()),
+                Double.parseDouble(columns[5].trim()),
+                columns[6].trim());
+    }
+
+    /**
+     * This method parses a date of a price feed, with either a space or a T between the date and the time.
+     *
+     * @param value The date, like 2020-06-14 00:00:00 or 2020-06-14T00:00:00.
+     * @return The Timestamp.
+     */
+    private static Timestamp timestamp(String value) {
+        return Timestamp.valueOf(value.trim().replace('T', ' '));
+    }
+}
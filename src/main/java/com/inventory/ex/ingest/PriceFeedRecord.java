@@ -0,0 +1,18 @@
+package com.inventory.ex.ingest;
+
+import java.sql.Timestamp;
+
+/**
+ * A row of a price feed, with the Product it belongs to.
+ *
+ * @param productId Product code identifier.
+ * @param brandId Product brand identifier.
+ * @param startDate Start date on which the price applies.
+ * @param endDate End date on which the price applies.
+ * @param priority Price rate application priority. The higher value has a higher priority.
+ * @param price Final sale price.
+ * @param currency Currency code, ISO standardized.
+ */
+public record PriceFeedRecord(long productId, int brandId, Timestamp startDate, Timestamp endDate, int priority,
+                              double price, String currency) {
+}
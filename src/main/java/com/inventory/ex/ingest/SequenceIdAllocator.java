@@ -0,0 +1,73 @@
+package com.inventory.ex.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Allocator of identifiers from a Data Base sequence, reserving a block of identifiers per sequence call.
+ * The blocks follow the pooled optimizer of Hibernate, where the sequence value is the highest identifier of the
+ * block, so the identifiers never collide with the ones generated through JPA for the same sequence.
+ * It is not thread safe.
+ */
+public class SequenceIdAllocator {
+
+    /**
+     * The template running the sequence calls.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The query returning the next value of the sequence.
+     */
+    private final String nextValueQuery;
+
+    /**
+     * Number of identifiers of every block, the increment of the sequence.
+     */
+    private final int allocationSize;
+
+    /**
+     * Next identifier to return.
+     */
+    private long next;
+
+    /**
+     * Highest identifier of the current block.
+     */
+    private long high = -1;
+
+    /**
+     * Builds an allocator for the specified sequence.
+     *
+     * @param jdbcTemplate The template running the sequence calls.
+     * @param sequenceName The name of the sequence.
+     * @param allocationSize The increment of the sequence.
+     */
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, String sequenceName, int allocationSize) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueQuery = "SELECT NEXT VALUE FOR " + sequenceName;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * This method returns the next identifier, calling the sequence once the current block is exhausted.
+     *
+     * @return The identifier.
+     */
+    public long nextId() {
+
+        if (next > high) {
+            high = nextValue();
+            if (high < allocationSize) {
+                // Initial value of a sequence never used, whose block would include non positive identifiers
+                high = nextValue();
+            }
+            next = high - allocationSize + 1;
+        }
+        return next++;
+    }
+
+    private long nextValue() {
+        return jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+    }
+}
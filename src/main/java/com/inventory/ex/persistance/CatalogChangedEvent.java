@@ -0,0 +1,10 @@
+package com.inventory.ex.persistance;
+
+/**
+ * Event published when the Prices of the catalog have been changed in bulk outside JPA, so any copy of them has to
+ * be discarded or reloaded.
+ *
+ * @param rows Number of Price rows changed.
+ */
+public record CatalogChangedEvent(long rows) {
+}
@@ -0,0 +1,29 @@
+package com.inventory.ex.persistance;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Entity class for the FX_RATE table, with the exchange rate of every currency to the base currency of the table.
+ */
+@Data
+@Entity
+@Table(name="FX_RATE")
+public class FxRate {
+
+    /**
+     * Currency code, ISO standardized, table PRIMARY KEY.
+     */
+    @Id
+    @Column(name = "CURRENCY", nullable = false)
+    private String currency;
+
+    /**
+     * Value of one unit of the currency in the base currency, the one with a rate of 1.
+     */
+    @Column(name = "RATE", nullable = false)
+    private double rate;
+}
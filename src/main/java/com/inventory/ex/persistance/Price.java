@@ -10,7 +10,8 @@ import java.sql.Timestamp;
  */
 @Data
 @Entity
-@Table(name="PRICE")
+@Table(name="PRICE", indexes = @Index(name = "PRICE_PRODUCT_START_DATE", columnList = "PRODUCT_ID, START_DATE"))
+@EntityListeners(PriceEntityListener.class)
 public class Price {
 
     /**
@@ -19,7 +20,8 @@ public class Price {
      */
     @Id
     @Column(name = "PRICE_ID", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "priceSequence")
+    @SequenceGenerator(name = "priceSequence", sequenceName = "PRICE_SEQ", allocationSize = 50)
     private long priceId;
 
     /**
@@ -0,0 +1,10 @@
+package com.inventory.ex.persistance;
+
+/**
+ * Event published every time a Price, or the Product of some Prices, is created, updated or removed through JPA.
+ *
+ * @param productId Product code identifier of the Prices.
+ * @param brandId Product brand identifier of the Prices.
+ */
+public record PriceChangedEvent(long productId, int brandId) {
+}
@@ -0,0 +1,36 @@
+package com.inventory.ex.persistance;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener publishing a PriceChangedEvent for every change of a Price entity.
+ * It is instantiated by Spring through the Hibernate bean container.
+ */
+public class PriceEntityListener {
+
+    /**
+     * The publisher of the application events.
+     */
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * This method publishes the change of the specified Price.
+     *
+     * @param price The Price created, updated or removed.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void priceChanged(Price price) {
+
+        Product product = price.getProduct();
+        if (product != null) {
+            applicationEventPublisher.publishEvent(new PriceChangedEvent(product.getProductId(), product.getBrandId()));
+        }
+    }
+}
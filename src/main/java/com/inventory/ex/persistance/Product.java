@@ -2,6 +2,8 @@ package com.inventory.ex.persistance;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.List;
 
@@ -11,6 +13,7 @@ import java.util.List;
 @Data
 @Entity
 @Table(name="PRODUCT")
+@EntityListeners(ProductEntityListener.class)
 public class Product {
 
     /**
@@ -18,7 +21,8 @@ public class Product {
      */
     @Id
     @Column(name = "PRODUCT_ID", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productSequence")
+    @SequenceGenerator(name = "productSequence", sequenceName = "PRODUCT_SEQ", allocationSize = 50)
     private long productId;
 
     /**
@@ -32,4 +36,13 @@ public class Product {
      */
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
     private List<Price> prices;
+
+    /**
+     * Product brand identifier as loaded from, or last written to, the Data Base, so a change of brand can be
+     * published for the previous brand too.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Integer storedBrandId;
 }
@@ -0,0 +1,51 @@
+package com.inventory.ex.persistance;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener publishing a PriceChangedEvent for every change of a Product entity, which changes the key
+ * of its Prices when its brand is updated. The brand loaded is recorded, so a change of brand is published for both
+ * the previous and the new brand.
+ * It is instantiated by Spring through the Hibernate bean container.
+ */
+public class ProductEntityListener {
+
+    /**
+     * The publisher of the application events.
+     */
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * This method records the brand of the specified Product as loaded from the Data Base.
+     *
+     * @param product The Product loaded.
+     */
+    @PostLoad
+    public void productLoaded(Product product) {
+        product.setStoredBrandId(product.getBrandId());
+    }
+
+    /**
+     * This method publishes the change of the specified Product, and of its previous brand when it has changed.
+     *
+     * @param product The Product created, updated or removed.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void productChanged(Product product) {
+
+        Integer storedBrandId = product.getStoredBrandId();
+        if (storedBrandId != null && storedBrandId != product.getBrandId()) {
+            applicationEventPublisher.publishEvent(new PriceChangedEvent(product.getProductId(), storedBrandId));
+        }
+        applicationEventPublisher.publishEvent(new PriceChangedEvent(product.getProductId(), product.getBrandId()));
+        product.setStoredBrandId(product.getBrandId());
+    }
+}
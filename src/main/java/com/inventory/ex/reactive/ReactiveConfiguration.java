@@ -0,0 +1,44 @@
+package com.inventory.ex.reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the reactive stack, selected with the reactive profile.
+ * The price endpoint is served by Netty event-loop threads and its query runs through R2DBC, while JPA keeps
+ * creating and loading the schema of the same in-memory Data Base.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfiguration {
+
+    /**
+     * Netty server, chosen over Tomcat which is also in the classpath for the servlet stack.
+     *
+     * @return The NettyReactiveWebServerFactory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * JDBC DataSource used by JPA. Spring Boot does not configure it once an R2DBC ConnectionFactory exists, so it
+     * is built here from the same spring.datasource properties.
+     *
+     * @param dataSourceProperties The spring.datasource properties.
+     * @return The DataSource.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
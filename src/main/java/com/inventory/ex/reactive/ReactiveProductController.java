@@ -0,0 +1,74 @@
+package com.inventory.ex.reactive;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.service.InvalidPriceRequestException;
+import com.inventory.ex.warmup.HotKeyRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * This is the reactive Controller class for the Product endpoint, replacing ProductController with the reactive
+ * profile.
+ */
+@RequestMapping(value = "product")
+@RestController
+@Validated
+@Profile("reactive")
+public class ReactiveProductController {
+
+    /**
+     * This is the business logic class supporting Product endpoint.
+     */
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+
+    /**
+     * The recorder of the most requested products, warmed up at the next start, only available when enabled.
+     */
+    @Autowired(required = false)
+    private HotKeyRecorder hotKeyRecorder;
+
+    /**
+     * This method retrieves a message to verify that the application is running.
+     *
+     * @return String message indicating that the service is running.
+     */
+    @GetMapping("/healthcheck")
+    public Mono<String> healthCheck() {
+        return Mono.just("Service is running");
+    }
+
+    /**
+     * This method returns the product's price to apply to the specified date.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return Mono of the information requested, or an empty object if not found.
+     */
+    @PostMapping("/price")
+    public Mono<ProductPriceResponse> getProductPrice(@RequestBody ProductPriceRequest productPriceRequest) {
+
+        if (hotKeyRecorder != null) {
+            hotKeyRecorder.record(productPriceRequest.getProductId(), productPriceRequest.getBrandId());
+        }
+        return reactiveProductService.getProductPricesByDate(productPriceRequest);
+    }
+
+    /**
+     * This method answers the requests that are not valid, such as those of a currency without FX rates, with a bad
+     * request status.
+     *
+     * @param invalidPriceRequestException The exception describing why the request is not valid.
+     * @return The ResponseEntity with the description of why the request is not valid.
+     */
+    @ExceptionHandler(InvalidPriceRequestException.class)
+    public ResponseEntity<String> invalidRequest(InvalidPriceRequestException invalidPriceRequestException) {
+
+        return new ResponseEntity<>(invalidPriceRequestException.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
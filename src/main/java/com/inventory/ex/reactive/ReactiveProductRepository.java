@@ -0,0 +1,60 @@
+package com.inventory.ex.reactive;
+
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reactive repository class to search the Product price information through R2DBC.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+
+    /**
+     * Query selecting the Price with the highest priority for the specified date, as ProductRepository does.
+     */
+    private static final String PRODUCT_PRICE_BY_DATE_QUERY = "SELECT p.PRODUCT_ID, p.BRAND_ID, pr.PRICE_ID, "
+            + "pr.START_DATE, pr.END_DATE, pr.PRICE, pr.CURRENCY FROM PRICE pr JOIN PRODUCT p ON p.PRODUCT_ID = pr.PRODUCT_ID "
+            + "WHERE p.PRODUCT_ID = :productId AND p.BRAND_ID = :brandId "
+            + "AND :date BETWEEN pr.START_DATE AND pr.END_DATE "
+            + "ORDER BY pr.PRIORITY DESC, pr.PRICE_ID LIMIT 1";
+
+    /**
+     * The non-blocking client running the queries.
+     */
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * This method returns the product's price information for the specified date, selecting in the Data Base the
+     * Price with the highest priority.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param date and time to apply the product price.
+     * @return Mono of ProductPriceResponse with the Product price information, or an empty Mono if not found.
+     */
+    public Mono<ProductPriceResponse> findProductPriceByDate(long productId, int brandId, Timestamp date) {
+
+        return databaseClient.sql(PRODUCT_PRICE_BY_DATE_QUERY)
+                .bind("productId", productId)
+                .bind("brandId", brandId)
+                .bind("date", date.toLocalDateTime())
+                .map(row -> new ProductPriceResponse(
+                        row.get("PRODUCT_ID", Long.class),
+                        row.get("BRAND_ID", Integer.class),
+                        row.get("PRICE_ID", Long.class),
+                        Timestamp.valueOf(row.get("START_DATE", LocalDateTime.class)),
+                        Timestamp.valueOf(row.get("END_DATE", LocalDateTime.class)),
+                        row.get("PRICE", Double.class),
+                        row.get("CURRENCY", String.class)))
+                .one();
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.ex.reactive;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.fx.FxRateStore;
+import com.inventory.ex.fx.FxRateTable;
+import com.inventory.ex.index.PriceIndex;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.service.InvalidPriceRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import static com.inventory.ex.service.ProductPriceMapper.requestedCurrency;
+import static com.inventory.ex.service.ProductPriceMapper.toCurrency;
+import static com.inventory.ex.service.ProductPriceMapper.toProductPriceResponse;
+
+/**
+ * This is the reactive Service class supporting the reactive Product endpoint.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    /**
+     * The class retrieving the information from the Data Base without blocking.
+     */
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+
+    /**
+     * The in-memory index of Prices, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceIndex priceIndex;
+
+    /**
+     * The FX rates converting the prices to the requested currencies.
+     */
+    @Autowired
+    private FxRateStore fxRateStore;
+
+    /**
+     * This method returns the product's price information for the specified date.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return A Mono of ProductPriceResponse with the Product price information, or an empty object if not found.
+     * @throws InvalidPriceRequestException If there is no FX rate for the requested currency.
+     */
+    public Mono<ProductPriceResponse> getProductPricesByDate(ProductPriceRequest productPriceRequest) {
+
+        if (productPriceRequest.getCurrency() == null) {
+            return resolveProductPrice(productPriceRequest);
+        }
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int currency = requestedCurrency(fxRateTable, productPriceRequest.getCurrency());
+        return resolveProductPrice(productPriceRequest)
+                .map(productPriceResponse -> toCurrency(productPriceResponse, fxRateTable, currency));
+    }
+
+    /**
+     * Resolves the product's price information for the specified date, in the currency of the Price.
+     */
+    private Mono<ProductPriceResponse> resolveProductPrice(ProductPriceRequest productPriceRequest) {
+
+        // Without a date no Price applies, as on the servlet stack
+        if (productPriceRequest.getApplicationDate() == null) {
+            return Mono.just(new ProductPriceResponse());
+        }
+        if (priceIndex != null) {
+            PriceStore priceStore = priceIndex.getPriceStore();
+            return Mono.just(toProductPriceResponse(productPriceRequest, priceStore,
+                    priceStore.findSegment(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                            productPriceRequest.getApplicationDate().getTime())));
+        }
+
+        return reactiveProductRepository.findProductPriceByDate(productPriceRequest.getProductId(),
+                        productPriceRequest.getBrandId(), productPriceRequest.getApplicationDate())
+                .switchIfEmpty(Mono.fromSupplier(ProductPriceResponse::new));
+    }
+}
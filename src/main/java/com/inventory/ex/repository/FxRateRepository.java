@@ -0,0 +1,12 @@
+package com.inventory.ex.repository;
+
+import com.inventory.ex.persistance.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository class to store and retrieve the FxRate entities.
+ */
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, String> {
+}
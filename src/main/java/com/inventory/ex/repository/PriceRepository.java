@@ -1,10 +1,18 @@
 package com.inventory.ex.repository;
 
 import com.inventory.ex.persistance.Price;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository class to store, retrieve and search information for Price entity.
@@ -12,4 +20,63 @@ import java.util.Optional;
 @Repository
 public interface PriceRepository extends JpaRepository<Price, Long> {
 
+    /**
+     * This method returns every Price together with its Product, in a single query.
+     *
+     * @return List of all the Prices.
+     */
+    @Query("SELECT pr FROM Price pr JOIN FETCH pr.product")
+    List<Price> findAllWithProduct();
+
+    /**
+     * This method returns every Price of a product, with its Product.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @return List of the Prices of the product, or an empty list if not found.
+     */
+    @Query("SELECT pr FROM Price pr JOIN FETCH pr.product p WHERE p.productId = :productId AND p.brandId = :brandId")
+    List<Price> findByProductIdAndBrandId(@Param("productId") long productId, @Param("brandId") int brandId);
+
+    /**
+     * This method streams, ordered by start date, the Prices of a product applying at some point between two dates,
+     * with its Product. It must be called in a transaction and the Stream closed once read.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param fromDate First date and time of the period.
+     * @param toDate Last date and time of the period.
+     * @return Stream of the Prices found, empty if none.
+     */
+    @Query("SELECT pr FROM Price pr JOIN FETCH pr.product p " +
+            "WHERE p.productId = :productId AND p.brandId = :brandId " +
+            "AND pr.startDate <= :toDate AND pr.endDate >= :fromDate ORDER BY pr.startDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<Price> streamByProductIdAndDateRange(@Param("productId") long productId, @Param("brandId") int brandId,
+                                               @Param("fromDate") Timestamp fromDate,
+                                               @Param("toDate") Timestamp toDate);
+
+    /**
+     * This method returns every Price of several products, with their Product.
+     *
+     * @param productIds Product code identifiers.
+     * @return List of the Prices of the products, or an empty list if none.
+     */
+    @Query("SELECT pr FROM Price pr JOIN FETCH pr.product p WHERE p.productId IN :productIds")
+    List<Price> findByProductIdsWithProduct(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * This method returns, with their Product, the Prices of several products applying at some point between two
+     * dates.
+     *
+     * @param productIds Product code identifiers.
+     * @param minDate First date and time to apply the product prices.
+     * @param maxDate Last date and time to apply the product prices.
+     * @return List of the Prices found, or an empty list if none.
+     */
+    @Query("SELECT pr FROM Price pr JOIN FETCH pr.product p " +
+            "WHERE p.productId IN :productIds AND pr.startDate <= :maxDate AND pr.endDate >= :minDate")
+    List<Price> findByProductIdsAndDateRange(@Param("productIds") Collection<Long> productIds,
+                                             @Param("minDate") Timestamp minDate, @Param("maxDate") Timestamp maxDate);
+
 }
@@ -1,5 +1,6 @@
 package com.inventory.ex.repository;
 
+import com.inventory.ex.dto.response.ProductPriceResponse;
 import com.inventory.ex.persistance.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,7 +18,9 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
-     * This method returns the product's price information for the specified date.
+     * This method returns the product's price information for the specified date, with every Price applying to it.
+     * The lookups resolve the winning Price with findProductPriceByDate instead, so this query is only kept for the
+     * callers needing the Product entity with its applicable Prices.
      *
      * @param productId Product code identifier.
      * @param brandId Product brand identifier.
@@ -28,4 +32,30 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByProductIdBrandIdAndPriceDate(@Param("productId") long productId,
                                                          @Param("brandId") int brandId, @Param("date") Timestamp date);
 
+    /**
+     * This method returns the product's price information for the specified date, selecting in the Data Base the
+     * Price with the highest priority. The row is projected straight into the response DTO, so no entity is loaded
+     * into the persistence context.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param date and time to apply the product price.
+     * @return Optional of ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    @Query("SELECT new com.inventory.ex.dto.response.ProductPriceResponse(" +
+            "p.productId, p.brandId, pr.priceId, pr.startDate, pr.endDate, pr.price, pr.currency) " +
+            "FROM Price pr JOIN pr.product p " +
+            "WHERE p.productId = :productId AND p.brandId = :brandId AND :date BETWEEN pr.startDate AND pr.endDate " +
+            "ORDER BY pr.priority DESC, pr.priceId LIMIT 1")
+    Optional<ProductPriceResponse> findProductPriceByDate(@Param("productId") long productId,
+                                                          @Param("brandId") int brandId, @Param("date") Timestamp date);
+
+    /**
+     * This method returns the brands of the stored Products.
+     *
+     * @return The distinct product brand identifiers.
+     */
+    @Query("SELECT DISTINCT p.brandId FROM Product p")
+    List<Integer> findBrandIds();
+
 }
@@ -0,0 +1,19 @@
+package com.inventory.ex.service;
+
+/**
+ * Exception thrown when a price request cannot be answered because of its own content, such as a currency without
+ * FX rates, a period ending before it starts or a batch too large, answered with a bad request status.
+ */
+public class InvalidPriceRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Builds the exception.
+     *
+     * @param message The reason why the request is not valid.
+     */
+    public InvalidPriceRequestException(String message) {
+        super(message);
+    }
+}
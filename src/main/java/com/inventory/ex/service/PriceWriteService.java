@@ -0,0 +1,331 @@
+package com.inventory.ex.service;
+
+import com.inventory.ex.dto.request.PriceWriteRequest;
+import com.inventory.ex.dto.response.PriceResponse;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This is the Service class creating, updating and ending the Prices.
+ * The writes of a product are serialised by one of a fixed number of striped locks, chosen by the product code
+ * identifier, so the writes of unrelated products run in parallel. A write is queued on its stripe before taking the
+ * lock, and the thread holding the lock commits every write queued meanwhile in the same transaction, so a burst of
+ * writes of the same products is grouped into a few batched transactions.
+ * Every committed change publishes a PriceChangedEvent through the JPA entity listeners, which discards the cached
+ * lookups of its product.
+ */
+@Slf4j
+@Service
+public class PriceWriteService {
+
+    /**
+     * Name of the distribution of the number of writes committed per transaction.
+     */
+    public static final String PRICE_WRITE_BATCH_SUMMARY = "inventory.price.write.batch";
+
+    /**
+     * The class storing and retrieving the Prices.
+     */
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /**
+     * The class retrieving the Products.
+     */
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * The template running every batch of writes in a transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The registry of the application metrics.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of striped locks serialising the writes of the products.
+     */
+    @Value("${inventory.price-write.lock-stripes:64}")
+    private int lockStripes;
+
+    /**
+     * Maximum number of writes committed in the same transaction.
+     */
+    @Value("${inventory.price-write.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * The stripes, each one with its lock and its queue of writes.
+     */
+    private Stripe[] stripes;
+
+    /**
+     * Distribution of the number of writes committed per transaction.
+     */
+    private DistributionSummary batchSummary;
+
+    /**
+     * This method creates the stripes and registers the metrics.
+     */
+    @PostConstruct
+    public void init() {
+
+        stripes = new Stripe[lockStripes];
+        for (int stripe = 0; stripe < lockStripes; stripe++) {
+            stripes[stripe] = new Stripe(new ReentrantLock(), new ConcurrentLinkedQueue<>());
+        }
+        batchSummary = DistributionSummary.builder(PRICE_WRITE_BATCH_SUMMARY)
+                .description("Number of price writes committed per transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * This method creates a Price of an existing product.
+     *
+     * @param priceWriteRequest The request object with the fields of the Price.
+     * @return An Optional of PriceResponse with the Price created, or an empty object if the product is not found.
+     * @throws IllegalArgumentException If the fields of the Price are not valid.
+     */
+    public Optional<PriceResponse> createPrice(PriceWriteRequest priceWriteRequest) {
+
+        validate(priceWriteRequest);
+        return write(priceWriteRequest.getProductId(), () -> productRepository
+                .findById(priceWriteRequest.getProductId())
+                .filter(product -> product.getBrandId() == priceWriteRequest.getBrandId())
+                .map(product -> {
+                    Price price = new Price();
+                    price.setProduct(product);
+                    apply(priceWriteRequest, price);
+                    return toPriceResponse(priceRepository.save(price));
+                }));
+    }
+
+    /**
+     * This method updates the fields of a Price, which must stay in the same product.
+     *
+     * @param priceId Applicable price schedule identifier.
+     * @param priceWriteRequest The request object with the new fields of the Price.
+     * @return An Optional of PriceResponse with the Price updated, or an empty object if not found.
+     * @throws IllegalArgumentException If the fields of the Price are not valid or its product is changed.
+     */
+    public Optional<PriceResponse> updatePrice(long priceId, PriceWriteRequest priceWriteRequest) {
+
+        validate(priceWriteRequest);
+        return write(priceWriteRequest.getProductId(), () -> priceRepository.findById(priceId)
+                .map(price -> {
+                    Product product = price.getProduct();
+                    if (product.getProductId() != priceWriteRequest.getProductId()
+                            || product.getBrandId() != priceWriteRequest.getBrandId()) {
+                        throw new IllegalArgumentException("The product of a price cannot be changed");
+                    }
+                    apply(priceWriteRequest, price);
+                    return toPriceResponse(priceRepository.save(price));
+                }));
+    }
+
+    /**
+     * This method ends a Price at the current date, so it no longer applies to the later dates. A Price not started
+     * yet is removed instead, and a Price already ended is not changed.
+     *
+     * @param priceId Applicable price schedule identifier.
+     * @return true if the Price was found.
+     */
+    public boolean endPrice(long priceId) {
+
+        // The product of a Price never changes, so it can be read before taking its lock
+        Optional<Price> found = priceRepository.findById(priceId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        return write(found.get().getProduct().getProductId(), () -> priceRepository.findById(priceId)
+                .map(price -> {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    if (price.getStartDate().after(now)) {
+                        priceRepository.delete(price);
+                    } else if (price.getEndDate().after(now)) {
+                        price.setEndDate(now);
+                        priceRepository.save(price);
+                    }
+                    return true;
+                })
+                .orElse(false));
+    }
+
+    /**
+     * Runs a write of a product under the lock of its stripe, in a transaction with the other writes queued on the
+     * stripe, and returns its result or throws its failure.
+     */
+    private <T> T write(long productId, Supplier<T> write) {
+
+        Stripe stripe = stripe(productId);
+        PendingWrite<T> pendingWrite = new PendingWrite<>(write);
+        stripe.pendingWrites().add(pendingWrite);
+
+        stripe.lock().lock();
+        try {
+            // The write may have been committed by the previous holder of the lock
+            while (!pendingWrite.done) {
+                List<PendingWrite<?>> batch = new ArrayList<>();
+                PendingWrite<?> next;
+                while (batch.size() < batchSize && (next = stripe.pendingWrites().poll()) != null) {
+                    batch.add(next);
+                }
+                commit(batch);
+            }
+        } finally {
+            stripe.lock().unlock();
+        }
+
+        if (pendingWrite.failure != null) {
+            throw pendingWrite.failure;
+        }
+        return pendingWrite.result;
+    }
+
+    /**
+     * This method returns the lock serialising the writes of a product, which is held while the writes queued on its
+     * stripe are committed.
+     *
+     * @param productId Product code identifier.
+     * @return The lock of the stripe of the product.
+     */
+    ReentrantLock lockOf(long productId) {
+        return stripe(productId).lock();
+    }
+
+    /**
+     * Returns the stripe of the writes of a product.
+     */
+    private Stripe stripe(long productId) {
+        return stripes[Math.floorMod(Long.hashCode(productId) * 0x9E3779B9, lockStripes)];
+    }
+
+    /**
+     * Runs a batch of writes in one transaction. When the transaction fails, every write is run again in its own
+     * transaction, so only the failing ones fail.
+     */
+    private void commit(List<PendingWrite<?>> batch) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(PendingWrite::run));
+            batch.forEach(pendingWrite -> pendingWrite.done = true);
+            batchSummary.record(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).failure = e;
+                batch.get(0).done = true;
+                return;
+            }
+            log.debug("Batch of {} price writes rolled back, committing them one by one", batch.size(), e);
+            batch.forEach(pendingWrite -> commit(List.of(pendingWrite)));
+        }
+    }
+
+    /**
+     * Rejects the Prices without dates, ending before their start or without a currency.
+     */
+    private static void validate(PriceWriteRequest priceWriteRequest) {
+
+        if (priceWriteRequest.getStartDate() == null || priceWriteRequest.getEndDate() == null) {
+            throw new IllegalArgumentException("The start date and the end date of a price are required");
+        }
+        if (priceWriteRequest.getEndDate().before(priceWriteRequest.getStartDate())) {
+            throw new IllegalArgumentException("The end date of a price cannot be before its start date");
+        }
+        if (priceWriteRequest.getCurrency() == null || priceWriteRequest.getCurrency().isBlank()) {
+            throw new IllegalArgumentException("The currency of a price is required");
+        }
+    }
+
+    /**
+     * Sets the fields of a request in a Price.
+     */
+    private static void apply(PriceWriteRequest priceWriteRequest, Price price) {
+
+        price.setStartDate(priceWriteRequest.getStartDate());
+        price.setEndDate(priceWriteRequest.getEndDate());
+        price.setPriority(priceWriteRequest.getPriority());
+        price.setPrice(priceWriteRequest.getPrice());
+        price.setCurrency(priceWriteRequest.getCurrency());
+    }
+
+    /**
+     * Maps a Price into a PriceResponse DTO.
+     */
+    private static PriceResponse toPriceResponse(Price price) {
+        return new PriceResponse(price.getPriceId(), price.getProduct().getProductId(),
+                price.getProduct().getBrandId(), price.getStartDate(), price.getEndDate(), price.getPriority(),
+                price.getPrice(), price.getCurrency());
+    }
+
+    /**
+     * Lock of a stripe, with the writes waiting to be committed.
+     *
+     * @param lock The lock held while committing the writes of the stripe.
+     * @param pendingWrites The writes queued on the stripe.
+     */
+    private record Stripe(ReentrantLock lock, Queue<PendingWrite<?>> pendingWrites) {
+    }
+
+    /**
+     * A write waiting in the queue of a stripe, and its outcome once committed. The outcome is only read and written
+     * under the lock of the stripe.
+     */
+    private static final class PendingWrite<T> {
+
+        /**
+         * The changes to make in the transaction.
+         */
+        private final Supplier<T> write;
+
+        /**
+         * The result of the write, valid once done.
+         */
+        private T result;
+
+        /**
+         * The failure of the write, if it failed.
+         */
+        private RuntimeException failure;
+
+        /**
+         * Whether the transaction of the write has ended.
+         */
+        private boolean done;
+
+        private PendingWrite(Supplier<T> write) {
+            this.write = write;
+        }
+
+        /**
+         * Makes the changes, which are only kept if the transaction commits.
+         */
+        private void run() {
+            result = write.get();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventory.ex.service;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.PriceTimelineResponse;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.fx.FxRateTable;
+import com.inventory.ex.index.PriceSegment;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.snapshot.PriceSnapshot;
+
+import java.sql.Timestamp;
+
+import java.util.Optional;
+
+/**
+ * Mapping of the resolved Prices into ProductPriceResponse and PriceTimelineResponse DTOs, and conversion of their
+ * prices to another currency.
+ */
+public final class ProductPriceMapper {
+
+    private ProductPriceMapper() {
+    }
+
+    /**
+     * This method sets the values of an effective Price over a period in a PriceTimelineResponse DTO.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param effectiveFrom First instant on which the Price is effective, in epoch milliseconds, inclusive.
+     * @param effectiveUntil Last instant on which the Price is effective, in epoch milliseconds, exclusive.
+     * @param price The effective Price.
+     * @return The PriceTimelineResponse with the effective Product price information.
+     */
+    public static PriceTimelineResponse toPriceTimelineResponse(long productId, int brandId, long effectiveFrom,
+                                                                long effectiveUntil, Price price) {
+
+        return new PriceTimelineResponse(productId, brandId, new Timestamp(effectiveFrom),
+                new Timestamp(effectiveUntil - 1), price.getPriceId(), price.getStartDate(), price.getEndDate(),
+                price.getPrice(), price.getCurrency());
+    }
+
+    /**
+     * This method sets the values of the applicable Price in a ProductPriceResponse DTO.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param price The applicable Price.
+     * @return The ProductPriceResponse with the Product price information.
+     */
+    public static ProductPriceResponse toProductPriceResponse(long productId, int brandId, Price price) {
+
+        ProductPriceResponse productPriceResponse = new ProductPriceResponse();
+        productPriceResponse.setProductId(productId);
+        productPriceResponse.setBrandId(brandId);
+        productPriceResponse.setPriceList(price.getPriceId());
+        productPriceResponse.setPrice(price.getPrice());
+        productPriceResponse.setStartDate(price.getStartDate());
+        productPriceResponse.setEndDate(price.getEndDate());
+        productPriceResponse.setCurrency(price.getCurrency());
+        return productPriceResponse;
+    }
+
+    /**
+     * This method sets the values of the resolved segment in a ProductPriceResponse DTO.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @param segment Optional of the PriceSegment containing the requested date.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    public static ProductPriceResponse toProductPriceResponse(ProductPriceRequest productPriceRequest,
+                                                              Optional<PriceSegment> segment) {
+
+        return segment
+                .map(found -> toProductPriceResponse(productPriceRequest.getProductId(),
+                        productPriceRequest.getBrandId(), found.price()))
+                .orElseGet(ProductPriceResponse::new);
+    }
+
+    /**
+     * This method sets the values of a row of the price snapshot in a ProductPriceResponse DTO.
+     *
+     * @param snapshot The PriceSnapshot.
+     * @param row The position of the row, or PriceSnapshot.NOT_FOUND.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    public static ProductPriceResponse toProductPriceResponse(PriceSnapshot snapshot, int row) {
+
+        if (row == PriceSnapshot.NOT_FOUND) {
+            return new ProductPriceResponse();
+        }
+        return new ProductPriceResponse(snapshot.productId(row), snapshot.brandId(row), snapshot.priceId(row),
+                new Timestamp(snapshot.startDate(row)), new Timestamp(snapshot.endDate(row)), snapshot.price(row),
+                snapshot.currency(row));
+    }
+
+    /**
+     * This method sets the values of a segment of the price store in a ProductPriceResponse DTO.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @param priceStore The PriceStore.
+     * @param segment The position of the segment containing the requested date, or PriceStore.NOT_FOUND.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    public static ProductPriceResponse toProductPriceResponse(ProductPriceRequest productPriceRequest,
+                                                              PriceStore priceStore, int segment) {
+
+        if (segment == PriceStore.NOT_FOUND) {
+            return new ProductPriceResponse();
+        }
+        return new ProductPriceResponse(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                priceStore.priceId(segment), new Timestamp(priceStore.startDate(segment)),
+                new Timestamp(priceStore.endDate(segment)), priceStore.price(segment),
+                priceStore.currency(segment));
+    }
+
+    /**
+     * This method returns the position of the currency requested in the FX rates.
+     *
+     * @param fxRateTable The FX rates to convert with, the same for every price of a request.
+     * @param currency The currency code requested.
+     * @return The position in the table of the currency.
+     * @throws InvalidPriceRequestException If there is no FX rate for the currency.
+     */
+    public static int requestedCurrency(FxRateTable fxRateTable, String currency) {
+
+        int position = fxRateTable.position(currency);
+        if (position == FxRateTable.NOT_FOUND) {
+            throw new InvalidPriceRequestException("No FX rate for the currency " + currency);
+        }
+        return position;
+    }
+
+    /**
+     * This method converts the price of a ProductPriceResponse DTO to another currency, in place. The empty objects
+     * of the requests not found are not changed.
+     *
+     * @param productPriceResponse The ProductPriceResponse with the price to convert.
+     * @param fxRateTable The FX rates to convert with, the same for every price of a request.
+     * @param currency The position in the table of the currency to convert the price to.
+     * @return The same ProductPriceResponse.
+     * @throws IllegalArgumentException If the currency of the price is not in the table.
+     */
+    public static ProductPriceResponse toCurrency(ProductPriceResponse productPriceResponse, FxRateTable fxRateTable,
+                                                  int currency) {
+
+        if (productPriceResponse.getCurrency() != null) {
+            productPriceResponse.setPrice(fxRateTable.convert(productPriceResponse.getPrice(),
+                    fxRateTable.requirePosition(productPriceResponse.getCurrency()), currency));
+            productPriceResponse.setCurrency(fxRateTable.currency(currency));
+        }
+        return productPriceResponse;
+    }
+
+    /**
+     * This method converts the price of a PriceTimelineResponse DTO to another currency, in place.
+     *
+     * @param priceTimelineResponse The PriceTimelineResponse with the price to convert.
+     * @param fxRateTable The FX rates to convert with, the same for every price of a request.
+     * @param currency The position in the table of the currency to convert the price to.
+     * @return The same PriceTimelineResponse.
+     * @throws IllegalArgumentException If the currency of the price is not in the table.
+     */
+    public static PriceTimelineResponse toCurrency(PriceTimelineResponse priceTimelineResponse,
+                                                   FxRateTable fxRateTable, int currency) {
+
+        priceTimelineResponse.setPrice(fxRateTable.convert(priceTimelineResponse.getPrice(),
+                fxRateTable.requirePosition(priceTimelineResponse.getCurrency()), currency));
+        priceTimelineResponse.setCurrency(fxRateTable.currency(currency));
+        return priceTimelineResponse;
+    }
+}
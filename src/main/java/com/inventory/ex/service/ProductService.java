@@ -1,15 +1,50 @@
 package com.inventory.ex.service;
 
+import com.inventory.ex.cache.PriceLookupCache;
+import com.inventory.ex.config.MetricsConfiguration;
+import com.inventory.ex.dto.request.PriceTimelineRequest;
 import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.PriceTimelineResponse;
 import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.dto.response.ProductPriceValidity;
+import com.inventory.ex.fx.FxRateStore;
+import com.inventory.ex.fx.FxRateTable;
+import com.inventory.ex.index.PriceIndex;
+import com.inventory.ex.index.PriceSegment;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.index.PriceTimelineCompiler;
+import com.inventory.ex.index.ProductKey;
 import com.inventory.ex.persistance.Price;
-import com.inventory.ex.persistance.Product;
+import com.inventory.ex.repository.PriceRepository;
 import com.inventory.ex.repository.ProductRepository;
+import com.inventory.ex.shard.PriceShards;
+import com.inventory.ex.snapshot.PriceSnapshot;
+import com.inventory.ex.snapshot.PriceSnapshotStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.inventory.ex.index.PriceTimelineCompiler.PRECEDENCE;
+import static com.inventory.ex.service.ProductPriceMapper.requestedCurrency;
+import static com.inventory.ex.service.ProductPriceMapper.toCurrency;
+import static com.inventory.ex.service.ProductPriceMapper.toPriceTimelineResponse;
+import static com.inventory.ex.service.ProductPriceMapper.toProductPriceResponse;
 
 /**
  * This is the Service class supporting the Product endpoint.
@@ -17,41 +52,407 @@ import java.util.Optional;
 @Service
 public class ProductService {
 
+    /**
+     * Maximum number of requests of a batch whose Prices are retrieved with the same query.
+     */
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    /**
+     * Maximum time between the first and last dates of the requests whose Prices are retrieved with the same query.
+     */
+    private static final long MAX_QUERY_SPAN = Duration.ofDays(1).toMillis();
+
     /**
      * The class retrieving the information from the Data Base.
      */
     @Autowired
     private ProductRepository productRepository;
 
+    /**
+     * The class retrieving the Prices of several products from the Data Base.
+     */
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /**
+     * The persistence context of the Prices streamed.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The in-memory index of Prices, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceIndex priceIndex;
+
+    /**
+     * The memory-mapped snapshot of Prices, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceSnapshotStore priceSnapshotStore;
+
+    /**
+     * The cache of the resolved Prices of the most requested products, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceLookupCache priceLookupCache;
+
+    /**
+     * The shards running the lookups, only available when enabled.
+     */
+    @Autowired(required = false)
+    private PriceShards priceShards;
+
+    /**
+     * The FX rates converting the prices to the requested currencies.
+     */
+    @Autowired
+    private FxRateStore fxRateStore;
+
     /**
      * This method returns the product's price information for the specified date.
      *
      * @param productPriceRequest The request object with the required parameters.
      * @return An Optional of ProductPriceResponse with the Product price information, or an empty object if not found.
+     * @throws InvalidPriceRequestException If there is no FX rate for the requested currency.
+     * @throws IllegalArgumentException If there is no FX rate for the currency of the price.
      */
+    @Timed(value = MetricsConfiguration.PRICE_RESOLUTION_TIMER, extraTags = {"operation", "single"}, histogram = true)
     public Optional<ProductPriceResponse> getProductPricesByDate(ProductPriceRequest productPriceRequest){
 
-        Optional<Product> optionalProduct =
-                productRepository.findByProductIdBrandIdAndPriceDate(productPriceRequest.getProductId(),
-                        productPriceRequest.getBrandId(), productPriceRequest.getApplicationDate());
-        ProductPriceResponse productPriceResponse = new ProductPriceResponse();
+        if(productPriceRequest.getCurrency() == null){
+            return Optional.of(resolveProductPrice(productPriceRequest));
+        }
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int currency = requestedCurrency(fxRateTable, productPriceRequest.getCurrency());
+        return Optional.of(toCurrency(resolveProductPrice(productPriceRequest), fxRateTable, currency));
+    }
 
-        if(optionalProduct.isPresent()){
-            Product product = optionalProduct.get();
-            // Set the values in ProductPriceResponse DTO
-            productPriceResponse.setProductId(product.getProductId());
-            productPriceResponse.setBrandId(product.getBrandId());
+    /**
+     * This method returns the price information of several products, each one for its own date.
+     * On the Data Base path the candidate Prices of the requests of close dates are retrieved with a single query,
+     * and the prices requested in another currency are converted with the same FX rates.
+     *
+     * @param productPriceRequests The request objects with the required parameters.
+     * @return The ProductPriceResponses in the same order as the requests, with an empty object for every request
+     * not found.
+     * @throws InvalidPriceRequestException If there is no FX rate for a requested currency.
+     * @throws IllegalArgumentException If there is no FX rate for the currency of a price.
+     */
+    @Timed(value = MetricsConfiguration.PRICE_RESOLUTION_TIMER, extraTags = {"operation", "batch"}, histogram = true)
+    public List<ProductPriceResponse> getProductPricesByDates(List<ProductPriceRequest> productPriceRequests){
+
+        if(productPriceRequests.stream().allMatch(request -> request.getCurrency() == null)){
+            return resolveProductPrices(productPriceRequests);
+        }
 
-            // In case we have more than 1 Price, get the price with the highest priority
-            Optional<Price> optionalPrice = product.getPrices().stream()
-                    .max(Comparator.comparingInt(Price::getPriority));
+        // The rates are read once, so every price of the batch is converted with the same ones
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int[] currencies = productPriceRequests.stream()
+                .mapToInt(request -> request.getCurrency() == null
+                        ? FxRateTable.NOT_FOUND : requestedCurrency(fxRateTable, request.getCurrency()))
+                .toArray();
+        List<ProductPriceResponse> productPriceResponses = resolveProductPrices(productPriceRequests);
+        for(int i = 0; i < currencies.length; i++){
+            if(currencies[i] != FxRateTable.NOT_FOUND){
+                toCurrency(productPriceResponses.get(i), fxRateTable, currencies[i]);
+            }
+        }
+        return productPriceResponses;
+    }
+
+    /**
+     * This method returns the product's price information for the specified date, together with the period around
+     * the date in which the same information applies, so the answer can be reused for any date of the period.
+     * The period is the segment of the price timeline of the product, from the in-memory index when enabled, or
+     * otherwise resolved from the Prices of the product.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceValidity with the Product price information, or an empty object if not found.
+     * @throws InvalidPriceRequestException If there is no FX rate for the requested currency.
+     * @throws IllegalArgumentException If there is no FX rate for the currency of the price.
+     */
+    @Timed(value = MetricsConfiguration.PRICE_RESOLUTION_TIMER, extraTags = {"operation", "segment"}, histogram = true)
+    public ProductPriceValidity getProductPriceValidity(ProductPriceRequest productPriceRequest){
+
+        if(productPriceRequest.getCurrency() == null){
+            return resolveProductPriceValidity(productPriceRequest);
+        }
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int currency = requestedCurrency(fxRateTable, productPriceRequest.getCurrency());
+        ProductPriceValidity productPriceValidity = resolveProductPriceValidity(productPriceRequest);
+        toCurrency(productPriceValidity.getProductPriceResponse(), fxRateTable, currency);
+        return productPriceValidity;
+    }
+
+    /**
+     * This method streams the effective prices of a product over a period, as the ordered segments of its timeline
+     * in which the same Price applies, with the priorities resolved as for a single date.
+     * The Prices overlapping the period are read with one range query, ordered by start date, and the segments are
+     * passed to the consumer as soon as they are compiled, so the whole timeline is never held in memory.
+     *
+     * @param priceTimelineRequest The request object with the product and the period.
+     * @param segmentConsumer The consumer of the segments, in date order, limited to the period.
+     * @throws InvalidPriceRequestException If the request is not valid.
+     * @throws IllegalArgumentException If there is no FX rate for the currency of a price.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfiguration.PRICE_RESOLUTION_TIMER, extraTags = {"operation", "timeline"}, histogram = true)
+    public void streamPriceTimeline(PriceTimelineRequest priceTimelineRequest,
+                                    Consumer<PriceTimelineResponse> segmentConsumer){
 
-            productPriceResponse.setPriceList(optionalPrice.isPresent() ? optionalPrice.get().getPriceId() : 0);
-            productPriceResponse.setPrice(optionalPrice.isPresent() ? optionalPrice.get().getPrice() : 0.0);
-            productPriceResponse.setStartDate(optionalPrice.isPresent() ? optionalPrice.get().getStartDate() : null);
-            productPriceResponse.setEndDate(optionalPrice.isPresent() ? optionalPrice.get().getEndDate() : null);
+        validate(priceTimelineRequest);
+        long productId = priceTimelineRequest.getProductId();
+        int brandId = priceTimelineRequest.getBrandId();
+        long from = priceTimelineRequest.getFromDate().getTime();
+        long until = priceTimelineRequest.getToDate().getTime() + 1;
+        // The rates are read once, so every segment is converted with the same ones
+        FxRateTable fxRateTable = fxRateStore.getRateTable();
+        int currency = priceTimelineRequest.getCurrency() == null
+                ? FxRateTable.NOT_FOUND : requestedCurrency(fxRateTable, priceTimelineRequest.getCurrency());
+
+        try (Stream<Price> prices = priceRepository.streamByProductIdAndDateRange(productId, brandId,
+                priceTimelineRequest.getFromDate(), priceTimelineRequest.getToDate())) {
+
+            // The Prices are fully loaded, so they are detached to keep the persistence context small
+            PriceTimelineCompiler.compile(prices.peek(entityManager::detach).iterator(), segment -> {
+                long effectiveFrom = Math.max(segment.validFrom(), from);
+                long effectiveUntil = Math.min(segment.validUntil(), until);
+                if(effectiveFrom < effectiveUntil){
+                    PriceTimelineResponse priceTimelineResponse = toPriceTimelineResponse(productId, brandId,
+                            effectiveFrom, effectiveUntil, segment.price());
+                    segmentConsumer.accept(currency == FxRateTable.NOT_FOUND
+                            ? priceTimelineResponse : toCurrency(priceTimelineResponse, fxRateTable, currency));
+                }
+            });
+        }
+    }
+
+    /**
+     * This method validates a request of the effective prices of a product over a period, so it can be rejected
+     * before any segment is streamed.
+     *
+     * @param priceTimelineRequest The request object with the product and the period.
+     * @throws InvalidPriceRequestException If a date of the period is missing, the period ends before it starts, or
+     * there is no FX rate for the requested currency.
+     */
+    public void validate(PriceTimelineRequest priceTimelineRequest){
+
+        if(priceTimelineRequest.getFromDate() == null || priceTimelineRequest.getToDate() == null){
+            throw new InvalidPriceRequestException(
+                    "The period of a price timeline requires a from date and a to date");
+        }
+        if(priceTimelineRequest.getToDate().before(priceTimelineRequest.getFromDate())){
+            throw new InvalidPriceRequestException("The to date of a price timeline cannot be before its from date");
+        }
+        if(priceTimelineRequest.getCurrency() != null){
+            requestedCurrency(fxRateStore.getRateTable(), priceTimelineRequest.getCurrency());
+        }
+    }
+
+    /**
+     * This method resolves the product's price information for the specified date, in the currency of the Price, in
+     * the shard of the product when the lookups are sharded.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    private ProductPriceResponse resolveProductPrice(ProductPriceRequest productPriceRequest){
+
+        if(priceShards == null){
+            return lookupProductPrice(productPriceRequest);
+        }
+        return priceShards.execute(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                () -> lookupProductPrice(productPriceRequest));
+    }
+
+    /**
+     * This method resolves the price information of several products, each one for its own date, in the currency of
+     * the Prices. When the lookups are sharded, the requests of every shard are resolved together in their shard.
+     *
+     * @param productPriceRequests The request objects with the required parameters.
+     * @return The ProductPriceResponses in the same order as the requests, with an empty object for every request
+     * not found.
+     */
+    private List<ProductPriceResponse> resolveProductPrices(List<ProductPriceRequest> productPriceRequests){
+
+        if(priceShards == null){
+            return lookupProductPrices(productPriceRequests);
+        }
+        return priceShards.executeAll(productPriceRequests, ProductPriceRequest::getProductId,
+                ProductPriceRequest::getBrandId, this::lookupProductPrices);
+    }
+
+    /**
+     * This method resolves the product's price information for the specified date and the period in which it
+     * applies, in the currency of the Price, in the shard of the product when the lookups are sharded.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceValidity with the Product price information, or an empty object if not found.
+     */
+    private ProductPriceValidity resolveProductPriceValidity(ProductPriceRequest productPriceRequest){
+
+        if(priceShards == null){
+            return lookupProductPriceValidity(productPriceRequest);
+        }
+        return priceShards.execute(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                () -> lookupProductPriceValidity(productPriceRequest));
+    }
+
+    /**
+     * This method looks up the product's price information for the specified date, in the currency of the Price.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    private ProductPriceResponse lookupProductPrice(ProductPriceRequest productPriceRequest){
+
+        if(priceIndex != null || priceSnapshotStore != null){
+            return getProductPricesInMemory(productPriceRequest);
+        }
+        if(priceLookupCache != null){
+            if(productPriceRequest.getApplicationDate() == null){
+                return new ProductPriceResponse();
+            }
+            return toProductPriceResponse(productPriceRequest,
+                    priceLookupCache.findSegment(productPriceRequest.getProductId(), productPriceRequest.getBrandId(),
+                            productPriceRequest.getApplicationDate().getTime()));
+        }
+
+        // The Price with the highest priority is selected by the Data Base
+        return productRepository.findProductPriceByDate(productPriceRequest.getProductId(),
+                        productPriceRequest.getBrandId(), productPriceRequest.getApplicationDate())
+                .orElseGet(ProductPriceResponse::new);
+    }
+
+    /**
+     * This method looks up the product's price information for the specified date and the segment of the price
+     * timeline containing the date, in the currency of the Price. The price snapshot does not keep the segments, so
+     * they are resolved from the Data Base when only the snapshot is enabled.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceValidity with the Product price information, or an empty object if not found.
+     */
+    private ProductPriceValidity lookupProductPriceValidity(ProductPriceRequest productPriceRequest){
+
+        long productId = productPriceRequest.getProductId();
+        int brandId = productPriceRequest.getBrandId();
+        long date = productPriceRequest.getApplicationDate().getTime();
+        if(priceIndex != null){
+            PriceStore priceStore = priceIndex.getPriceStore();
+            int segment = priceStore.findSegment(productId, brandId, date);
+            return segment == PriceStore.NOT_FOUND
+                    ? new ProductPriceValidity(new ProductPriceResponse(), date, date)
+                    : new ProductPriceValidity(toProductPriceResponse(productPriceRequest, priceStore, segment),
+                            priceStore.validFrom(segment), priceStore.validUntil(segment));
+        }
+
+        Optional<PriceSegment> segment = priceLookupCache != null
+                ? priceLookupCache.findSegment(productId, brandId, date)
+                : PriceTimelineCompiler.compile(priceRepository.findByProductIdAndBrandId(productId, brandId))
+                        .findSegment(date);
+        return segment
+                .map(found -> new ProductPriceValidity(toProductPriceResponse(productPriceRequest, segment),
+                        found.validFrom(), found.validUntil()))
+                .orElseGet(() -> new ProductPriceValidity(new ProductPriceResponse(), date, date));
+    }
+
+    /**
+     * This method looks up the price information of several products, each one for its own date, in the currency of
+     * the Prices. On the Data Base path the requests are sorted by date and split into clusters of close dates, and
+     * every candidate Price of a cluster is retrieved with a single query, so distant dates do not fetch every Price
+     * applying between them.
+     *
+     * @param productPriceRequests The request objects with the required parameters.
+     * @return The ProductPriceResponses in the same order as the requests, with an empty object for every request
+     * not found.
+     */
+    private List<ProductPriceResponse> lookupProductPrices(List<ProductPriceRequest> productPriceRequests){
+
+        if(priceIndex != null || priceSnapshotStore != null){
+            return productPriceRequests.stream()
+                    .map(this::getProductPricesInMemory)
+                    .toList();
+        }
+
+        ProductPriceResponse[] productPriceResponses = new ProductPriceResponse[productPriceRequests.size()];
+        Arrays.setAll(productPriceResponses, i -> new ProductPriceResponse());
+        Integer[] byDate = IntStream.range(0, productPriceRequests.size())
+                .filter(i -> productPriceRequests.get(i).getApplicationDate() != null)
+                .boxed()
+                .sorted(Comparator.comparing(i -> productPriceRequests.get(i).getApplicationDate()))
+                .toArray(Integer[]::new);
+
+        int clusterStart = 0;
+        for(int i = 1; i <= byDate.length; i++){
+            if(i == byDate.length || i - clusterStart == QUERY_CHUNK_SIZE
+                    || productPriceRequests.get(byDate[i]).getApplicationDate().getTime()
+                    - productPriceRequests.get(byDate[clusterStart]).getApplicationDate().getTime() > MAX_QUERY_SPAN){
+                lookupProductPrices(productPriceRequests, Arrays.asList(byDate).subList(clusterStart, i),
+                        productPriceResponses);
+                clusterStart = i;
+            }
+        }
+
+        return Arrays.asList(productPriceResponses);
+    }
+
+    /**
+     * This method looks up with a single query the price information of a cluster of requests sorted by date.
+     *
+     * @param productPriceRequests The request objects with the required parameters.
+     * @param cluster The positions of the requests of the cluster, sorted by date.
+     * @param productPriceResponses The responses, set at the positions of the requests found.
+     */
+    private void lookupProductPrices(List<ProductPriceRequest> productPriceRequests, List<Integer> cluster,
+                                     ProductPriceResponse[] productPriceResponses){
+
+        // Retrieve at once every Price of the requested products applying between the first and last dates
+        Collection<Long> productIds = cluster.stream()
+                .map(i -> productPriceRequests.get(i).getProductId())
+                .collect(Collectors.toSet());
+        Timestamp minDate = productPriceRequests.get(cluster.get(0)).getApplicationDate();
+        Timestamp maxDate = productPriceRequests.get(cluster.get(cluster.size() - 1)).getApplicationDate();
+
+        Map<ProductKey, List<Price>> pricesByProduct =
+                priceRepository.findByProductIdsAndDateRange(productIds, minDate, maxDate).stream()
+                        .collect(Collectors.groupingBy(price -> new ProductKey(price.getProduct().getProductId(),
+                                price.getProduct().getBrandId())));
+
+        for(int i : cluster){
+            ProductPriceRequest request = productPriceRequests.get(i);
+            Timestamp date = request.getApplicationDate();
+            pricesByProduct.getOrDefault(new ProductKey(request.getProductId(), request.getBrandId()), List.of())
+                    .stream()
+                    .filter(price -> !date.before(price.getStartDate()) && !date.after(price.getEndDate()))
+                    .min(PRECEDENCE)
+                    .ifPresent(price -> productPriceResponses[i] =
+                            toProductPriceResponse(request.getProductId(), request.getBrandId(), price));
+        }
+    }
+
+    /**
+     * This method resolves the product's price information for the specified date with the in-memory index, or
+     * with the price snapshot when the index is not enabled.
+     *
+     * @param productPriceRequest The request object with the required parameters.
+     * @return The ProductPriceResponse with the Product price information, or an empty object if not found.
+     */
+    private ProductPriceResponse getProductPricesInMemory(ProductPriceRequest productPriceRequest){
+
+        if(productPriceRequest.getApplicationDate() == null){
+            return new ProductPriceResponse();
+        }
+        long date = productPriceRequest.getApplicationDate().getTime();
+        if(priceIndex != null){
+            PriceStore priceStore = priceIndex.getPriceStore();
+            return toProductPriceResponse(productPriceRequest, priceStore,
+                    priceStore.findSegment(productPriceRequest.getProductId(), productPriceRequest.getBrandId(), date));
         }
 
-        return Optional.of(productPriceResponse);
+        PriceSnapshot snapshot = priceSnapshotStore.getSnapshot();
+        return toProductPriceResponse(snapshot,
+                snapshot.findRow(productPriceRequest.getProductId(), productPriceRequest.getBrandId(), date));
     }
 }
@@ -0,0 +1,19 @@
+package com.inventory.ex.shard;
+
+/**
+ * Exception thrown when a price lookup is rejected by the shards, because the queue of its shard is full or its brand
+ * already has as many lookups in flight as its bulkhead allows.
+ */
+public class PriceShardRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Builds the exception.
+     *
+     * @param message The reason of the rejection.
+     */
+    public PriceShardRejectedException(String message) {
+        super(message);
+    }
+}
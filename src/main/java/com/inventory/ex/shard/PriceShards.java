@@ -0,0 +1,418 @@
+package com.inventory.ex.shard;
+
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import com.inventory.ex.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Shards running the price lookups, each one with its own threads and its own bounded queue, so the lookups of
+ * unrelated products never wait for each other beyond their shard. A product is always resolved by the shard chosen by
+ * the hash of its product and brand identifiers.
+ * Every brand has a bulkhead, a limit of lookups in flight across all the shards, so the bulk traffic of a brand
+ * waits for its own lookups, and is rejected when it waits too long, while the other brands keep their threads and
+ * their connections. The bulkheads are created for the brands of the stored Products, at startup and after a bulk
+ * change of the catalog, and the lookups of any other brand share a single bulkhead, so the clients cannot create
+ * bulkheads and metrics at will. A lookup rejected by a full queue or a full bulkhead throws a PriceShardRejectedException.
+ * The queue size, the active threads, the lookup time and the rejections are recorded per shard, and the rejections
+ * of the bulkheads per brand.
+ * Enabled with the property inventory.price-shards.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.price-shards.enabled", havingValue = "true")
+public class PriceShards {
+
+    /**
+     * Name of the timer of the lookups run by every shard.
+     */
+    public static final String PRICE_SHARD_TIMER = "inventory.price.shard.lookups";
+
+    /**
+     * Name of the gauge of the lookups queued in every shard.
+     */
+    public static final String PRICE_SHARD_QUEUE_GAUGE = "inventory.price.shard.queue";
+
+    /**
+     * Name of the gauge of the threads running a lookup in every shard.
+     */
+    public static final String PRICE_SHARD_ACTIVE_GAUGE = "inventory.price.shard.active";
+
+    /**
+     * Name of the counter of the lookups rejected by a full queue of every shard.
+     */
+    public static final String PRICE_SHARD_REJECTED_COUNTER = "inventory.price.shard.rejected";
+
+    /**
+     * Name of the counter of the lookups rejected by the bulkhead of every brand.
+     */
+    public static final String PRICE_BULKHEAD_REJECTED_COUNTER = "inventory.price.bulkhead.rejected";
+
+    /**
+     * Tag of the bulkhead shared by the brands without any stored Product.
+     */
+    public static final String OTHER_BRANDS = "other";
+
+    /**
+     * The class retrieving the brands of the stored Products.
+     */
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * The registry of the application metrics.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of shards, 0 for the number of processors.
+     */
+    @Value("${inventory.price-shards.count:0}")
+    private int shardCount;
+
+    /**
+     * Number of threads of every shard.
+     */
+    @Value("${inventory.price-shards.threads-per-shard:1}")
+    private int threadsPerShard;
+
+    /**
+     * Maximum number of lookups waiting in the queue of every shard.
+     */
+    @Value("${inventory.price-shards.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * Maximum number of lookups of a brand in flight across all the shards, 0 for half of the threads of the shards.
+     */
+    @Value("${inventory.price-shards.brand-concurrency:0}")
+    private int brandConcurrency;
+
+    /**
+     * Maximum time a lookup waits for the bulkhead of its brand before being rejected.
+     */
+    @Value("${inventory.price-shards.brand-wait:100ms}")
+    private Duration brandWait;
+
+    /**
+     * The shards.
+     */
+    private Shard[] shards;
+
+    /**
+     * The bulkhead of every brand of the stored Products.
+     */
+    private final Map<Integer, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * The bulkhead shared by the brands without any stored Product.
+     */
+    private Bulkhead otherBrands;
+
+    /**
+     * This method starts the threads of the shards and registers their metrics.
+     */
+    @PostConstruct
+    public void start() {
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        if (brandConcurrency <= 0) {
+            brandConcurrency = Math.max(1, count * threadsPerShard / 2);
+        }
+        shards = new Shard[count];
+        for (int shard = 0; shard < count; shard++) {
+            shards[shard] = newShard(shard);
+        }
+        otherBrands = createBulkhead(OTHER_BRANDS);
+        loadBrands();
+        log.info("Price lookups sharded in {} shards of {} threads, with up to {} lookups in flight per brand", count,
+                threadsPerShard, brandConcurrency);
+    }
+
+    /**
+     * This method stops the threads of the shards.
+     */
+    @PreDestroy
+    public void stop() {
+        Arrays.stream(shards).forEach(shard -> shard.executor().shutdownNow());
+    }
+
+    /**
+     * This method creates the bulkheads of the brands added by a bulk change of the catalog.
+     *
+     * @param catalogChangedEvent The event with the number of Prices changed.
+     */
+    @EventListener
+    public void catalogChanged(CatalogChangedEvent catalogChangedEvent) {
+        loadBrands();
+    }
+
+    /**
+     * This method runs the lookup of a product in its shard, within the bulkhead of its brand, and waits for its result.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param lookup The lookup of the product.
+     * @param <T> The type of the result of the lookup.
+     * @return The result of the lookup.
+     * @throws PriceShardRejectedException If the shard queue or the brand bulkhead is full.
+     */
+    public <T> T execute(long productId, int brandId, Supplier<T> lookup) {
+        return await(submit(shards[shardOf(productId, brandId)], new int[]{brandId}, lookup));
+    }
+
+    /**
+     * This method runs the lookups of several products, each one in its shard, and waits for their results. The
+     * requests of the same shard are resolved together by a single lookup, which holds a permit of the bulkhead of
+     * every brand among them. When a lookup is rejected or fails, the lookups of the other shards are cancelled.
+     *
+     * @param requests The requests of the products.
+     * @param productId The product code identifier of a request.
+     * @param brandId The product brand identifier of a request.
+     * @param lookup The lookup of a list of requests, returning their results in the same order.
+     * @param <R> The type of the requests.
+     * @param <T> The type of the results.
+     * @return The results in the same order as the requests.
+     * @throws PriceShardRejectedException If a shard queue or a brand bulkhead is full.
+     */
+    public <R, T> List<T> executeAll(List<R> requests, ToLongFunction<R> productId, ToIntFunction<R> brandId,
+                                     Function<List<R>, List<T>> lookup) {
+
+        List<List<Integer>> positionsByShard = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            positionsByShard.add(new ArrayList<>());
+        }
+        for (int position = 0; position < requests.size(); position++) {
+            R request = requests.get(position);
+            positionsByShard.get(shardOf(productId.applyAsLong(request), brandId.applyAsInt(request))).add(position);
+        }
+
+        List<Future<List<T>>> futures = new ArrayList<>(shards.length);
+        try {
+            for (int shard = 0; shard < shards.length; shard++) {
+                List<R> shardRequests = positionsByShard.get(shard).stream().map(requests::get).toList();
+                int[] brandIds = shardRequests.stream().mapToInt(brandId).distinct().sorted().toArray();
+                futures.add(shardRequests.isEmpty()
+                        ? null : submit(shards[shard], brandIds, () -> lookup.apply(shardRequests)));
+            }
+
+            List<T> results = new ArrayList<>(requests.size());
+            for (int position = 0; position < requests.size(); position++) {
+                results.add(null);
+            }
+            for (int shard = 0; shard < shards.length; shard++) {
+                if (futures.get(shard) != null) {
+                    List<T> shardResults = await(futures.get(shard));
+                    List<Integer> positions = positionsByShard.get(shard);
+                    for (int i = 0; i < positions.size(); i++) {
+                        results.set(positions.get(i), shardResults.get(i));
+                    }
+                }
+            }
+            return results;
+        } catch (RuntimeException | Error e) {
+            // The batch has failed, so the lookups of the other shards would be wasted
+            for (Future<List<T>> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * This method returns the shard resolving the lookups of a product.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @return The position of the shard.
+     */
+    public int shardOf(long productId, int brandId) {
+        return Math.floorMod(Long.hashCode(productId * 31 + brandId) * 0x9E3779B9, shards.length);
+    }
+
+    /**
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Queues a lookup in a shard once it holds a permit of the bulkhead of every brand, which it releases when done,
+     * or as soon as it is cancelled, even before it starts.
+     */
+    private <T> Future<T> submit(Shard shard, int[] brandIds, Supplier<T> lookup) {
+
+        // The same bulkheads are released, even if the bulkheads of the brands are reloaded meanwhile
+        Bulkhead[] brandBulkheads = Arrays.stream(brandIds)
+                .mapToObj(brandId -> bulkheads.getOrDefault(brandId, otherBrands))
+                .distinct()
+                .toArray(Bulkhead[]::new);
+        int acquired = 0;
+        try {
+            for (; acquired < brandBulkheads.length; acquired++) {
+                Bulkhead bulkhead = brandBulkheads[acquired];
+                if (!bulkhead.permits().tryAcquire(brandWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    bulkhead.rejected().increment();
+                    throw new PriceShardRejectedException("Too many price lookups in flight for the brand "
+                            + bulkhead.brand());
+                }
+            }
+            FutureTask<T> future = new FutureTask<>(() -> shard.timer().record(lookup)) {
+                @Override
+                protected void done() {
+                    release(brandBulkheads, brandBulkheads.length);
+                }
+            };
+            shard.executor().execute(future);
+            acquired = 0;
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PriceShardRejectedException("Interrupted while waiting for the bulkhead of a brand");
+        } catch (RejectedExecutionException e) {
+            shard.rejected().increment();
+            throw new PriceShardRejectedException("Too many price lookups queued in the shard " + shard.id());
+        } finally {
+            release(brandBulkheads, acquired);
+        }
+    }
+
+    /**
+     * This method returns the permits of the bulkhead of a brand not taken by a lookup.
+     *
+     * @param brandId Product brand identifier.
+     * @return The number of permits available.
+     */
+    int availablePermits(int brandId) {
+        return bulkheads.getOrDefault(brandId, otherBrands).permits().availablePermits();
+    }
+
+    /**
+     * Releases the permits of the first bulkheads of a lookup.
+     */
+    private static void release(Bulkhead[] brandBulkheads, int count) {
+
+        for (int i = 0; i < count; i++) {
+            brandBulkheads[i].permits().release();
+        }
+    }
+
+    /**
+     * Creates the bulkheads of the brands of the stored Products not created yet.
+     */
+    private void loadBrands() {
+
+        for (int brandId : productRepository.findBrandIds()) {
+            bulkheads.computeIfAbsent(brandId, brand -> createBulkhead(String.valueOf(brand)));
+        }
+    }
+
+    /**
+     * Waits for the result of a lookup, throwing its failure as it was thrown.
+     */
+    private static <T> T await(Future<T> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for a price lookup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Bulkhead createBulkhead(String brand) {
+        return new Bulkhead(brand, new Semaphore(brandConcurrency), Counter.builder(PRICE_BULKHEAD_REJECTED_COUNTER)
+                .tag("brand", brand)
+                .description("Price lookups rejected by the bulkhead of the brand")
+                .register(meterRegistry));
+    }
+
+    /**
+     * Builds a shard and registers its metrics.
+     */
+    private Shard newShard(int id) {
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadsPerShard, threadsPerShard, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "price-shard-" + id + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        String shard = String.valueOf(id);
+        Gauge.builder(PRICE_SHARD_QUEUE_GAUGE, executor, pool -> pool.getQueue().size()).tag("shard", shard)
+                .description("Price lookups queued in the shard").register(meterRegistry);
+        Gauge.builder(PRICE_SHARD_ACTIVE_GAUGE, executor, ThreadPoolExecutor::getActiveCount).tag("shard", shard)
+                .description("Threads of the shard running a price lookup").register(meterRegistry);
+        return new Shard(id, executor,
+                Timer.builder(PRICE_SHARD_TIMER).tag("shard", shard)
+                        .description("Price lookups run by the shard").register(meterRegistry),
+                Counter.builder(PRICE_SHARD_REJECTED_COUNTER).tag("shard", shard)
+                        .description("Price lookups rejected by a full queue of the shard").register(meterRegistry));
+    }
+
+    /**
+     * Permits of the lookups in flight of a brand, and its rejections.
+     *
+     * @param brand The brand identifier, or OTHER_BRANDS for the brands without any stored Product.
+     * @param permits The permits of the brand.
+     * @param rejected The counter of the lookups rejected.
+     */
+    private record Bulkhead(String brand, Semaphore permits, Counter rejected) {
+    }
+
+    /**
+     * A shard: its threads, its bounded queue and its metrics.
+     *
+     * @param id The position of the shard.
+     * @param executor The threads and the queue of the shard.
+     * @param timer The timer of the lookups run by the shard.
+     * @param rejected The counter of the lookups rejected by a full queue.
+     */
+    private record Shard(int id, ThreadPoolExecutor executor, Timer timer, Counter rejected) {
+    }
+
+}
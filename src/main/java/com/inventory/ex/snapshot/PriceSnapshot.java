@@ -0,0 +1,261 @@
+package com.inventory.ex.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Read-only view of a binary price snapshot mapped in memory, written by PriceSnapshotWriter.
+ * The rows are sorted by product, brand and start date and every field is stored in its own column, so a lookup is
+ * a binary search over the products followed by a scan of the Prices of the product, reading the mapped file
+ * directly. The catalog stays off the heap and its pages are loaded by the operating system on demand.
+ * The rows are addressed by their position, and the accessor methods return the fields of a row.
+ */
+public class PriceSnapshot {
+
+    /**
+     * Value of the first bytes of a snapshot file.
+     */
+    static final int MAGIC = 0x50534E50;
+
+    /**
+     * Version of the snapshot format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Positions of the columns, ordered by field size so every column stays aligned.
+     */
+    static final int PRODUCT_ID_COLUMN = 0;
+    static final int START_DATE_COLUMN = 1;
+    static final int END_DATE_COLUMN = 2;
+    static final int PRICE_ID_COLUMN = 3;
+    static final int PRICE_COLUMN = 4;
+    static final int BRAND_ID_COLUMN = 5;
+    static final int PRIORITY_COLUMN = 6;
+    static final int CURRENCY_COLUMN = 7;
+
+    /**
+     * Size in bytes of the fields of each column.
+     */
+    private static final int[] FIELD_SIZES = {8, 8, 8, 8, 8, 4, 4, 2};
+
+    /**
+     * Size in bytes of the fields of a row.
+     */
+    static final int ROW_SIZE = 50;
+
+    /**
+     * Position returned when no row is found.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * The mapped snapshot.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of rows.
+     */
+    private final int rowCount;
+
+    /**
+     * Currency codes, indexed by the values of the currency column.
+     */
+    private final String[] currencies;
+
+    /**
+     * Offsets of every column in the snapshot.
+     */
+    private final int[] columnOffsets = new int[FIELD_SIZES.length];
+
+    private PriceSnapshot(ByteBuffer buffer) {
+
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a price snapshot of version " + VERSION);
+        }
+        rowCount = buffer.getInt(8);
+        currencies = new String[buffer.getInt(12)];
+        int position = 16;
+        for (int i = 0; i < currencies.length; i++) {
+            byte[] code = new byte[buffer.get(position++)];
+            buffer.get(position, code);
+            currencies[i] = new String(code, StandardCharsets.UTF_8);
+            position += code.length;
+        }
+        int headerSize = align(position);
+        for (int column = 0; column < FIELD_SIZES.length; column++) {
+            columnOffsets[column] = offset(headerSize, rowCount, column, 0);
+        }
+    }
+
+    /**
+     * This method maps a snapshot file read-only.
+     *
+     * @param snapshotPath The path of the snapshot file.
+     * @return The PriceSnapshot.
+     * @throws IOException If the snapshot cannot be mapped.
+     */
+    public static PriceSnapshot open(Path snapshotPath) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            return new PriceSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * This method returns the row of the Price with the highest priority to apply to the specified date.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @param date Date and time to apply the product price, in epoch milliseconds.
+     * @return The position of the row, or NOT_FOUND if no Price applies to the date.
+     */
+    public int findRow(long productId, int brandId, long date) {
+
+        int found = NOT_FOUND;
+        for (int row = firstRow(productId, brandId);
+             row < rowCount && productId(row) == productId && brandId(row) == brandId && startDate(row) <= date;
+             row++) {
+            if (date <= endDate(row) && (found == NOT_FOUND || priority(row) > priority(found)
+                    || priority(row) == priority(found) && priceId(row) < priceId(found))) {
+                found = row;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The number of rows of the snapshot.
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Product code identifier.
+     */
+    public long productId(int row) {
+        return buffer.getLong(columnOffsets[PRODUCT_ID_COLUMN] + row * 8);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Product brand identifier.
+     */
+    public int brandId(int row) {
+        return buffer.getInt(columnOffsets[BRAND_ID_COLUMN] + row * 4);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Start date on which the price applies, in epoch milliseconds.
+     */
+    public long startDate(int row) {
+        return buffer.getLong(columnOffsets[START_DATE_COLUMN] + row * 8);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return End date on which the price applies, in epoch milliseconds, inclusive.
+     */
+    public long endDate(int row) {
+        return buffer.getLong(columnOffsets[END_DATE_COLUMN] + row * 8);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Price identifier.
+     */
+    public long priceId(int row) {
+        return buffer.getLong(columnOffsets[PRICE_ID_COLUMN] + row * 8);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Price rate application priority.
+     */
+    public int priority(int row) {
+        return buffer.getInt(columnOffsets[PRIORITY_COLUMN] + row * 4);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Final sale price.
+     */
+    public double price(int row) {
+        return buffer.getDouble(columnOffsets[PRICE_COLUMN] + row * 8);
+    }
+
+    /**
+     * @param row The position of the row.
+     * @return Currency code, ISO standardized.
+     */
+    public String currency(int row) {
+        return currencies[buffer.getShort(columnOffsets[CURRENCY_COLUMN] + row * 2)];
+    }
+
+    /**
+     * This method returns the first row of the product, or the row where it would be inserted.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     * @return The position of the row.
+     */
+    private int firstRow(long productId, int brandId) {
+
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long middleProductId = productId(middle);
+            if (middleProductId < productId || middleProductId == productId && brandId(middle) < brandId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * This method returns the size of the header of a snapshot, padded to keep the columns aligned.
+     *
+     * @param currencies The currency codes of the snapshot.
+     * @return The size in bytes.
+     */
+    static int headerSize(Collection<String> currencies) {
+        return align(16 + currencies.stream().mapToInt(code -> 1 + code.getBytes(StandardCharsets.UTF_8).length)
+                .sum());
+    }
+
+    /**
+     * This method returns the position of a field in a snapshot.
+     *
+     * @param headerSize The size of the header.
+     * @param rowCount The number of rows.
+     * @param column The position of the column.
+     * @param row The position of the row.
+     * @return The offset in bytes.
+     */
+    static int offset(int headerSize, int rowCount, int column, int row) {
+
+        int offset = headerSize;
+        for (int previous = 0; previous < column; previous++) {
+            offset += FIELD_SIZES[previous] * rowCount;
+        }
+        return offset + FIELD_SIZES[column] * row;
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventory.ex.snapshot;
+
+import com.inventory.ex.persistance.CatalogChangedEvent;
+import com.inventory.ex.persistance.PriceChangedEvent;
+import com.inventory.ex.repository.PriceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holder of the PriceSnapshot serving the lookups, mapped from inventory.price-snapshot.path.
+ * The snapshot is written from the Data Base at startup, since the Data Base is created again on every start and a
+ * snapshot left by a previous run may not match it.
+ * The changes of the Prices are recorded as they are committed, and the snapshot is written again and remapped by a
+ * single refresher thread every refresh interval, so a burst of changes is coalesced into one refresh and the writers
+ * never wait for it. A bulk change of the catalog refreshes it at once.
+ * Enabled with the property inventory.price-snapshot.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.price-snapshot.enabled", havingValue = "true")
+public class PriceSnapshotStore {
+
+    /**
+     * The class retrieving the Prices from the Data Base.
+     */
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /**
+     * The path of the snapshot file.
+     */
+    @Value("${inventory.price-snapshot.path:price-snapshot.bin}")
+    private Path snapshotPath;
+
+    /**
+     * Interval between two refreshes of the snapshot with the committed changes.
+     */
+    @Value("${inventory.price-snapshot.refresh-interval:1s}")
+    private Duration refreshInterval;
+
+    /**
+     * The snapshot currently mapped.
+     */
+    private volatile PriceSnapshot snapshot;
+
+    /**
+     * Whether a change has been committed since the last refresh.
+     */
+    private volatile boolean refreshRequested;
+
+    /**
+     * The thread refreshing the snapshot every refresh interval.
+     */
+    private ScheduledExecutorService refresher;
+
+    /**
+     * This method writes and maps the snapshot, and starts refreshing it every refresh interval.
+     *
+     * @throws IOException If the snapshot cannot be written or mapped.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+
+        long startTime = System.nanoTime();
+        refresh();
+        log.info("Price snapshot {} written and mapped with {} prices in {} ms", snapshotPath, snapshot.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method stops refreshing the snapshot.
+     */
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * This method writes the snapshot again from the Data Base and maps it. The refreshes are serialised, so the
+     * snapshot mapped last is always the one read last, and a change committed while the Prices are read is applied
+     * again at the next refresh at worst.
+     *
+     * @throws IOException If the snapshot cannot be written or mapped.
+     */
+    public synchronized void refresh() throws IOException {
+
+        refreshRequested = false;
+        try {
+            write();
+            snapshot = PriceSnapshot.open(snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            refreshRequested = true;
+            throw e;
+        }
+    }
+
+    /**
+     * @return The snapshot currently mapped.
+     */
+    public PriceSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method records a committed change of a Price, to be applied at the next refresh.
+     *
+     * @param priceChangedEvent The event with the product changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void priceChanged(PriceChangedEvent priceChangedEvent) {
+        refreshRequested = true;
+    }
+
+    /**
+     * This method refreshes the snapshot once the catalog has been changed in bulk.
+     *
+     * @param catalogChangedEvent The event with the number of Prices changed.
+     */
+    @EventListener
+    public void catalogChanged(CatalogChangedEvent catalogChangedEvent) {
+
+        try {
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write() throws IOException {
+
+        long startTime = System.nanoTime();
+        PriceSnapshotWriter.write(snapshotPath, priceRepository.findAllWithProduct());
+        log.debug("Price snapshot {} written in {} ms", snapshotPath, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * Refreshes the snapshot from the refresher thread when a change has been committed, surviving any failure.
+     */
+    private void scheduledRefresh() {
+
+        if (!refreshRequested) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("Price snapshot refresh failed, retrying at the next interval", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.inventory.ex.snapshot;
+
+import com.inventory.ex.persistance.Price;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of the binary price snapshot read by PriceSnapshot.
+ * The Prices are sorted by product, brand and start date, and stored as one column per field after a header with
+ * the number of rows and the table of currency codes. The file is written next to the target and then moved over
+ * it, so a snapshot being mapped is never seen half written.
+ */
+public final class PriceSnapshotWriter {
+
+    /**
+     * Order of the rows of the snapshot.
+     */
+    private static final Comparator<Price> SNAPSHOT_ORDER = Comparator
+            .comparingLong((Price price) -> price.getProduct().getProductId())
+            .thenComparingInt(price -> price.getProduct().getBrandId())
+            .thenComparing(Price::getStartDate)
+            .thenComparingLong(Price::getPriceId);
+
+    private PriceSnapshotWriter() {
+    }
+
+    /**
+     * This method writes the snapshot of the specified Prices.
+     *
+     * @param snapshotPath The path of the snapshot file.
+     * @param prices The Prices to write, with their Product.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path snapshotPath, List<Price> prices) throws IOException {
+
+        List<Price> rows = new ArrayList<>(prices);
+        rows.sort(SNAPSHOT_ORDER);
+
+        Map<String, Integer> currencyIndexes = new LinkedHashMap<>();
+        rows.forEach(price -> currencyIndexes.putIfAbsent(price.getCurrency(), currencyIndexes.size()));
+        if (currencyIndexes.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many currencies for a price snapshot: " + currencyIndexes.size());
+        }
+
+        int headerSize = PriceSnapshot.headerSize(currencyIndexes.keySet());
+        long size = headerSize + (long) rows.size() * PriceSnapshot.ROW_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many prices for a price snapshot: " + rows.size());
+        }
+
+        Path directory = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryPath = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                writeHeader(buffer, rows.size(), currencyIndexes);
+                writeColumns(buffer, headerSize, rows, currencyIndexes);
+                buffer.force();
+            }
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, int rowCount, Map<String, Integer> currencyIndexes) {
+
+        buffer.putInt(PriceSnapshot.MAGIC);
+        buffer.putInt(PriceSnapshot.VERSION);
+        buffer.putInt(rowCount);
+        buffer.putInt(currencyIndexes.size());
+        for (String currency : currencyIndexes.keySet()) {
+            byte[] code = currency.getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) code.length);
+            buffer.put(code);
+        }
+    }
+
+    private static void writeColumns(MappedByteBuffer buffer, int headerSize, List<Price> rows,
+                                     Map<String, Integer> currencyIndexes) {
+
+        int rowCount = rows.size();
+        for (int row = 0; row < rowCount; row++) {
+            Price price = rows.get(row);
+            buffer.putLong(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.PRODUCT_ID_COLUMN, row),
+                    price.getProduct().getProductId());
+            buffer.putLong(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.START_DATE_COLUMN, row),
+                    price.getStartDate().getTime());
+            buffer.putLong(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.END_DATE_COLUMN, row),
+                    price.getEndDate().getTime());
+            buffer.putLong(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.PRICE_ID_COLUMN, row),
+                    price.getPriceId());
+            buffer.putDouble(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.PRICE_COLUMN, row),
+                    price.getPrice());
+            buffer.putInt(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.BRAND_ID_COLUMN, row),
+                    price.getProduct().getBrandId());
+            buffer.putInt(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.PRIORITY_COLUMN, row),
+                    price.getPriority());
+            buffer.putShort(PriceSnapshot.offset(headerSize, rowCount, PriceSnapshot.CURRENCY_COLUMN, row),
+                    currencyIndexes.get(price.getCurrency()).shortValue());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.inventory.ex.warmup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.ex.index.ProductKey;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recorder of the products and brands whose prices are looked up, keeping the most requested ones in a bounded list
+ * that is written to a file on shutdown, hottest first, to warm up the next start of the application.
+ * The keys are kept by a Caffeine cache bounded by size, whose W-TinyLFU policy keeps the keys most frequently
+ * requested, with a counter of their lookups ordering them, so recording a lookup of a key already kept is a read of
+ * the cache and an increment.
+ * The lookups are recorded where the requests arrive, by the controllers and the hot path, so every path serving them
+ * feeds the recorder, while the lookups of the warm-up, made through ProductService, never record their own keys.
+ * The file holds the number of keys followed by the product code and brand identifiers of every key.
+ * Enabled with the property inventory.warmup.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.warmup.enabled", havingValue = "true")
+public class HotKeyRecorder {
+
+    /**
+     * The path of the file with the hot keys.
+     */
+    private final Path hotKeyFile;
+
+    /**
+     * Maximum number of hot keys kept and written.
+     */
+    private final int maxKeys;
+
+    /**
+     * Keys of the lookups, evicted by size with the least frequently requested first.
+     */
+    private final Cache<ProductKey, LongAdder> hotKeys;
+
+    /**
+     * Builds the recorder.
+     *
+     * @param hotKeyFile The path of the file with the hot keys.
+     * @param maxKeys Maximum number of hot keys kept and written.
+     */
+    public HotKeyRecorder(@Value("${inventory.warmup.file:hot-keys.bin}") Path hotKeyFile,
+                          @Value("${inventory.warmup.max-keys:10000}") int maxKeys) {
+
+        this.hotKeyFile = hotKeyFile;
+        this.maxKeys = maxKeys;
+        this.hotKeys = Caffeine.newBuilder().maximumSize(maxKeys).build();
+    }
+
+    /**
+     * This method records a lookup of the price of a product.
+     *
+     * @param productId Product code identifier.
+     * @param brandId Product brand identifier.
+     */
+    public void record(long productId, int brandId) {
+        hotKeys.get(new ProductKey(productId, brandId), productKey -> new LongAdder()).increment();
+    }
+
+    /**
+     * This method returns the keys kept, ordered by their number of lookups, hottest first.
+     *
+     * @return The ProductKeys of the most requested products.
+     */
+    public List<ProductKey> getHotKeys() {
+
+        return hotKeys.asMap().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<ProductKey, Long>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * This method reads the hot keys written by the previous run of the application.
+     *
+     * @return The ProductKeys, hottest first, or an empty list if there is no file or it cannot be read.
+     */
+    public List<ProductKey> load() {
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(hotKeyFile)))) {
+            int count = Math.min(input.readInt(), maxKeys);
+            List<ProductKey> productKeys = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                productKeys.add(new ProductKey(input.readLong(), input.readInt()));
+            }
+            return productKeys;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            log.warn("Hot keys could not be read from {}, starting without warm-up", hotKeyFile, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * This method writes the hot keys to the file, replacing it at once. Nothing is written when no lookup has been
+     * recorded, so the keys of a previous run are kept.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void save() throws IOException {
+
+        List<ProductKey> productKeys = getHotKeys();
+        if (productKeys.isEmpty()) {
+            return;
+        }
+        Path directory = hotKeyFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, hotKeyFile.getFileName().toString(), ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(productKeys.size());
+            for (ProductKey productKey : productKeys) {
+                output.writeLong(productKey.productId());
+                output.writeInt(productKey.brandId());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+        Files.move(temporaryFile, hotKeyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("{} hot keys written to {}", productKeys.size(), hotKeyFile);
+    }
+
+    /**
+     * This method writes the hot keys when the application stops.
+     */
+    @PreDestroy
+    public void stop() {
+
+        try {
+            save();
+        } catch (IOException e) {
+            log.warn("Hot keys could not be written to {}", hotKeyFile, e);
+        }
+    }
+}
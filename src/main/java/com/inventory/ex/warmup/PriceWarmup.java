@@ -0,0 +1,188 @@
+package com.inventory.ex.warmup;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.index.ProductKey;
+import com.inventory.ex.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warm-up of the price lookups of the hot keys recorded by the previous run of the application, resolved in parallel
+ * in the background once the application is started, hottest first, at the current date. The lookups go through
+ * ProductService as the requests do, so they compile the queries, open the connections of the pool and fill the
+ * caches enabled before the traffic arrives. ProductService does not record the keys, so the warm-up never keeps the
+ * keys of a previous run hot by itself.
+ * As a health indicator, included in the readiness group, it keeps the application out of service until the ratio of
+ * the hot keys warmed up reaches the threshold, or until the timeout elapses, so a slow warm-up never keeps the
+ * application out of service.
+ * Enabled with the property inventory.warmup.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.warmup.enabled", havingValue = "true")
+public class PriceWarmup implements HealthIndicator {
+
+    /**
+     * The recorder of the hot keys, which reads the ones of the previous run.
+     */
+    @Autowired
+    private HotKeyRecorder hotKeyRecorder;
+
+    /**
+     * The business logic class resolving the prices.
+     */
+    @Autowired
+    private ProductService productService;
+
+    /**
+     * Number of threads resolving the hot keys, 0 for the number of processors.
+     */
+    @Value("${inventory.warmup.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * Ratio of the hot keys to warm up before the application is ready.
+     */
+    @Value("${inventory.warmup.threshold:0.9}")
+    private double threshold;
+
+    /**
+     * Maximum time the application is kept out of service by the warm-up.
+     */
+    @Value("${inventory.warmup.timeout:60s}")
+    private Duration timeout;
+
+    /**
+     * Number of hot keys to warm up, -1 until the warm-up starts.
+     */
+    private volatile int keyCount = -1;
+
+    /**
+     * Number of hot keys resolved.
+     */
+    private final AtomicInteger warmedCount = new AtomicInteger();
+
+    /**
+     * Number of hot keys resolved or failed. The failed ones do not delay the readiness.
+     */
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    /**
+     * Start of the warm-up, from System.nanoTime.
+     */
+    private volatile long startNanos;
+
+    /**
+     * The threads resolving the hot keys.
+     */
+    private ExecutorService warmupExecutor;
+
+    /**
+     * This method starts the warm-up once the application is started.
+     *
+     * @param applicationReadyEvent The event of the application ready to serve requests.
+     */
+    @EventListener
+    public void applicationReady(ApplicationReadyEvent applicationReadyEvent) {
+        start();
+    }
+
+    /**
+     * This method reads the hot keys and resolves them in the background, hottest first.
+     */
+    public synchronized void start() {
+
+        if (keyCount >= 0) {
+            return;
+        }
+        List<ProductKey> productKeys = hotKeyRecorder.load();
+        startNanos = System.nanoTime();
+        keyCount = productKeys.size();
+        if (productKeys.isEmpty()) {
+            log.info("No hot keys to warm up");
+            return;
+        }
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        warmupExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "price-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        productKeys.forEach(productKey -> warmupExecutor.execute(() -> warmUp(productKey, now)));
+        warmupExecutor.shutdown();
+        log.info("Warming up {} hot keys with {} threads", productKeys.size(), threads);
+    }
+
+    /**
+     * This method stops the warm-up.
+     */
+    @PreDestroy
+    public void stop() {
+
+        if (warmupExecutor != null) {
+            warmupExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method reports the application out of service until the warm-up reaches the threshold or times out.
+     *
+     * @return The Health with the number of hot keys warmed up.
+     */
+    @Override
+    public Health health() {
+
+        int keys = keyCount;
+        if (keys < 0) {
+            return Health.outOfService().withDetail("keys", "not loaded").build();
+        }
+        int completed = completedCount.get();
+        int warmed = warmedCount.get();
+        boolean ready = completed >= threshold * keys || System.nanoTime() - startNanos >= timeout.toNanos();
+        return (ready ? Health.up() : Health.outOfService())
+                .withDetail("keys", keys)
+                .withDetail("warmed", warmed)
+                .withDetail("failed", Math.max(0, completed - warmed))
+                .build();
+    }
+
+    /**
+     * Resolves the price of a hot key, logging the end of the warm-up with the last one.
+     */
+    private void warmUp(ProductKey productKey, Timestamp date) {
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(productKey.productId());
+        productPriceRequest.setBrandId(productKey.brandId());
+        productPriceRequest.setApplicationDate(date);
+        try {
+            productService.getProductPricesByDate(productPriceRequest);
+            warmedCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.debug("Warm-up of the product {} of the brand {} failed", productKey.productId(),
+                    productKey.brandId(), e);
+        }
+        if (completedCount.incrementAndGet() == keyCount) {
+            log.info("{} hot keys warmed up in {} ms, {} failed", warmedCount.get(),
+                    (System.nanoTime() - startNanos) / 1_000_000, keyCount - warmedCount.get());
+        }
+    }
+}
@@ -5,4 +5,11 @@ INSERT INTO PRICE (PRICE_ID, PRODUCT_ID, PRICE, PRIORITY, START_DATE, END_DATE ,
 INSERT INTO PRICE (PRICE_ID, PRODUCT_ID, PRICE, PRIORITY, START_DATE, END_DATE ,CURRENCY) VALUES (3,35455,30.50,1,'2020-06-15 00:00:00','2020-06-15 11:00:00','EUR');
 INSERT INTO PRICE (PRICE_ID, PRODUCT_ID, PRICE, PRIORITY, START_DATE, END_DATE ,CURRENCY) VALUES (4,35455,38.95,1,'2020-06-15 16:00:00','2020-12-31 23:59:59','EUR');
 
-ALTER TABLE PRICE ALTER COLUMN PRICE_ID RESTART WITH 5;
\ No newline at end of file
+INSERT INTO FX_RATE (CURRENCY, RATE) VALUES ('EUR', 1.0);
+INSERT INTO FX_RATE (CURRENCY, RATE) VALUES ('USD', 0.92);
+INSERT INTO FX_RATE (CURRENCY, RATE) VALUES ('GBP', 1.17);
+INSERT INTO FX_RATE (CURRENCY, RATE) VALUES ('CHF', 1.04);
+INSERT INTO FX_RATE (CURRENCY, RATE) VALUES ('JPY', 0.0062);
+
+ALTER SEQUENCE PRICE_SEQ RESTART WITH 100;
+ALTER SEQUENCE PRODUCT_SEQ RESTART WITH 35550;
\ No newline at end of file
@@ -4,18 +4,23 @@ import com.inventory.ex.dto.request.ProductPriceRequest;
 import com.inventory.ex.dto.response.ProductPriceResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -23,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * Test class to run the integration tests.
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 class InventoryExApplicationTests {
 
 	/**
@@ -70,6 +76,7 @@ class InventoryExApplicationTests {
 		expectedResponse.setPriceList(1);
 		expectedResponse.setStartDate(Timestamp.valueOf(startDate));
 		expectedResponse.setEndDate(Timestamp.valueOf(endDate));
+		expectedResponse.setCurrency("EUR");
 
 		// Parse the string date into a LocalDateTime object
 		LocalDateTime applicationDate = LocalDateTime.parse("2020-06-14T10:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -115,6 +122,7 @@ class InventoryExApplicationTests {
 		expectedResponse.setPriceList(2);
 		expectedResponse.setStartDate(Timestamp.valueOf(startDate));
 		expectedResponse.setEndDate(Timestamp.valueOf(endDate));
+		expectedResponse.setCurrency("EUR");
 
 		// Parse the string date into a LocalDateTime object
 		LocalDateTime applicationDate = LocalDateTime.parse("2020-06-14T16:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -160,6 +168,7 @@ class InventoryExApplicationTests {
 		expectedResponse.setPriceList(1);
 		expectedResponse.setStartDate(Timestamp.valueOf(startDate));
 		expectedResponse.setEndDate(Timestamp.valueOf(endDate));
+		expectedResponse.setCurrency("EUR");
 
 		// Parse the string date into a LocalDateTime object
 		LocalDateTime applicationDate = LocalDateTime.parse("2020-06-14T21:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -205,6 +214,7 @@ class InventoryExApplicationTests {
 		expectedResponse.setPriceList(3);
 		expectedResponse.setStartDate(Timestamp.valueOf(startDate));
 		expectedResponse.setEndDate(Timestamp.valueOf(endDate));
+		expectedResponse.setCurrency("EUR");
 
 		// Parse the string date into a LocalDateTime object
 		LocalDateTime applicationDate = LocalDateTime.parse("2020-06-15T10:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -249,6 +259,7 @@ class InventoryExApplicationTests {
 		expectedResponse.setPriceList(4);
 		expectedResponse.setStartDate(Timestamp.valueOf(startDate));
 		expectedResponse.setEndDate(Timestamp.valueOf(endDate));
+		expectedResponse.setCurrency("EUR");
 
 		// Parse the string date into a LocalDateTime object
 		LocalDateTime applicationDate = LocalDateTime.parse("2020-06-16T21:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -271,4 +282,255 @@ class InventoryExApplicationTests {
 		assertEquals(expectedResponse, response.getBody(), "Error in test: testProductPriceScenario5");
 	}
 
+	/**
+	 * Integration test to validate the batch endpoint with the five scenarios and a product not found.
+	 * The responses must keep the order of the requests, with an empty object for the product not found.
+	 */
+	@Test
+	public void testProductPricesBatch() {
+
+		List<ProductPriceRequest> productPriceRequests = List.of(
+				createRequest(35455, "2020-06-14T10:00:00"),
+				createRequest(35455, "2020-06-14T16:00:00"),
+				createRequest(1, "2020-06-14T16:00:00"),
+				createRequest(35455, "2020-06-14T21:00:00"),
+				createRequest(35455, "2020-06-15T10:00:00"),
+				createRequest(35455, "2020-06-16T21:00:00"));
+
+		// Create request entity
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		HttpEntity<List<ProductPriceRequest>> requestEntity = new HttpEntity<>(productPriceRequests, headers);
+
+		// Make HTTP request
+		ResponseEntity<ProductPriceResponse[]> response = testRestTemplate.exchange("http://localhost:" + localPort + "/product/prices",
+				HttpMethod.POST, requestEntity, ProductPriceResponse[].class);
+
+		// Assert response
+		ProductPriceResponse[] productPriceResponses = response.getBody();
+		assertEquals(6, productPriceResponses.length, "Error in test: testProductPricesBatch");
+		assertEquals(1, productPriceResponses[0].getPriceList(), "Error in test: testProductPricesBatch");
+		assertEquals(2, productPriceResponses[1].getPriceList(), "Error in test: testProductPricesBatch");
+		assertEquals(new ProductPriceResponse(), productPriceResponses[2], "Error in test: testProductPricesBatch");
+		assertEquals(1, productPriceResponses[3].getPriceList(), "Error in test: testProductPricesBatch");
+		assertEquals(3, productPriceResponses[4].getPriceList(), "Error in test: testProductPricesBatch");
+		assertEquals(4, productPriceResponses[5].getPriceList(), "Error in test: testProductPricesBatch");
+		assertEquals(38.95d, productPriceResponses[5].getPrice(), "Error in test: testProductPricesBatch");
+	}
+
+	/**
+	 * Integration test to validate the batches of distant dates, resolved with a query per date, and the batches
+	 * larger than the maximum size, which are rejected.
+	 */
+	@Test
+	public void testProductPricesBatchDistantDates() {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		String url = "http://localhost:" + localPort + "/product/prices";
+
+		List<ProductPriceRequest> productPriceRequests = List.of(
+				createRequest(35455, "2020-12-31T23:59:59"),
+				createRequest(35455, "2020-06-14T10:00:00"),
+				createRequest(35455, "2019-01-01T00:00:00"));
+		ProductPriceResponse[] productPriceResponses = testRestTemplate.exchange(url, HttpMethod.POST,
+				new HttpEntity<>(productPriceRequests, headers), ProductPriceResponse[].class).getBody();
+		assertEquals(4, productPriceResponses[0].getPriceList(), "Error in test: testProductPricesBatchDistantDates");
+		assertEquals(1, productPriceResponses[1].getPriceList(), "Error in test: testProductPricesBatchDistantDates");
+		assertEquals(new ProductPriceResponse(), productPriceResponses[2], "Error in test: testProductPricesBatchDistantDates");
+
+		List<ProductPriceRequest> tooManyRequests = Collections.nCopies(1001, createRequest(35455, "2020-06-14T10:00:00"));
+		ResponseEntity<String> response = testRestTemplate.exchange(url, HttpMethod.POST,
+				new HttpEntity<>(tooManyRequests, headers), String.class);
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), "Error in test: testProductPricesBatchDistantDates");
+	}
+
+	/**
+	 * Integration test to validate the prices requested in another currency, converted with the FX rates of
+	 * import.sql and rounded to the minor unit of the currency, and the currencies without FX rates.
+	 */
+	@Test
+	public void testProductPriceCurrency() {
+
+		String url = "http://localhost:" + localPort + "/product/price";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+
+		ProductPriceRequest productPriceRequest = createRequest(35455, "2020-06-14T10:00:00");
+		productPriceRequest.setCurrency("USD");
+		ProductPriceResponse response = testRestTemplate.exchange(url, HttpMethod.POST,
+				new HttpEntity<>(productPriceRequest, headers), ProductPriceResponse.class).getBody();
+		assertEquals(1, response.getPriceList(), "Error in test: testProductPriceCurrency");
+		assertEquals(38.59d, response.getPrice(), "Error in test: testProductPriceCurrency");
+		assertEquals("USD", response.getCurrency(), "Error in test: testProductPriceCurrency");
+
+		// Every request of a batch has its own currency, or none
+		List<ProductPriceRequest> productPriceRequests = List.of(
+				createRequest(35455, "2020-06-14T10:00:00"),
+				createRequest(35455, "2020-06-14T10:00:00"),
+				createRequest(1, "2020-06-14T10:00:00"));
+		productPriceRequests.get(1).setCurrency("JPY");
+		productPriceRequests.get(2).setCurrency("GBP");
+		ProductPriceResponse[] productPriceResponses = testRestTemplate.exchange(url + "s", HttpMethod.POST,
+				new HttpEntity<>(productPriceRequests, headers), ProductPriceResponse[].class).getBody();
+		assertEquals(35.5d, productPriceResponses[0].getPrice(), "Error in test: testProductPriceCurrency");
+		assertEquals("EUR", productPriceResponses[0].getCurrency(), "Error in test: testProductPriceCurrency");
+		assertEquals(5726d, productPriceResponses[1].getPrice(), "Error in test: testProductPriceCurrency");
+		assertEquals("JPY", productPriceResponses[1].getCurrency(), "Error in test: testProductPriceCurrency");
+		assertEquals(new ProductPriceResponse(), productPriceResponses[2], "Error in test: testProductPriceCurrency");
+
+		productPriceRequest.setCurrency("XXX");
+		assertEquals(HttpStatus.BAD_REQUEST, testRestTemplate.exchange(url, HttpMethod.POST,
+				new HttpEntity<>(productPriceRequest, headers), String.class).getStatusCode(),
+				"Error in test: testProductPriceCurrency");
+	}
+
+	/**
+	 * Integration test to validate the streaming endpoint, reading and writing newline-delimited JSON records.
+	 */
+	@Test
+	public void testProductPricesStream() {
+
+		String ndjsonRequests = """
+				{"productId": 35455, "brandId": 1, "applicationDate": "2020-06-14T10:00:00"}
+				{"productId": 1, "brandId": 1, "applicationDate": "2020-06-14T10:00:00"}
+				{"productId": 35455, "brandId": 1, "applicationDate": "2020-06-16T21:00:00"}
+				""";
+
+		// Create request entity
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_NDJSON);
+		HttpEntity<String> requestEntity = new HttpEntity<>(ndjsonRequests, headers);
+
+		// Make HTTP request
+		ResponseEntity<String> response = testRestTemplate.exchange("http://localhost:" + localPort + "/product/prices/stream",
+				HttpMethod.POST, requestEntity, String.class);
+
+		// Assert response
+		String[] lines = response.getBody().split("\n");
+		assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType(), "Error in test: testProductPricesStream");
+		assertEquals(3, lines.length, "Error in test: testProductPricesStream");
+		assertEquals("{\"productId\":35455,\"brandId\":1,\"priceList\":1,\"startDate\":\"2020-06-14T00:00:00.000+00:00\","
+				+ "\"endDate\":\"2020-12-31T23:59:59.000+00:00\",\"price\":35.5,\"currency\":\"EUR\"}", lines[0], "Error in test: testProductPricesStream");
+		assertEquals("{\"productId\":0,\"brandId\":0,\"priceList\":0,\"startDate\":null,\"endDate\":null,\"price\":0.0,\"currency\":null}",
+				lines[1], "Error in test: testProductPricesStream");
+		assertEquals(true, lines[2].contains("\"priceList\":4"), "Error in test: testProductPricesStream");
+	}
+
+	/**
+	 * Integration test to validate the timeline endpoint, streaming the effective prices of the product of the five
+	 * scenarios over two days as newline-delimited JSON records.
+	 */
+	@Test
+	public void testPriceTimeline() {
+
+		String timelineRequest = """
+				{"productId": 35455, "brandId": 1, "fromDate": "2020-06-14T10:00:00", "toDate": "2020-06-15T23:59:59"}
+				""";
+
+		// Create request entity
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		HttpEntity<String> requestEntity = new HttpEntity<>(timelineRequest, headers);
+
+		// Make HTTP request
+		ResponseEntity<String> response = testRestTemplate.exchange("http://localhost:" + localPort + "/product/price/timeline",
+				HttpMethod.POST, requestEntity, String.class);
+
+		// Assert response
+		String[] lines = response.getBody().split("\n");
+		assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType(), "Error in test: testPriceTimeline");
+		assertEquals(6, lines.length, "Error in test: testPriceTimeline");
+		assertEquals("{\"productId\":35455,\"brandId\":1,\"effectiveFrom\":\"2020-06-14T10:00:00.000+00:00\","
+				+ "\"effectiveTo\":\"2020-06-14T14:59:59.999+00:00\",\"priceList\":1,\"startDate\":\"2020-06-14T00:00:00.000+00:00\","
+				+ "\"endDate\":\"2020-12-31T23:59:59.000+00:00\",\"price\":35.5,\"currency\":\"EUR\"}", lines[0], "Error in test: testPriceTimeline");
+		assertEquals(true, lines[1].contains("\"priceList\":2"), "Error in test: testPriceTimeline");
+		assertEquals(true, lines[2].contains("\"priceList\":1"), "Error in test: testPriceTimeline");
+		assertEquals(true, lines[3].contains("\"priceList\":3"), "Error in test: testPriceTimeline");
+		assertEquals(true, lines[4].contains("\"priceList\":1"), "Error in test: testPriceTimeline");
+		assertEquals(true, lines[5].contains("\"priceList\":4")
+				&& lines[5].contains("\"effectiveTo\":\"2020-06-15T23:59:59.000+00:00\""), "Error in test: testPriceTimeline");
+	}
+
+	/**
+	 * Integration test to validate the timeline requests rejected with a bad request status: a missing date, a period
+	 * ending before it starts and a currency without FX rates.
+	 */
+	@Test
+	public void testPriceTimelineInvalidRequest() {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		String url = "http://localhost:" + localPort + "/product/price/timeline";
+
+		for (String timelineRequest : List.of(
+				"{\"productId\": 35455, \"brandId\": 1, \"fromDate\": \"2020-06-14T10:00:00\"}",
+				"{\"productId\": 35455, \"brandId\": 1, \"toDate\": \"2020-06-14T10:00:00\"}",
+				"{\"productId\": 35455, \"brandId\": 1, \"fromDate\": \"2020-06-15T10:00:00\", \"toDate\": \"2020-06-14T10:00:00\"}",
+				"{\"productId\": 35455, \"brandId\": 1, \"fromDate\": \"2020-06-14T10:00:00\", \"toDate\": \"2020-06-15T10:00:00\", \"currency\": \"XXX\"}")) {
+			ResponseEntity<String> response = testRestTemplate.exchange(url, HttpMethod.POST,
+					new HttpEntity<>(timelineRequest, headers), String.class);
+			assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), "Error in test: testPriceTimelineInvalidRequest");
+		}
+	}
+
+	/**
+	 * Integration test to validate that the date of the cacheable price lookup is read in UTC, as the dates of the
+	 * JSON requests, so both endpoints answer the same price for the same instant whatever the default time zone.
+	 */
+	@Test
+	public void testCacheableProductPriceTimeZone() {
+
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(MediaType.APPLICATION_JSON);
+			ResponseEntity<String> posted = testRestTemplate.exchange("http://localhost:" + localPort + "/product/price",
+					HttpMethod.POST, new HttpEntity<>("{\"productId\": 35455, \"brandId\": 1, "
+							+ "\"applicationDate\": \"2020-06-14T15:30:00\"}", headers), String.class);
+			ResponseEntity<String> found = testRestTemplate.getForEntity("http://localhost:" + localPort
+					+ "/product/35455/brand/1/price?at=2020-06-14T15:30:00", String.class);
+			assertEquals(HttpStatus.OK, found.getStatusCode(), "Error in test: testCacheableProductPriceTimeZone");
+			assertEquals(posted.getBody(), found.getBody(), "Error in test: testCacheableProductPriceTimeZone");
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+	/**
+	 * Integration test to verify that the timers of the price lookup, the Hibernate statistics and the connection pool
+	 * gauges are exposed in Prometheus format.
+	 */
+	@Test
+	public void testPrometheusMetrics() {
+
+		// Make a price request to record the timers
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		testRestTemplate.exchange("http://localhost:" + localPort + "/product/price", HttpMethod.POST,
+				new HttpEntity<>(createRequest(35455, "2020-06-14T10:00:00"), headers), ProductPriceResponse.class);
+
+		String metrics = testRestTemplate.getForObject("http://localhost:" + localPort + "/actuator/prometheus",
+				String.class);
+
+		// Assert response
+		assertEquals(true, metrics.lines().anyMatch(line -> line.startsWith("inventory_price_request_seconds_bucket{")
+				&& line.contains("endpoint=\"price\"")), "Error in test: testPrometheusMetrics");
+		assertEquals(true, metrics.contains("inventory_price_resolution_seconds_bucket{"), "Error in test: testPrometheusMetrics");
+		assertEquals(true, metrics.contains("spring_data_repository_invocations_seconds_bucket{"), "Error in test: testPrometheusMetrics");
+		assertEquals(true, metrics.contains("hibernate_"), "Error in test: testPrometheusMetrics");
+		assertEquals(true, metrics.contains("hikaricp_connections_active"), "Error in test: testPrometheusMetrics");
+	}
+
+	private static ProductPriceRequest createRequest(long productId, String applicationDate) {
+
+		ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+		productPriceRequest.setProductId(productId);
+		productPriceRequest.setBrandId(1);
+		productPriceRequest.setApplicationDate(Timestamp.valueOf(
+				LocalDateTime.parse(applicationDate, DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+		return productPriceRequest;
+	}
+
 }
@@ -0,0 +1,51 @@
+package com.inventory.ex;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/*
+    Fixtures of the Products and Prices shared by the unit tests of the price stores
+ */
+public final class PriceFixtures {
+
+    private PriceFixtures(){
+    }
+
+    public static Timestamp timestamp(String date){
+        return Timestamp.valueOf(LocalDateTime.parse(date));
+    }
+
+    public static long millis(String date){
+        return timestamp(date).getTime();
+    }
+
+    public static Product createProduct(long productId, int brandId){
+
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setBrandId(brandId);
+        return product;
+    }
+
+    public static Price createPrice(Product product, long priceId, double amount, int priority, String startDate,
+                                    String endDate){
+        return createPrice(product, priceId, amount, priority, startDate, endDate, "EUR");
+    }
+
+    public static Price createPrice(Product product, long priceId, double amount, int priority, String startDate,
+                                    String endDate, String currency){
+
+        Price price = new Price();
+        price.setPriceId(priceId);
+        price.setPrice(amount);
+        price.setPriority(priority);
+        price.setCurrency(currency);
+        price.setStartDate(timestamp(startDate));
+        price.setEndDate(timestamp(endDate));
+        price.setProduct(product);
+        return price;
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.ex.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceEtagTest {
+
+    private static final PriceEtag PRICE_ETAG = new PriceEtag(4, 1592236800000l, 1609459200000l, 7, null, 0);
+
+    private static final PriceEtag CONVERTED_ETAG = new PriceEtag(4, 1592236800000l, 1609459200000l, 7, "USD", 2);
+
+    /*
+        This Test covers the entity tags read back from an If-None-Match header, weak or in a list, skipping the ones
+        not written by PriceEtag
+     */
+    @Test
+    public void parseTestPass(){
+
+        assertEquals("\"4.1592236800000.1609459200000.7\"", PRICE_ETAG.format());
+        assertEquals(List.of(PRICE_ETAG), PriceEtag.parse(PRICE_ETAG.format()));
+        assertEquals(List.of(PRICE_ETAG, CONVERTED_ETAG), PriceEtag.parse("\"other\", W/" + PRICE_ETAG.format()
+                + " , " + CONVERTED_ETAG.format() + ", \"1.2.x.4\", *"));
+        assertTrue(PriceEtag.parse("4.1592236800000.1609459200000.7").isEmpty());
+    }
+
+    /*
+        This Test covers the requests answered by a tagged response, with the same versions, the same currency and a
+        date inside its segment
+     */
+    @Test
+    public void matchesTestPass(){
+
+        assertTrue(PRICE_ETAG.matches(7, null, 3, 1592236800000l));
+        assertTrue(PRICE_ETAG.matches(7, null, 3, 1609459199999l));
+        assertFalse(PRICE_ETAG.matches(7, null, 3, 1609459200000l));
+        assertFalse(PRICE_ETAG.matches(8, null, 3, 1600000000000l));
+        assertFalse(PRICE_ETAG.matches(7, "USD", 2, 1600000000000l));
+
+        assertTrue(CONVERTED_ETAG.matches(7, "USD", 2, 1600000000000l));
+        assertFalse(CONVERTED_ETAG.matches(7, "USD", 3, 1600000000000l));
+        assertFalse(CONVERTED_ETAG.matches(7, "GBP", 2, 1600000000000l));
+        assertFalse(CONVERTED_ETAG.matches(7, null, 2, 1600000000000l));
+    }
+}
@@ -0,0 +1,232 @@
+package com.inventory.ex.cache;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.index.PriceSegment;
+import com.inventory.ex.index.ProductKey;
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.PriceChangedEvent;
+import com.inventory.ex.persistance.Product;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.repository.ProductRepository;
+import com.inventory.ex.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.createProduct;
+import static com.inventory.ex.PriceFixtures.millis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "inventory.price-cache.enabled=true")
+public class PriceLookupCacheTest {
+
+    @SpyBean
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private PriceLookupCache priceLookupCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /*
+        This Test covers the cache hits, which only happen for dates inside the cached segment
+     */
+    @Test
+    public void findSegmentTestPassHitInsideSegment(){
+
+        clearInvocations(priceRepository);
+
+        PriceSegment segment = priceLookupCache.findSegment(35455l, 1, millis("2020-06-14T16:00:00")).get();
+        assertEquals(2l, segment.price().getPriceId());
+        assertEquals(millis("2020-06-14T15:00:00"), segment.validFrom());
+        assertEquals(millis("2020-06-14T18:30:00") + 1, segment.validUntil());
+
+        // Same segment, so the Data Base is not queried again
+        assertEquals(2l, priceLookupCache.findSegment(35455l, 1, millis("2020-06-14T18:00:00")).get().price().getPriceId());
+        verify(priceRepository, times(1)).findByProductIdAndBrandId(35455l, 1);
+
+        // Date outside the segment, so the Prices are resolved again
+        assertEquals(1l, priceLookupCache.findSegment(35455l, 1, millis("2020-06-14T21:00:00")).get().price().getPriceId());
+        verify(priceRepository, times(2)).findByProductIdAndBrandId(35455l, 1);
+    }
+
+    /*
+        This Test covers the invalidation of the cached segment when a Price of the product is saved
+     */
+    @Test
+    public void findSegmentTestPassInvalidatedOnSave(){
+
+        long date = millis("2020-06-15T10:00:00");
+        assertEquals(30.50d, priceLookupCache.findSegment(35455l, 1, date).get().price().getPrice());
+
+        Price price = priceRepository.findById(3l).get();
+        try {
+            price.setPrice(29.99d);
+            priceRepository.save(price);
+            assertEquals(29.99d, priceLookupCache.findSegment(35455l, 1, date).get().price().getPrice());
+        } finally {
+            price.setPrice(30.50d);
+            priceRepository.save(price);
+        }
+        assertEquals(30.50d, priceLookupCache.findSegment(35455l, 1, date).get().price().getPrice());
+    }
+
+    /*
+        This Test covers the change of brand of a product, which discards the cached segment of the previous brand
+     */
+    @Test
+    public void findSegmentTestPassInvalidatedOnBrandChange(){
+
+        Product product = new Product();
+        product.setBrandId(5);
+        product = productRepository.save(product);
+        priceRepository.save(createPrice(product, 0l, 10d, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59"));
+        long productId = product.getProductId();
+        long date = millis("2020-06-14T10:00:00");
+        assertTrue(priceLookupCache.findSegment(productId, 5, date).isPresent());
+
+        Product loaded = productRepository.findById(productId).get();
+        loaded.setBrandId(6);
+        productRepository.save(loaded);
+        assertFalse(priceLookupCache.findSegment(productId, 5, date).isPresent());
+        assertTrue(priceLookupCache.findSegment(productId, 6, date).isPresent());
+    }
+
+    /*
+        This Test covers a request without date, answered with an empty object as on the Data Base path
+     */
+    @Test
+    public void getProductPricesByDateTestPassMissingDate(){
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(35455l);
+        productPriceRequest.setBrandId(1);
+
+        assertEquals(new ProductPriceResponse(), productService.getProductPricesByDate(productPriceRequest).get());
+    }
+
+    /*
+        This Test covers a slow miss, which does not block the misses of another product sharing its bin of the map
+     */
+    @Test
+    public void findSegmentTestPassSlowMissNotBlockingSameBin() throws Exception {
+
+        ProductKey slowKey = new ProductKey(1l, 1);
+        ProductKey otherKey = sameHashCode(slowKey);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PriceRepository slowRepository = mock(PriceRepository.class);
+        when(slowRepository.findByProductIdAndBrandId(slowKey.productId(), slowKey.brandId())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return prices(slowKey);
+        });
+        when(slowRepository.findByProductIdAndBrandId(otherKey.productId(), otherKey.brandId()))
+                .thenReturn(prices(otherKey));
+        PriceLookupCache cache = createCache(slowRepository);
+
+        long date = millis("2020-06-14T10:00:00");
+        CompletableFuture<Optional<PriceSegment>> slowMiss = CompletableFuture.supplyAsync(
+                () -> cache.findSegment(slowKey.productId(), slowKey.brandId(), date));
+        try {
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // The slow miss is still reading its Prices while the other product of the bin is resolved
+            CompletableFuture<Optional<PriceSegment>> otherMiss = CompletableFuture.supplyAsync(
+                    () -> cache.findSegment(otherKey.productId(), otherKey.brandId(), date));
+            assertEquals(otherKey.productId(), otherMiss.get(5, TimeUnit.SECONDS).get().price().getProduct().getProductId());
+            assertFalse(slowMiss.isDone());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(slowKey.productId(), slowMiss.get(5, TimeUnit.SECONDS).get().price().getProduct().getProductId());
+    }
+
+    /*
+        This Test covers a change committed while a miss reads the Prices, so the segment read is returned but not stored
+     */
+    @Test
+    public void findSegmentTestPassChangedWhileLoading() throws Exception {
+
+        ProductKey productKey = new ProductKey(1l, 1);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PriceRepository slowRepository = mock(PriceRepository.class);
+        when(slowRepository.findByProductIdAndBrandId(productKey.productId(), productKey.brandId())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return prices(productKey);
+        });
+        PriceLookupCache cache = createCache(slowRepository);
+
+        long date = millis("2020-06-14T10:00:00");
+        CompletableFuture<Optional<PriceSegment>> miss = CompletableFuture.supplyAsync(
+                () -> cache.findSegment(productKey.productId(), productKey.brandId(), date));
+        try {
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // The invalidation does not wait for the miss reading the Prices
+            CompletableFuture.runAsync(() -> cache.priceChanged(
+                    new PriceChangedEvent(productKey.productId(), productKey.brandId()))).get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+        assertTrue(miss.get(5, TimeUnit.SECONDS).isPresent());
+
+        // The segment read before the change was discarded, so the Prices are read again
+        when(slowRepository.findByProductIdAndBrandId(productKey.productId(), productKey.brandId()))
+                .thenReturn(prices(productKey));
+        cache.findSegment(productKey.productId(), productKey.brandId(), date);
+        verify(slowRepository, times(2)).findByProductIdAndBrandId(productKey.productId(), productKey.brandId());
+    }
+
+    private static PriceLookupCache createCache(PriceRepository priceRepository){
+
+        PriceLookupCache cache = new PriceLookupCache(100, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "priceRepository", priceRepository);
+        return cache;
+    }
+
+    private static List<Price> prices(ProductKey productKey){
+
+        Product product = createProduct(productKey.productId(), productKey.brandId());
+        return List.of(createPrice(product, productKey.productId(), 10d, 0, "2020-06-14T00:00:00",
+                "2020-12-31T23:59:59"));
+    }
+
+    /*
+        Another key with the same hash code, which is therefore in the same bin of the map whatever its size
+     */
+    private static ProductKey sameHashCode(ProductKey productKey){
+
+        for (long productId = 0; productId < 1000; productId++) {
+            for (int brandId = 0; brandId < 100_000; brandId++) {
+                ProductKey candidate = new ProductKey(productId, brandId);
+                if (!candidate.equals(productKey) && candidate.hashCode() == productKey.hashCode()) {
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalStateException("No key with the hash code of " + productKey);
+    }
+}
@@ -0,0 +1,138 @@
+package com.inventory.ex.cache;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.index.PriceIndex;
+import com.inventory.ex.index.PriceStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "inventory.price-index.enabled=true",
+        "inventory.price-response-cache.enabled=true"
+})
+public class PriceResponseCacheTest {
+
+    private static final String EXPECTED_RESPONSE = "{\"productId\":35455,\"brandId\":1,\"priceList\":2,"
+            + "\"startDate\":\"2020-06-14T15:00:00.000+00:00\",\"endDate\":\"2020-06-14T18:30:00.000+00:00\","
+            + "\"price\":25.45,\"currency\":\"EUR\"}";
+
+    @LocalServerPort
+    private int localPort;
+
+    @Autowired
+    private PriceResponseCache priceResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    /*
+        This Test covers the same serialized response returned for every date inside the segment
+     */
+    @Test
+    public void getResponseTestPassSameSegment(){
+
+        byte[] response = priceResponseCache.getResponse(createRequest("2020-06-14T16:00:00"), false);
+        double hits = meterRegistry.counter("inventory.price.response.cache", "result", "hit").count();
+
+        assertEquals(EXPECTED_RESPONSE, new String(response, StandardCharsets.UTF_8));
+        assertSame(response, priceResponseCache.getResponse(createRequest("2020-06-14T18:00:00"), false));
+        assertEquals(hits + 1, meterRegistry.counter("inventory.price.response.cache", "result", "hit").count());
+    }
+
+    /*
+        This Test covers the price endpoint writing the serialized responses, plain and compressed with gzip
+     */
+    @Test
+    public void getProductPricePassSerializedResponse() throws Exception {
+
+        HttpResponse<byte[]> plain = post(null);
+        assertEquals(200, plain.statusCode());
+        assertEquals("application/json", plain.headers().firstValue("Content-Type").get());
+        assertEquals(EXPECTED_RESPONSE, new String(plain.body(), StandardCharsets.UTF_8));
+
+        HttpResponse<byte[]> compressed = post("gzip, deflate");
+        assertEquals(200, compressed.statusCode());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").get());
+        assertEquals(EXPECTED_RESPONSE, gunzip(compressed.body()));
+    }
+
+    /*
+        This Test covers the qualities of the accepted content codings, where a quality of zero refuses gzip
+     */
+    @Test
+    public void getProductPricePassAcceptEncodingQuality() throws Exception {
+
+        assertEquals("gzip", post("deflate;q=0.5, gzip;q=0.8").headers().firstValue("Content-Encoding").get());
+        assertEquals("gzip", post("*").headers().firstValue("Content-Encoding").get());
+
+        HttpResponse<byte[]> refused = post("gzip;q=0, deflate");
+        assertTrue(refused.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(EXPECTED_RESPONSE, new String(refused.body(), StandardCharsets.UTF_8));
+        assertTrue(post("*, gzip;q=0").headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(post("identity").headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    /*
+        This Test covers the responses kept when the index is refreshed, for the Prices not changed
+     */
+    @Test
+    public void getResponseTestPassKeptOnRefresh(){
+
+        byte[] response = priceResponseCache.getResponse(createRequest("2020-06-14T16:00:00"), false);
+        PriceStore priceStore = priceIndex.getPriceStore();
+        priceIndex.load();
+
+        assertNotSame(priceStore, priceIndex.getPriceStore());
+        assertSame(response, priceResponseCache.getResponse(createRequest("2020-06-14T16:00:00"), false));
+    }
+
+    private HttpResponse<byte[]> post(String acceptEncoding) throws IOException, InterruptedException {
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + localPort + "/product/price"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\"}"));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static ProductPriceRequest createRequest(String date){
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(35455l);
+        productPriceRequest.setBrandId(1);
+        productPriceRequest.setApplicationDate(Timestamp.valueOf(LocalDateTime.parse(date)));
+        return productPriceRequest;
+    }
+}
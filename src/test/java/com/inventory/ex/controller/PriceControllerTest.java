@@ -0,0 +1,168 @@
+package com.inventory.ex.controller;
+
+import com.inventory.ex.dto.request.PriceWriteRequest;
+import com.inventory.ex.dto.response.PriceResponse;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.service.PriceWriteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "inventory.price-cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:pricewritedb"})
+public class PriceControllerTest {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private PriceWriteService priceWriteService;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /*
+        This Test covers the creation, update and removal of a Price, which the cached lookups of its product see
+        as soon as each change is committed
+     */
+    @Test
+    public void writePriceTestPass(){
+
+        Map<String, Object> lookup = Map.of("productId", 35455, "brandId", 1, "applicationDate", "2020-06-16T21:00:00");
+        assertEquals(4l, testRestTemplate.postForObject("/product/price", lookup, ProductPriceResponse.class)
+                .getPriceList());
+
+        ResponseEntity<PriceResponse> created = testRestTemplate.postForEntity("/price",
+                createRequest(35455l, 1, "2020-06-16T00:00:00", "2020-06-16T23:59:59", 19.99), PriceResponse.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        long priceId = created.getBody().getPriceList();
+        assertEquals(priceId, testRestTemplate.postForObject("/product/price", lookup, ProductPriceResponse.class)
+                .getPriceList());
+
+        ResponseEntity<PriceResponse> updated = testRestTemplate.exchange("/price/" + priceId, HttpMethod.PUT,
+                new HttpEntity<>(createRequest(35455l, 1, "2020-06-16T00:00:00", "2020-06-16T23:59:59", 17.99)),
+                PriceResponse.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals(17.99, testRestTemplate.postForObject("/product/price", lookup, ProductPriceResponse.class)
+                .getPrice());
+
+        // A Price already ended is kept as it is
+        assertEquals(HttpStatus.NO_CONTENT, testRestTemplate.exchange("/price/" + priceId, HttpMethod.DELETE,
+                null, Void.class).getStatusCode());
+        assertEquals(17.99, priceRepository.findById(priceId).get().getPrice());
+
+        // A Price not started yet is removed
+        long futurePriceId = priceWriteService.createPrice(
+                createRequest(35455l, 1, "2999-01-01T00:00:00", "2999-12-31T23:59:59", 9.99)).get().getPriceList();
+        assertEquals(HttpStatus.NO_CONTENT, testRestTemplate.exchange("/price/" + futurePriceId, HttpMethod.DELETE,
+                null, Void.class).getStatusCode());
+        assertFalse(priceRepository.findById(futurePriceId).isPresent());
+    }
+
+    /*
+        This Test covers the writes rejected for an unknown Price or product, or with invalid fields
+     */
+    @Test
+    public void writePriceTestFail(){
+
+        assertEquals(HttpStatus.NOT_FOUND, testRestTemplate.postForEntity("/price",
+                createRequest(1l, 1, "2020-06-16T00:00:00", "2020-06-16T23:59:59", 19.99), String.class)
+                .getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, testRestTemplate.exchange("/price/999999", HttpMethod.PUT,
+                new HttpEntity<>(createRequest(35455l, 1, "2020-06-16T00:00:00", "2020-06-16T23:59:59", 19.99)),
+                String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, testRestTemplate.exchange("/price/999999", HttpMethod.DELETE,
+                null, String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, testRestTemplate.postForEntity("/price",
+                createRequest(35455l, 1, "2020-06-17T00:00:00", "2020-06-16T23:59:59", 19.99), String.class)
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, testRestTemplate.exchange("/price/1", HttpMethod.PUT,
+                new HttpEntity<>(createRequest(35455l, 2, "2020-06-14T00:00:00", "2020-12-31T23:59:59", 35.50)),
+                String.class).getStatusCode());
+    }
+
+    /*
+        This Test covers the cacheable lookups of a price, answered with a not modified status while the entity tag is
+        still current and its segment contains the date, and with a new entity tag once a Price of the product changes
+     */
+    @Test
+    public void getCacheablePriceTestPass(){
+
+        String url = "/product/35455/brand/1/price?at=";
+        ResponseEntity<ProductPriceResponse> found = testRestTemplate.getForEntity(url + "2020-06-14T10:00:00",
+                ProductPriceResponse.class);
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals(1l, found.getBody().getPriceList());
+        assertEquals("max-age=60, public", found.getHeaders().getCacheControl());
+        String etag = found.getHeaders().getETag();
+
+        // The same segment, until the Price of higher priority starts at 15:00
+        assertEquals(HttpStatus.NOT_MODIFIED, getIfNoneMatch(url + "2020-06-14T14:59:59", etag).getStatusCode());
+        ResponseEntity<ProductPriceResponse> next = getIfNoneMatch(url + "2020-06-14T15:00:00", etag);
+        assertEquals(HttpStatus.OK, next.getStatusCode());
+        assertEquals(2l, next.getBody().getPriceList());
+
+        // Another currency is tagged on its own
+        ResponseEntity<ProductPriceResponse> converted = getIfNoneMatch(url + "2020-06-14T10:00:00&currency=USD", etag);
+        assertEquals(HttpStatus.OK, converted.getStatusCode());
+        assertEquals(38.59, converted.getBody().getPrice());
+        assertEquals(HttpStatus.NOT_MODIFIED, getIfNoneMatch(url + "2020-06-14T11:00:00&currency=USD",
+                converted.getHeaders().getETag()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                testRestTemplate.getForEntity(url + "2020-06-14T10:00:00&currency=XXX", String.class).getStatusCode());
+
+        // A change of a Price of the product changes the entity tag, even of the same Price
+        testRestTemplate.postForEntity("/price",
+                createRequest(35455l, 1, "2020-06-14T12:00:00", "2020-06-14T12:30:00", 19.99), PriceResponse.class);
+        ResponseEntity<ProductPriceResponse> changed = getIfNoneMatch(url + "2020-06-14T10:00:00", etag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals(1l, changed.getBody().getPriceList());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+
+        // No Price applies to the current date, which may change at any time
+        ResponseEntity<ProductPriceResponse> notFound = testRestTemplate.getForEntity("/product/35455/brand/1/price",
+                ProductPriceResponse.class);
+        assertEquals(HttpStatus.OK, notFound.getStatusCode());
+        assertEquals(0l, notFound.getBody().getPriceList());
+        assertEquals("no-cache", notFound.getHeaders().getCacheControl());
+        assertNull(notFound.getHeaders().getETag());
+    }
+
+    private ResponseEntity<ProductPriceResponse> getIfNoneMatch(String url, String etag){
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), ProductPriceResponse.class);
+    }
+
+    private static PriceWriteRequest createRequest(long productId, int brandId, String startDate, String endDate,
+                                                   double price){
+
+        PriceWriteRequest priceWriteRequest = new PriceWriteRequest();
+        priceWriteRequest.setProductId(productId);
+        priceWriteRequest.setBrandId(brandId);
+        priceWriteRequest.setStartDate(Timestamp.valueOf(LocalDateTime.parse(startDate)));
+        priceWriteRequest.setEndDate(Timestamp.valueOf(LocalDateTime.parse(endDate)));
+        priceWriteRequest.setPriority(2);
+        priceWriteRequest.setPrice(price);
+        priceWriteRequest.setCurrency("EUR");
+        return priceWriteRequest;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -92,4 +93,43 @@ public class ProductControllerTest {
         assertEquals(productPriceResponseEntity.getStatusCode(), HttpStatus.OK);
         assertEquals(productPriceResponseEntity.getBody(), productPriceResponse);
     }
+
+
+    /*
+        This Test covers the batch request, where the responses of the ProductService are returned in order
+    */
+    @Test
+    public void getProductPricesPass(){
+
+        // Create the Date as Timestamp to send to the controller
+        LocalDateTime dateToQuery = LocalDateTime.parse("2024-06-14T00:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
+
+        // Generate the object request
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(35455l);
+        productPriceRequest.setBrandId(1);
+        productPriceRequest.setApplicationDate(timestampToQuery);
+        List<ProductPriceRequest> productPriceRequests = List.of(productPriceRequest, productPriceRequest);
+
+        // Generate the mock response, with a product found and another one not found
+        ProductPriceResponse productPriceResponse = new ProductPriceResponse();
+        productPriceResponse.setPriceList(1);
+        productPriceResponse.setPrice(10.0);
+        productPriceResponse.setProductId(35455l);
+        productPriceResponse.setBrandId(1);
+        productPriceResponse.setStartDate(timestampToQuery);
+        productPriceResponse.setEndDate(timestampToQuery);
+        List<ProductPriceResponse> productPriceResponses = List.of(productPriceResponse, new ProductPriceResponse());
+
+        // Mock the response of ProductService
+        when(productService.getProductPricesByDates(productPriceRequests)).thenReturn(productPriceResponses);
+
+        ResponseEntity<List<ProductPriceResponse>> productPriceResponseEntity =
+                productController.getProductPrices(productPriceRequests);
+
+        // Validate the response with the corresponding assertion
+        assertEquals(productPriceResponseEntity.getStatusCode(), HttpStatus.OK);
+        assertEquals(productPriceResponseEntity.getBody(), productPriceResponses);
+    }
 }
@@ -0,0 +1,187 @@
+package com.inventory.ex.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.ingest.PriceBulkLoader;
+import com.inventory.ex.ingest.PriceFeedRecord;
+import com.inventory.ex.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportdb",
+        "inventory.export.partitions=7",
+        "inventory.export.parallelism=3"
+})
+public class CatalogExporterTest {
+
+    private static final Timestamp APPLICATION_DATE = Timestamp.valueOf(LocalDateTime.parse("2020-06-14T16:00:00"));
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private PriceBulkLoader priceBulkLoader;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    private Path tempDir;
+
+    /*
+        Add 300 products, every third one with a promotion of higher priority and every seventh one without any Price
+        applying at the export date
+     */
+    @BeforeEach
+    public void setUp(){
+
+        if (productService.getProductPricesByDate(createRequest(90001l)).get().getPriceList() != 0) {
+            return;
+        }
+        List<PriceFeedRecord> records = new ArrayList<>();
+        for (long productId = 90001; productId <= 90300; productId++) {
+            String start = productId % 7 == 0 ? "2021-01-01 00:00:00" : "2020-06-14 00:00:00";
+            records.add(new PriceFeedRecord(productId, 2, Timestamp.valueOf(start),
+                    Timestamp.valueOf("2021-12-31 23:59:59"), 0, productId / 100d, "EUR"));
+            if (productId % 3 == 0) {
+                records.add(new PriceFeedRecord(productId, 2, Timestamp.valueOf("2020-06-14 15:00:00"),
+                        Timestamp.valueOf("2020-06-14 18:30:00"), 1, productId / 200d, "USD"));
+            }
+        }
+        priceBulkLoader.load(records.iterator());
+    }
+
+    /*
+        This Test covers the compressed CSV export, whose parts are written in parallel as separate gzip members and
+        which must match the prices resolved by ProductService, in product order
+     */
+    @Test
+    public void exportTestPassCompressedCsv() throws IOException {
+
+        Path export = tempDir.resolve("prices.csv.gz");
+        CatalogExportResult result = catalogExporter.export(APPLICATION_DATE, export);
+
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(export)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+
+        Map<Long, ProductPriceResponse> expected = expectedPrices();
+        assertEquals(expected.size(), result.rows());
+        assertEquals(7, result.partitions());
+        assertTrue(result.peakHeapBytes() > 0);
+        assertEquals("PRODUCT_ID,BRAND_ID,PRICE_LIST,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY", lines.get(0));
+        assertEquals(expected.size() + 1, lines.size());
+        assertEquals("35455,1,2,2020-06-14 15:00:00,2020-06-14 18:30:00,1,25.45,EUR", lines.get(1));
+
+        long previousProductId = 0;
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            long productId = Long.parseLong(columns[0]);
+            assertTrue(productId > previousProductId);
+            previousProductId = productId;
+            assertEquals(expected.get(productId).getPriceList(), Long.parseLong(columns[2]));
+            assertEquals(expected.get(productId).getPrice(), Double.parseDouble(columns[6]));
+        }
+    }
+
+    /*
+        This Test covers the NDJSON export, not compressed
+     */
+    @Test
+    public void exportTestPassNdjson() throws IOException {
+
+        Path export = tempDir.resolve("prices.ndjson");
+        catalogExporter.export(APPLICATION_DATE, export);
+
+        Map<Long, ProductPriceResponse> expected = expectedPrices();
+        List<String> lines = Files.readAllLines(export);
+        assertEquals(expected.size(), lines.size());
+        for (String line : lines) {
+            CatalogExportRecord catalogExportRecord = objectMapper.readValue(line, CatalogExportRecord.class);
+            ProductPriceResponse productPriceResponse = expected.get(catalogExportRecord.productId());
+            assertEquals(productPriceResponse.getBrandId(), catalogExportRecord.brandId());
+            assertEquals(productPriceResponse.getPriceList(), catalogExportRecord.priceList());
+            assertEquals(productPriceResponse.getStartDate(), catalogExportRecord.startDate());
+            assertEquals(productPriceResponse.getEndDate(), catalogExportRecord.endDate());
+            assertEquals(productPriceResponse.getPrice(), catalogExportRecord.price());
+        }
+    }
+
+    /*
+        This Test covers the export converted to a currency, whose prices must match the ones resolved by
+        ProductService in the same currency
+     */
+    @Test
+    public void exportTestPassCurrency() throws IOException {
+
+        Path export = tempDir.resolve("prices-usd.ndjson");
+        catalogExporter.export(APPLICATION_DATE, export, "USD");
+
+        Map<Long, ProductPriceResponse> expected = expectedPrices("USD");
+        List<String> lines = Files.readAllLines(export);
+        assertEquals(expected.size(), lines.size());
+        for (String line : lines) {
+            CatalogExportRecord catalogExportRecord = objectMapper.readValue(line, CatalogExportRecord.class);
+            assertEquals("USD", catalogExportRecord.currency());
+            assertEquals(expected.get(catalogExportRecord.productId()).getPrice(), catalogExportRecord.price());
+        }
+        assertEquals(27.66, objectMapper.readValue(lines.get(0), CatalogExportRecord.class).price());
+    }
+
+    private Map<Long, ProductPriceResponse> expectedPrices(){
+        return expectedPrices(null);
+    }
+
+    /*
+        Resolve the price of every product at the export date with ProductService, in a currency or in the one of
+        every Price when null, keeping the ones found
+     */
+    private Map<Long, ProductPriceResponse> expectedPrices(String currency){
+
+        List<ProductPriceRequest> productPriceRequests = LongStream.concat(LongStream.of(35455l),
+                        LongStream.rangeClosed(90001, 90300))
+                .mapToObj(CatalogExporterTest::createRequest)
+                .toList();
+        productPriceRequests.forEach(productPriceRequest -> productPriceRequest.setCurrency(currency));
+        return productService.getProductPricesByDates(productPriceRequests).stream()
+                .filter(productPriceResponse -> productPriceResponse.getPriceList() != 0)
+                .collect(Collectors.toMap(ProductPriceResponse::getProductId, productPriceResponse -> productPriceResponse));
+    }
+
+    private static ProductPriceRequest createRequest(long productId){
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(productId);
+        productPriceRequest.setBrandId(productId == 35455l ? 1 : 2);
+        productPriceRequest.setApplicationDate(APPLICATION_DATE);
+        return productPriceRequest;
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.ex.fx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FxRateTableTest {
+
+    private static final FxRateTable FX_RATE_TABLE =
+            FxRateTable.of(Map.of("EUR", 1.0, "USD", 0.92, "JPY", 0.0062, "XAA", 2.0));
+
+    /*
+        This Test covers the conversions between every pair of currencies, through the rates to the base currency and
+        rounded to the minor unit of the target currency
+     */
+    @Test
+    public void convertTestPass(){
+
+        int eur = FX_RATE_TABLE.position("EUR");
+        int usd = FX_RATE_TABLE.position("USD");
+        int jpy = FX_RATE_TABLE.position("JPY");
+        int xaa = FX_RATE_TABLE.position("XAA");
+
+        assertEquals(35.5, FX_RATE_TABLE.convert(35.5, eur, eur));
+        assertEquals(38.59, FX_RATE_TABLE.convert(35.5, eur, usd));
+        assertEquals(32.66, FX_RATE_TABLE.convert(35.5, usd, eur));
+        assertEquals(5726.0, FX_RATE_TABLE.convert(35.5, eur, jpy));
+        assertEquals(0.01, FX_RATE_TABLE.convert(1, jpy, usd));
+        assertEquals(17.75, FX_RATE_TABLE.convert(35.5, eur, xaa));
+        assertEquals(0.92 / 0.0062, FX_RATE_TABLE.rate(usd, jpy), 1e-9);
+    }
+
+    /*
+        This Test covers the currencies found by their code packed into a long, as read by the hot path
+     */
+    @Test
+    public void positionTestPassPacked(){
+
+        assertEquals(FX_RATE_TABLE.position("USD"), FX_RATE_TABLE.position(FxRateTable.pack("USD")));
+        assertEquals("USD", FX_RATE_TABLE.currency(FX_RATE_TABLE.position(FxRateTable.pack("USD"))));
+        assertEquals(('E' << 16) | ('U' << 8) | 'R', FxRateTable.pack("EUR"));
+        assertEquals(FxRateTable.NOT_FOUND, FX_RATE_TABLE.position(FxRateTable.pack("GBP")));
+        assertEquals(FxRateTable.NOT_FOUND, FX_RATE_TABLE.position((String) null));
+        assertEquals(0, FxRateTable.pack("CURRENCY1"));
+    }
+
+    /*
+        This Test covers the currencies without rates and the invalid rates
+     */
+    @Test
+    public void requirePositionTestFail(){
+
+        assertThrows(IllegalArgumentException.class, () -> FX_RATE_TABLE.requirePosition("GBP"));
+        assertThrows(IllegalArgumentException.class, () -> FxRateTable.of(Map.of("EUR", 0.0)));
+        assertThrows(IllegalArgumentException.class, () -> FxRateTable.of(Map.of("", 1.0)));
+        assertEquals(0, FxRateTable.EMPTY.size());
+    }
+}
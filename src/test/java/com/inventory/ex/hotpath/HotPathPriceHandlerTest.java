@@ -0,0 +1,226 @@
+package com.inventory.ex.hotpath;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.fx.FxRateTable;
+import com.inventory.ex.index.PriceStore;
+import com.inventory.ex.persistance.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.createProduct;
+import static com.inventory.ex.PriceFixtures.millis;
+import static com.inventory.ex.PriceFixtures.timestamp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotPathPriceHandlerTest {
+
+    private static final int WARM_UP_CALLS = 200_000;
+
+    private static final int MEASURED_CALLS = 100_000;
+
+    private static final FxRateTable FX_RATE_TABLE = FxRateTable.of(Map.of("EUR", 1.0, "USD", 0.92, "JPY", 0.0062));
+
+    /*
+        Serialization of the responses as configured by Spring Boot
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private HotPathPriceHandler hotPathPriceHandler;
+
+    private PriceExchange exchange;
+
+    /*
+        Load the store with the same Prices inserted by import.sql
+     */
+    @BeforeEach
+    public void setUp(){
+
+        Product product = createProduct(35455l, 1);
+
+        PriceStore priceStore = PriceStore.build(List.of(
+                createPrice(product, 1, 35.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59"),
+                createPrice(product, 2, 25.45, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00"),
+                createPrice(product, 3, 30.50, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00"),
+                createPrice(product, 4, 38.95, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59")));
+        hotPathPriceHandler = new HotPathPriceHandler(() -> priceStore, () -> FX_RATE_TABLE);
+        exchange = new PriceExchange();
+    }
+
+    /*
+        This Test covers the five scenarios of the integration tests, whose responses must be the same bytes written by
+        Jackson for the DTO
+     */
+    @Test
+    public void handleTestPassSameJsonAsJackson() throws Exception {
+
+        assertEquals(json(1, 35.50, "2020-06-14T00:00:00", "2020-12-31T23:59:59"), handle("2020-06-14T10:00:00"));
+        assertEquals(json(2, 25.45, "2020-06-14T15:00:00", "2020-06-14T18:30:00"), handle("2020-06-14T16:00:00"));
+        assertEquals(json(1, 35.50, "2020-06-14T00:00:00", "2020-12-31T23:59:59"), handle("2020-06-14T21:00:00"));
+        assertEquals(json(3, 30.50, "2020-06-15T00:00:00", "2020-06-15T11:00:00"), handle("2020-06-15T10:00:00"));
+        assertEquals(json(4, 38.95, "2020-06-15T16:00:00", "2020-12-31T23:59:59"), handle("2020-06-16T21:00:00"));
+        assertEquals(objectMapper.writeValueAsString(new ProductPriceResponse()), handle("2020-06-13T23:59:59"));
+    }
+
+    /*
+        This Test covers the formats of the applicationDate accepted by Jackson and the fields in any order
+     */
+    @Test
+    public void handleTestPassDateFormats() throws Exception {
+
+        String expected = json(2, 25.45, "2020-06-14T15:00:00", "2020-06-14T18:30:00");
+        long millis = millis("2020-06-14T16:00:00");
+
+        assertEquals(expected, handleBody("{\"applicationDate\": " + millis + ", \"brandId\": 1, \"productId\": 35455}"));
+        assertEquals(expected, handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00.5Z\"}"));
+        assertEquals(expected, handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T18:00:00.000+02:00\"}"));
+        assertEquals(expected, handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T13:00-0300\"}"));
+        assertEquals(json(1, 35.50, "2020-06-14T00:00:00", "2020-12-31T23:59:59"),
+                handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14\",\"unknown\":[{\"a\":\"}\"}]}"));
+        assertEquals(objectMapper.writeValueAsString(new ProductPriceResponse()),
+                handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":null}"));
+    }
+
+    /*
+        This Test covers the prices converted to the requested currency, rounded to its minor unit, and the currencies
+        without FX rates
+     */
+    @Test
+    public void handleTestPassCurrency() throws Exception {
+
+        String usd = handleBody("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00\","
+                + "\"currency\":\"USD\"}");
+        assertTrue(usd.endsWith("\"price\":27.66,\"currency\":\"USD\"}"), usd);
+        String jpy = handleBody("{\"currency\":\"JPY\",\"productId\":35455,\"brandId\":1,"
+                + "\"applicationDate\":\"2020-06-14T16:00:00\"}");
+        assertTrue(jpy.endsWith("\"price\":4105.0,\"currency\":\"JPY\"}"), jpy);
+        assertEquals(json(2, 25.45, "2020-06-14T15:00:00", "2020-06-14T18:30:00"), handleBody(
+                "{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00\",\"currency\":null}"));
+        assertEquals(objectMapper.writeValueAsString(new ProductPriceResponse()), handleBody(
+                "{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-13T16:00:00\",\"currency\":\"USD\"}"));
+
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00\","
+                + "\"currency\":\"GBP\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00\","
+                + "\"currency\":\"\"}"));
+    }
+
+    /*
+        This Test covers the invalid request bodies
+     */
+    @Test
+    public void handleTestFailInvalidBody(){
+
+        assertFalse(handleValid(""));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1"));
+        assertFalse(handleValid("{\"productId\":\"abc\",\"brandId\":1,\"applicationDate\":\"2020-06-14T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-13-14T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":99999999999,\"applicationDate\":\"2020-06-14T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455} trailing"));
+    }
+
+    /*
+        This Test covers the days out of the length of their month, rejected as Jackson does, with the leap years
+     */
+    @Test
+    public void handleTestFailInvalidDay(){
+
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2021-02-31T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2021-02-29T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2100-02-29T16:00:00\"}"));
+        assertFalse(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-06-31T16:00:00\"}"));
+        assertTrue(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-02-29T16:00:00\"}"));
+        assertTrue(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2000-02-29T16:00:00\"}"));
+        assertTrue(handleValid("{\"productId\":35455,\"brandId\":1,\"applicationDate\":\"2020-12-31T16:00:00\"}"));
+    }
+
+    /*
+        This Test covers the prices written with the same text as Double.toString
+     */
+    @Test
+    public void handleTestPassPriceFormat() throws Exception {
+
+        for (double price : new double[]{0.0, 1.0, 12.5, 0.1, 0.07, 19.99, 1234567.89, 9999999.99, 0.001, 0.0001,
+                12345678.9, 1.23456789, 1e-7, 3.0e10}) {
+            Product product = createProduct(1l, 1);
+            PriceStore priceStore = PriceStore.build(List.of(
+                    createPrice(product, 1, price, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59")));
+            PriceExchange priceExchange = new PriceExchange();
+            byte[] body = "{\"productId\":1,\"brandId\":1,\"applicationDate\":\"2020-06-15T00:00:00\"}"
+                    .getBytes(StandardCharsets.US_ASCII);
+            priceExchange.setBody(body, body.length);
+            assertTrue(new HotPathPriceHandler(() -> priceStore, () -> FX_RATE_TABLE).handle(priceExchange));
+
+            String response = new String(priceExchange.getOutput(), 0, priceExchange.getOutputLength(),
+                    StandardCharsets.US_ASCII);
+            assertTrue(response.endsWith("\"price\":" + price + ",\"currency\":\"EUR\"}"), response);
+        }
+    }
+
+    /*
+        This Test covers the memory allocated per lookup, which must be zero once the code is warm
+     */
+    @Test
+    public void handleTestPassNoAllocation(){
+
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        byte[][] bodies = {
+                body("2020-06-14T10:00:00"), body("2020-06-14T16:00:00"), body("2020-06-15T10:00:00"),
+                body("2020-06-16T21:00:00"), body("2020-06-13T23:59:59"),
+                ("{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\", "
+                        + "\"currency\": \"USD\"}").getBytes(StandardCharsets.US_ASCII)};
+
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            exchange.setBody(bodies[i % bodies.length], bodies[i % bodies.length].length);
+            hotPathPriceHandler.handle(exchange);
+        }
+
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            exchange.setBody(bodies[i % bodies.length], bodies[i % bodies.length].length);
+            hotPathPriceHandler.handle(exchange);
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // Allow the few bytes of the measurement itself, far below one byte per call
+        assertTrue(allocated < MEASURED_CALLS, allocated + " bytes allocated in " + MEASURED_CALLS + " calls");
+    }
+
+    private String handle(String date){
+        return handleBody(new String(body(date), StandardCharsets.US_ASCII));
+    }
+
+    private String handleBody(String body){
+
+        assertTrue(handleValid(body));
+        return new String(exchange.getOutput(), 0, exchange.getOutputLength(), StandardCharsets.US_ASCII);
+    }
+
+    private boolean handleValid(String body){
+
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.setBody(bytes, bytes.length);
+        return hotPathPriceHandler.handle(exchange);
+    }
+
+    private static byte[] body(String date){
+        return ("{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"" + date + "\"}")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private String json(long priceList, double price, String startDate, String endDate) throws Exception {
+
+        return objectMapper.writeValueAsString(new ProductPriceResponse(35455l, 1, priceList,
+                timestamp(startDate), timestamp(endDate), price, "EUR"));
+    }
+}
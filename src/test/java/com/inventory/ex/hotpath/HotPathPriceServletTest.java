@@ -0,0 +1,67 @@
+package com.inventory.ex.hotpath;
+
+import com.inventory.ex.config.MetricsConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "inventory.price-index.enabled=true",
+        "inventory.price-hot-path.enabled=true"
+})
+public class HotPathPriceServletTest {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+        This Test covers the price endpoint served by the hot path, with the same response and timer of the controller
+     */
+    @Test
+    public void getProductPricePass(){
+
+        long requests = requestCount();
+        ResponseEntity<String> response = post("/product/price",
+                "{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\"}");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"productId\":35455,\"brandId\":1,\"priceList\":2,\"startDate\":\"2020-06-14T15:00:00.000+00:00\","
+                + "\"endDate\":\"2020-06-14T18:30:00.000+00:00\",\"price\":25.45,\"currency\":\"EUR\"}", response.getBody());
+        assertEquals(requests + 1, requestCount());
+    }
+
+    /*
+        This Test covers an invalid request body on the hot path, and the other endpoints still served by the controller
+     */
+    @Test
+    public void getProductPriceFailInvalidBody(){
+
+        assertEquals(HttpStatus.BAD_REQUEST, post("/product/price", "{\"productId\": 35455").getStatusCode());
+        assertEquals(HttpStatus.OK, post("/product/prices",
+                "[{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\"}]").getStatusCode());
+    }
+
+    private long requestCount(){
+        return meterRegistry.get(MetricsConfiguration.PRICE_REQUEST_TIMER).tag("endpoint", "price").timer().count();
+    }
+
+    private ResponseEntity<String> post(String path, String body){
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return testRestTemplate.postForEntity(path, new HttpEntity<>(body, headers), String.class);
+    }
+}
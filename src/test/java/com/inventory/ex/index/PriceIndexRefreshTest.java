@@ -0,0 +1,92 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(properties = {
+        "inventory.price-index.enabled=true",
+        "inventory.price-index.refresh-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:indexrefreshdb"})
+public class PriceIndexRefreshTest {
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private PriceVersions priceVersions;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /*
+        This Test covers the changes saved through JPA, which the readers only see once the refresh publishes the new
+        store, and with it the new versions of the products, while the previous store stays unchanged
+     */
+    @Test
+    public void refreshTestPassDelta(){
+
+        long date = millis("2020-06-16T10:00:00");
+        PriceStore before = priceIndex.getPriceStore();
+        long version = priceVersions.version(35455l);
+        assertEquals(4l, before.priceId(before.findSegment(35455l, 1, date)));
+
+        Product product = productRepository.findById(35455l).get();
+        Price price = new Price();
+        price.setProduct(product);
+        price.setPrice(19.99);
+        price.setPriority(2);
+        price.setCurrency("EUR");
+        price.setStartDate(Timestamp.valueOf(LocalDateTime.parse("2020-06-16T00:00:00")));
+        price.setEndDate(Timestamp.valueOf(LocalDateTime.parse("2020-06-16T23:59:59")));
+        priceRepository.save(price);
+
+        Product added = new Product();
+        added.setBrandId(2);
+        added = productRepository.save(added);
+        Price addedPrice = new Price();
+        addedPrice.setProduct(added);
+        addedPrice.setPrice(9.99);
+        addedPrice.setPriority(0);
+        addedPrice.setCurrency("EUR");
+        addedPrice.setStartDate(Timestamp.valueOf(LocalDateTime.parse("2020-06-14T00:00:00")));
+        addedPrice.setEndDate(Timestamp.valueOf(LocalDateTime.parse("2020-12-31T23:59:59")));
+        priceRepository.save(addedPrice);
+
+        // Not applied until the next refresh
+        assertSame(before, priceIndex.getPriceStore());
+        assertEquals(version, priceVersions.version(35455l));
+
+        priceIndex.refresh();
+        PriceStore after = priceIndex.getPriceStore();
+        assertNotSame(before, after);
+        assertNotEquals(version, priceVersions.version(35455l));
+        assertEquals(19.99, after.price(after.findSegment(35455l, 1, date)));
+        assertEquals(38.95, after.price(after.findSegment(35455l, 1, millis("2020-06-17T10:00:00"))));
+        assertEquals(9.99, after.price(after.findSegment(added.getProductId(), 2, date)));
+        assertEquals(4l, before.priceId(before.findSegment(35455l, 1, date)));
+
+        // Nothing changed since, so the store is kept
+        priceIndex.refresh();
+        assertSame(after, priceIndex.getPriceStore());
+    }
+
+    private static long millis(String date){
+        return Timestamp.valueOf(LocalDateTime.parse(date)).getTime();
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.createProduct;
+import static com.inventory.ex.PriceFixtures.millis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class PriceIndexTest {
+
+    private PriceIndex priceIndex;
+
+    /*
+        Load the index with the same Prices inserted by import.sql
+     */
+    @BeforeEach
+    public void setUp(){
+
+        Product product = createProduct(35455l, 1);
+
+        priceIndex = new PriceIndex();
+        priceIndex.load(List.of(
+                createPrice(product, 1, 35.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59"),
+                createPrice(product, 2, 25.45, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00"),
+                createPrice(product, 3, 30.50, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00"),
+                createPrice(product, 4, 38.95, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59")));
+    }
+
+    /*
+        This Test covers the five scenarios of the integration tests, where the Price with the highest priority wins
+     */
+    @Test
+    public void findPriceTestPass(){
+
+        assertEquals(1l, findPriceId("2020-06-14T10:00:00"));
+        assertEquals(2l, findPriceId("2020-06-14T16:00:00"));
+        assertEquals(1l, findPriceId("2020-06-14T21:00:00"));
+        assertEquals(3l, findPriceId("2020-06-15T10:00:00"));
+        assertEquals(4l, findPriceId("2020-06-16T21:00:00"));
+    }
+
+    /*
+        This Test covers the interval bounds, which are inclusive on both sides
+     */
+    @Test
+    public void findPriceTestPassBounds(){
+
+        assertEquals(2l, findPriceId("2020-06-14T15:00:00"));
+        assertEquals(2l, findPriceId("2020-06-14T18:30:00"));
+        assertEquals(4l, findPriceId("2020-12-31T23:59:59"));
+    }
+
+    /*
+        This Test covers the scenarios where no Price applies
+     */
+    @Test
+    public void findPriceTestFailNotFound(){
+
+        long date = millis("2020-06-14T10:00:00");
+
+        PriceStore priceStore = priceIndex.getPriceStore();
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(35455l, 1, millis("2020-06-13T23:59:59")));
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(35455l, 1, millis("2021-01-01T00:00:00")));
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(35455l, 2, date));
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(1l, 1, date));
+    }
+
+    private long findPriceId(String date){
+
+        PriceStore priceStore = priceIndex.getPriceStore();
+        int segment = priceStore.findSegment(35455l, 1, millis(date));
+        assertNotEquals(PriceStore.NOT_FOUND, segment);
+        return priceStore.priceId(segment);
+    }
+}
@@ -0,0 +1,151 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.createProduct;
+import static com.inventory.ex.PriceFixtures.millis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PriceStoreTest {
+
+    /*
+        This Test covers the lookups over many products, whose keys share slots of the hash map
+     */
+    @Test
+    public void findSegmentTestPassManyProducts(){
+
+        List<Price> prices = new ArrayList<>();
+        long priceId = 1;
+        for (int i = 0; i < 5_000; i++) {
+            Product product = createProduct(35455l + i * 7919l, i % 3 - 1);
+            prices.add(createPrice(product, priceId++, i, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"));
+            prices.add(createPrice(product, priceId++, i + 0.5, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00", "USD"));
+        }
+        PriceStore priceStore = PriceStore.build(prices);
+
+        assertEquals(5_000, priceStore.productCount());
+        assertEquals(15_000, priceStore.size());
+        for (int i = 0; i < 5_000; i++) {
+            long productId = 35455l + i * 7919l;
+            int brandId = i % 3 - 1;
+
+            int base = priceStore.findSegment(productId, brandId, millis("2020-06-14T10:00:00"));
+            assertEquals(i, priceStore.price(base));
+            assertEquals("EUR", priceStore.currency(base));
+
+            int promotion = priceStore.findSegment(productId, brandId, millis("2020-06-14T18:30:00"));
+            assertEquals(i + 0.5, priceStore.price(promotion));
+            assertEquals("USD", priceStore.currency(promotion));
+            assertEquals(millis("2020-06-14T15:00:00"), priceStore.startDate(promotion));
+            assertEquals(millis("2020-06-14T18:30:00"), priceStore.endDate(promotion));
+            assertEquals(millis("2020-06-14T18:30:00") + 1, priceStore.validUntil(promotion));
+
+            assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(productId, brandId + 3, millis("2020-06-14T10:00:00")));
+        }
+    }
+
+    /*
+        This Test covers the product identifiers out of the 32 bits of the key, which can never be found, so their
+        Prices are skipped without failing the build or the delta
+     */
+    @Test
+    public void findSegmentTestFailProductIdOutOfRange(){
+
+        long date = millis("2020-06-14T10:00:00");
+        PriceStore priceStore = PriceStore.build(List.of(
+                createPrice(createProduct(35455l, 1), 1, 35.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(createProduct(1l << 32, 1), 2, 25.45, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR")));
+
+        assertEquals(1, priceStore.productCount());
+        assertEquals(35.50, priceStore.price(priceStore.findSegment(35455l, 1, date)));
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment((1l << 32) + 35455l, 1, date));
+        assertEquals(PriceStore.NOT_FOUND, priceStore.findSegment(1l << 32, 1, date));
+        assertEquals(PriceStore.NOT_FOUND, PriceStore.EMPTY.findSegment(35455l, 1, date));
+
+        PriceStore delta = priceStore.withProducts(List.of(35456l, 1l << 32), List.of(
+                createPrice(createProduct(35456l, 1), 3, 30.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(createProduct(1l << 32, 1), 4, 38.95, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR")));
+
+        assertEquals(2, delta.productCount());
+        assertEquals(30.50, delta.price(delta.findSegment(35456l, 1, date)));
+        assertEquals(PriceStore.NOT_FOUND, delta.findSegment(1l << 32, 1, date));
+    }
+
+    /*
+        This Test covers the incremental change of some products, which leaves the previous store and the other
+        products untouched
+     */
+    @Test
+    public void withProductsTestPassDelta(){
+
+        Product unchanged = createProduct(35455l, 1);
+        Product repriced = createProduct(35456l, 1);
+        Product removed = createProduct(35457l, 2);
+        PriceStore priceStore = PriceStore.build(List.of(
+                createPrice(unchanged, 1, 35.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(repriced, 2, 25.45, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(removed, 3, 30.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR")));
+
+        Product rebranded = createProduct(35456l, 3);
+        Product added = createProduct(35458l, 1);
+        PriceStore delta = priceStore.withProducts(List.of(35456l, 35457l, 35458l), List.of(
+                createPrice(rebranded, 2, 25.45, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(rebranded, 4, 19.99, 1, "2020-06-15T00:00:00", "2020-06-15T23:59:59", "USD"),
+                createPrice(added, 5, 38.95, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "GBP")));
+
+        long date = millis("2020-06-15T10:00:00");
+        assertEquals(3, delta.productCount());
+        assertEquals(35.50, delta.price(delta.findSegment(35455l, 1, date)));
+        assertEquals(PriceStore.NOT_FOUND, delta.findSegment(35456l, 1, date));
+        assertEquals(19.99, delta.price(delta.findSegment(35456l, 3, date)));
+        assertEquals("USD", delta.currency(delta.findSegment(35456l, 3, date)));
+        assertEquals(25.45, delta.price(delta.findSegment(35456l, 3, millis("2020-06-16T10:00:00"))));
+        assertEquals(PriceStore.NOT_FOUND, delta.findSegment(35457l, 2, date));
+        assertEquals("GBP", delta.currency(delta.findSegment(35458l, 1, date)));
+
+        assertEquals(3, priceStore.productCount());
+        assertEquals(25.45, priceStore.price(priceStore.findSegment(35456l, 1, date)));
+        assertEquals(30.50, priceStore.price(priceStore.findSegment(35457l, 2, date)));
+    }
+
+    /*
+        This Test covers the build compiling partitions of the products in parallel, which must give the same
+        timelines as the build in a single partition
+     */
+    @Test
+    public void buildTestPassPartitions(){
+
+        List<Price> prices = new ArrayList<>();
+        long priceId = 1;
+        for (int i = 0; i < 1_000; i++) {
+            Product product = createProduct(35455l + i, 1);
+            prices.add(createPrice(product, priceId++, i, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"));
+            prices.add(createPrice(product, priceId++, i + 0.5, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00",
+                    i % 2 == 0 ? "USD" : "EUR"));
+        }
+        PriceStore single = PriceStore.build(prices);
+        PriceStore partitioned = PriceStore.build(prices, 7);
+
+        assertEquals(single.productCount(), partitioned.productCount());
+        assertEquals(single.size(), partitioned.size());
+        for (int i = 0; i < 1_000; i++) {
+            for (String date : List.of("2020-06-14T10:00:00", "2020-06-14T16:00:00", "2021-01-01T00:00:00")) {
+                int expected = single.findSegment(35455l + i, 1, millis(date));
+                int actual = partitioned.findSegment(35455l + i, 1, millis(date));
+                assertEquals(expected == PriceStore.NOT_FOUND, actual == PriceStore.NOT_FOUND);
+                if (expected != PriceStore.NOT_FOUND) {
+                    assertEquals(single.priceId(expected), partitioned.priceId(actual));
+                    assertEquals(single.validFrom(expected), partitioned.validFrom(actual));
+                    assertEquals(single.validUntil(expected), partitioned.validUntil(actual));
+                    assertEquals(single.currency(expected), partitioned.currency(actual));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.ex.index;
+
+import com.inventory.ex.persistance.Price;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.millis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceTimelineCompilerTest {
+
+    /*
+        This Test covers the Prices inserted by import.sql, where the base Price is split by the promotions
+     */
+    @Test
+    public void compileTestPass(){
+
+        Price basePrice = createPrice(null, 1, 10.0, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59");
+        Price firstPromotion = createPrice(null, 2, 20.0, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00");
+        Price secondPromotion = createPrice(null, 3, 30.0, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00");
+        Price thirdPromotion = createPrice(null, 4, 40.0, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59");
+
+        List<PriceSegment> segments = PriceTimelineCompiler.compile(
+                List.of(thirdPromotion, basePrice, secondPromotion, firstPromotion)).getSegments();
+
+        assertEquals(List.of(
+                new PriceSegment(millis("2020-06-14T00:00:00"), millis("2020-06-14T15:00:00"), basePrice),
+                new PriceSegment(millis("2020-06-14T15:00:00"), millis("2020-06-14T18:30:00") + 1, firstPromotion),
+                new PriceSegment(millis("2020-06-14T18:30:00") + 1, millis("2020-06-15T00:00:00"), basePrice),
+                new PriceSegment(millis("2020-06-15T00:00:00"), millis("2020-06-15T11:00:00") + 1, secondPromotion),
+                new PriceSegment(millis("2020-06-15T11:00:00") + 1, millis("2020-06-15T16:00:00"), basePrice),
+                new PriceSegment(millis("2020-06-15T16:00:00"), millis("2020-12-31T23:59:59") + 1, thirdPromotion)),
+                segments);
+    }
+
+    /*
+        This Test covers Prices that do not overlap and a lower priority Price fully covered by a higher one
+     */
+    @Test
+    public void compileTestPassGapsAndHiddenPrices(){
+
+        Price firstPrice = createPrice(null, 1, 10.0, 1, "2020-01-01T00:00:00", "2020-01-31T23:59:59");
+        Price hiddenPrice = createPrice(null, 2, 20.0, 0, "2020-01-10T00:00:00", "2020-01-20T00:00:00");
+        Price secondPrice = createPrice(null, 3, 30.0, 0, "2020-03-01T00:00:00", "2020-03-31T23:59:59");
+
+        PriceTimeline timeline = PriceTimelineCompiler.compile(List.of(firstPrice, hiddenPrice, secondPrice));
+
+        assertEquals(List.of(
+                new PriceSegment(millis("2020-01-01T00:00:00"), millis("2020-01-31T23:59:59") + 1, firstPrice),
+                new PriceSegment(millis("2020-03-01T00:00:00"), millis("2020-03-31T23:59:59") + 1, secondPrice)),
+                timeline.getSegments());
+        assertEquals(firstPrice, timeline.findSegment(millis("2020-01-15T00:00:00")).get().price());
+        assertTrue(timeline.findSegment(millis("2020-02-15T00:00:00")).isEmpty());
+        assertTrue(timeline.findSegment(millis("2019-12-31T23:59:59")).isEmpty());
+        assertTrue(timeline.findSegment(millis("2020-04-01T00:00:00")).isEmpty());
+    }
+
+    /*
+        This Test covers equal priorities, where the lowest price id wins
+     */
+    @Test
+    public void compileTestPassEqualPriorities(){
+
+        Price firstPrice = createPrice(null, 7, 70.0, 1, "2020-01-01T00:00:00", "2020-01-31T23:59:59");
+        Price secondPrice = createPrice(null, 5, 50.0, 1, "2020-01-15T00:00:00", "2020-02-15T00:00:00");
+
+        PriceTimeline timeline = PriceTimelineCompiler.compile(List.of(firstPrice, secondPrice));
+
+        assertEquals(firstPrice, timeline.findSegment(millis("2020-01-10T00:00:00")).get().price());
+        assertEquals(secondPrice, timeline.findSegment(millis("2020-01-20T00:00:00")).get().price());
+        assertEquals(secondPrice, timeline.findSegment(millis("2020-02-10T00:00:00")).get().price());
+    }
+}
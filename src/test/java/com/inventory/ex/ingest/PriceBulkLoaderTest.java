@@ -0,0 +1,119 @@
+package com.inventory.ex.ingest;
+
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.repository.PriceRepository;
+import com.inventory.ex.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkloaddb",
+        "inventory.bulk-load.batch-size=2",
+        "inventory.bulk-load.commit-size=3"
+})
+public class PriceBulkLoaderTest {
+
+    @Autowired
+    private PriceBulkLoader priceBulkLoader;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    /*
+        This Test covers the load of a CSV feed in several transactions, with the Price identifiers allocated after
+        the ones of import.sql
+     */
+    @Test
+    public void loadTestPassCsv() throws IOException {
+
+        Path feed = tempDir.resolve("prices.csv");
+        Files.writeString(feed, """
+                PRODUCT_ID,BRAND_ID,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY
+                90001,2,2020-06-14 00:00:00,2020-12-31 23:59:59,0,10.50,EUR
+                90001,2,2020-06-14 15:00:00,2020-06-14 18:30:00,1,8.25,EUR
+
+                90002,2,2020-06-14 00:00:00,2020-12-31 23:59:59,0,12.00,EUR
+                90002,2,2020-06-15T00:00:00,2020-06-15T11:00:00,2,11.00,EUR
+                90003,2,2020-06-14 00:00:00,2020-12-31 23:59:59,0,15.75,EUR
+                """);
+
+        BulkLoadResult result = priceBulkLoader.load(feed);
+
+        assertEquals(5, result.rows());
+        assertEquals(4, result.products());
+        assertTrue(result.rowsPerSecond() > 0);
+
+        ProductPriceResponse response = productRepository.findProductPriceByDate(90001l, 2,
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-14T16:00:00"))).get();
+        assertEquals(8.25d, response.getPrice());
+        assertTrue(response.getPriceList() > 4);
+
+        assertEquals(11.00d, productRepository.findProductPriceByDate(90002l, 2,
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-15T10:00:00"))).get().getPrice());
+        assertEquals(1, priceRepository.findByProductIdAndBrandId(90003l, 2).size());
+    }
+
+    /*
+        This Test covers the load of a NDJSON feed
+     */
+    @Test
+    public void loadTestPassNdjson() throws IOException {
+
+        Path feed = tempDir.resolve("prices.ndjson");
+        Files.writeString(feed, """
+                {"productId":90011,"brandId":3,"startDate":"2020-06-14T00:00:00","endDate":"2020-12-31T23:59:59","priority":0,"price":20.00,"currency":"EUR"}
+                {"productId":90011,"brandId":3,"startDate":"2020-06-15T16:00:00","endDate":"2020-12-31T23:59:59","priority":1,"price":18.50,"currency":"EUR"}
+                """);
+
+        assertEquals(2, priceBulkLoader.load(feed).rows());
+        assertEquals(18.50d, productRepository.findProductPriceByDate(90011l, 3,
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-16T21:00:00"))).get().getPrice());
+    }
+
+    /*
+        This Test covers the rows skipped, with another brand than the stored product or than the first row of a new
+        product, ending before their start or without currency, which leave the stored product unchanged
+     */
+    @Test
+    public void loadTestPassSkippedRows() throws IOException {
+
+        Path feed = tempDir.resolve("skipped.csv");
+        Files.writeString(feed, """
+                PRODUCT_ID,BRAND_ID,START_DATE,END_DATE,PRIORITY,PRICE,CURRENCY
+                35455,2,2020-06-14 00:00:00,2020-12-31 23:59:59,5,1.00,EUR
+                90021,4,2020-06-14 00:00:00,2020-12-31 23:59:59,0,20.00,EUR
+                90021,5,2020-06-14 00:00:00,2020-12-31 23:59:59,1,21.00,EUR
+                90022,4,2020-12-31 23:59:59,2020-06-14 00:00:00,0,22.00,EUR
+                90023,4,2020-06-14 00:00:00,2020-12-31 23:59:59,0,23.00,
+                """);
+
+        BulkLoadResult result = priceBulkLoader.load(feed);
+
+        assertEquals(1, result.rows());
+        assertEquals(2, result.brandMismatches());
+        assertEquals(2, result.invalidRows());
+        assertEquals(1, productRepository.findById(35455l).get().getBrandId());
+        assertEquals(4, priceRepository.findByProductIdAndBrandId(35455l, 1).size());
+        assertEquals(20.00d, productRepository.findProductPriceByDate(90021l, 4,
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-16T21:00:00"))).get().getPrice());
+        assertTrue(productRepository.findById(90022l).isEmpty());
+        assertTrue(productRepository.findById(90023l).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.ex.reactive;
+
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb"
+})
+@ActiveProfiles("reactive")
+public class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /*
+        This Test covers the happy path on the reactive stack, where the Price with the highest priority is returned
+     */
+    @Test
+    public void getProductPricePass(){
+
+        ProductPriceResponse expectedResponse = new ProductPriceResponse(35455l, 1, 2l,
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-14T15:00:00")),
+                Timestamp.valueOf(LocalDateTime.parse("2020-06-14T18:30:00")), 25.45d, "EUR");
+
+        webTestClient.post().uri("/product/price")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPriceResponse.class).isEqualTo(expectedResponse);
+    }
+
+    /*
+        This Test covers the scenario when the query has found no product price on the reactive stack.
+    */
+    @Test
+    public void getProductPricePassEmptyResponse(){
+
+        webTestClient.post().uri("/product/price")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-13T23:59:59\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPriceResponse.class).isEqualTo(new ProductPriceResponse());
+    }
+
+    /*
+        This Test covers a request without date on the reactive stack, answered with an empty object as on the servlet
+        stack
+    */
+    @Test
+    public void getProductPricePassMissingDate(){
+
+        webTestClient.post().uri("/product/price")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productId\": 35455, \"brandId\": 1}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPriceResponse.class).isEqualTo(new ProductPriceResponse());
+    }
+
+    /*
+        This Test covers a request of a currency without FX rates on the reactive stack, answered with a bad request
+        status
+    */
+    @Test
+    public void getProductPriceFailUnknownCurrency(){
+
+        webTestClient.post().uri("/product/price")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productId\": 35455, \"brandId\": 1, \"applicationDate\": \"2020-06-14T16:00:00\", "
+                        + "\"currency\": \"XXX\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -1,5 +1,6 @@
 package com.inventory.ex.repository;
 
+import com.inventory.ex.dto.response.ProductPriceResponse;
 import com.inventory.ex.persistance.Price;
 import com.inventory.ex.persistance.Product;
 import org.junit.jupiter.api.Test;
@@ -76,4 +77,37 @@ public class ProductRepositoryTest {
         assertEquals(true, returnedOptional.isEmpty());
     }
 
+
+    /*
+        This Test covers the projection of the Price with the highest priority when several Prices apply to the date
+    */
+    @Test
+    public void findProductPriceByDateTestPass(){
+
+        // Create the Date as Timestamp to send to the repository, inside the base Price and a promotion
+        LocalDateTime dateToQuery = LocalDateTime.parse("2020-06-14T16:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
+
+        Optional<ProductPriceResponse> returnedOptional = productRepository.findProductPriceByDate(35455, 1,
+                timestampToQuery);
+
+        Price promotionPrice = priceRepository.findById(2l).get();
+        assertEquals(new ProductPriceResponse(35455l, 1, 2l, promotionPrice.getStartDate(),
+                promotionPrice.getEndDate(), 25.45d, "EUR"), returnedOptional.get());
+    }
+
+
+    /*
+        This Test covers the scenario where no Price applies to the queried Date.
+    */
+    @Test
+    public void findProductPriceByDateTestFailIncorrectDate(){
+
+        // Create the Date as Timestamp to send to the repository
+        LocalDateTime dateToQuery = LocalDateTime.parse("2020-06-13T23:59:59", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
+
+        assertEquals(true, productRepository.findProductPriceByDate(35455l, 1, timestampToQuery).isEmpty());
+    }
+
 }
@@ -0,0 +1,96 @@
+package com.inventory.ex.service;
+
+import com.inventory.ex.dto.request.PriceWriteRequest;
+import com.inventory.ex.repository.PriceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:pricewriteservicedb")
+public class PriceWriteServiceTest {
+
+    private static final int BURST_SIZE = 64;
+
+    @Autowired
+    private PriceWriteService priceWriteService;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+        This Test covers a burst of concurrent writes of the same product queued while the lock of its stripe is held,
+        which are all committed in a single transaction once it is released
+     */
+    @Test
+    public void createPriceTestPassConcurrentBurst() throws Exception {
+
+        DistributionSummary batchSummary = meterRegistry.get(PriceWriteService.PRICE_WRITE_BATCH_SUMMARY).summary();
+        long batchesBefore = batchSummary.count();
+        double writesBefore = batchSummary.totalAmount();
+        long pricesBefore = priceRepository.count();
+
+        ReentrantLock lock = priceWriteService.lockOf(35455l);
+        ExecutorService executorService = Executors.newFixedThreadPool(BURST_SIZE);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            lock.lock();
+            try {
+                for (int i = 0; i < BURST_SIZE; i++) {
+                    double price = i;
+                    writes.add(executorService.submit(() -> priceWriteService.createPrice(
+                            createRequest(35455l, 1, "2021-01-01T00:00:00", "2021-01-31T23:59:59", price))));
+                }
+
+                // Every write is queued on the stripe before waiting for the lock
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (lock.getQueueLength() < BURST_SIZE && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(BURST_SIZE, lock.getQueueLength());
+            } finally {
+                lock.unlock();
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(pricesBefore + BURST_SIZE, priceRepository.count());
+        assertEquals(writesBefore + BURST_SIZE, batchSummary.totalAmount());
+        assertEquals(batchesBefore + 1, batchSummary.count());
+        assertTrue(batchSummary.max() >= BURST_SIZE);
+    }
+
+    private static PriceWriteRequest createRequest(long productId, int brandId, String startDate, String endDate,
+                                                   double price){
+
+        PriceWriteRequest priceWriteRequest = new PriceWriteRequest();
+        priceWriteRequest.setProductId(productId);
+        priceWriteRequest.setBrandId(brandId);
+        priceWriteRequest.setStartDate(Timestamp.valueOf(LocalDateTime.parse(startDate)));
+        priceWriteRequest.setEndDate(Timestamp.valueOf(LocalDateTime.parse(endDate)));
+        priceWriteRequest.setPriority(2);
+        priceWriteRequest.setPrice(price);
+        priceWriteRequest.setCurrency("EUR");
+        return priceWriteRequest;
+    }
+}
@@ -2,8 +2,6 @@ package com.inventory.ex.service;
 
 import com.inventory.ex.dto.request.ProductPriceRequest;
 import com.inventory.ex.dto.response.ProductPriceResponse;
-import com.inventory.ex.persistance.Price;
-import com.inventory.ex.persistance.Product;
 import com.inventory.ex.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +11,6 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,35 +32,22 @@ public class ProductServiceTest {
     @Test
     public void findByProductIdBrandIdAndPriceDateTestPass(){
 
-        // Create the Product expected and a Price for the Product
+        // Create the Product price expected, as projected by the repository
         LocalDateTime startDate = LocalDateTime.parse("2024-01-01T00:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         LocalDateTime endDate = LocalDateTime.parse("2024-06-01T23:59:59", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-        Price expectedPrice = new Price();
-        expectedPrice.setPrice(1.0d);
-        expectedPrice.setPriceId(1);
-        expectedPrice.setPriority(1);
-        expectedPrice.setCurrency("EUR");
-        expectedPrice.setStartDate(Timestamp.valueOf(startDate));
-        expectedPrice.setEndDate(Timestamp.valueOf(endDate));
+        ProductPriceResponse expectedResponse = new ProductPriceResponse(1l, 1, 1l, Timestamp.valueOf(startDate),
+                Timestamp.valueOf(endDate), 1.0d, "EUR");
 
-        List<Price> productPrices = new ArrayList<>();
-        productPrices.add(expectedPrice);
-
-        Product expectedProduct = new Product();
-        expectedProduct.setProductId(1l);
-        expectedProduct.setBrandId(1);
-        expectedProduct.setPrices(productPrices);
-
-        Optional<Product> optionalProduct = Optional.of(expectedProduct);
+        Optional<ProductPriceResponse> optionalProductPrice = Optional.of(expectedResponse);
 
         // Create the Date as Timestamp to send to the service
         LocalDateTime dateToQuery = LocalDateTime.parse("2024-06-01T23:59:59", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
 
         // Mock the behavior of the productRepository
-        when(productRepository.findByProductIdBrandIdAndPriceDate(1, 1, timestampToQuery))
-                .thenReturn(optionalProduct);
+        when(productRepository.findProductPriceByDate(1, 1, timestampToQuery))
+                .thenReturn(optionalProductPrice);
 
         // Create the request object
         ProductPriceRequest productPriceRequest = new ProductPriceRequest();
@@ -76,10 +59,11 @@ public class ProductServiceTest {
 
         // Validate the response with the corresponding assertions
         assertNotNull(returnedOptional.get());
-        assertEquals(optionalProduct.get().getProductId(), returnedOptional.get().getProductId());
-        assertEquals(optionalProduct.get().getPrices().get(0).getPrice(), returnedOptional.get().getPrice());
-        assertEquals(optionalProduct.get().getPrices().get(0).getStartDate(), returnedOptional.get().getStartDate());
-        assertEquals(optionalProduct.get().getPrices().get(0).getEndDate(), returnedOptional.get().getEndDate());
+        assertEquals(expectedResponse.getProductId(), returnedOptional.get().getProductId());
+        assertEquals(expectedResponse.getPriceList(), returnedOptional.get().getPriceList());
+        assertEquals(expectedResponse.getPrice(), returnedOptional.get().getPrice());
+        assertEquals(expectedResponse.getStartDate(), returnedOptional.get().getStartDate());
+        assertEquals(expectedResponse.getEndDate(), returnedOptional.get().getEndDate());
     }
 
 
@@ -89,15 +73,15 @@ public class ProductServiceTest {
     @Test
     public void findByProductIdBrandIdAndPriceDateTestFailNotFound(){
 
-        Optional<Product> optionalProduct = Optional.empty();
+        Optional<ProductPriceResponse> optionalProductPrice = Optional.empty();
 
         // Create the Date as Timestamp to send to the service
         LocalDateTime dateToQuery = LocalDateTime.parse("2024-06-01T23:59:59", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
 
         // Mock the behavior of the productRepository when there are no results for the specified Product
-        when(productRepository.findByProductIdBrandIdAndPriceDate(1, 1, timestampToQuery))
-                .thenReturn(optionalProduct);
+        when(productRepository.findProductPriceByDate(1, 1, timestampToQuery))
+                .thenReturn(optionalProductPrice);
 
         // Create the request object
         ProductPriceRequest productPriceRequest = new ProductPriceRequest();
@@ -118,15 +102,15 @@ public class ProductServiceTest {
     @Test
     public void findByProductIdBrandIdAndPriceDateTestFailMissingProductId(){
 
-        Optional<Product> optionalProduct = Optional.empty();
+        Optional<ProductPriceResponse> optionalProductPrice = Optional.empty();
 
         // Create the Date as Timestamp to send to the service
         LocalDateTime dateToQuery = LocalDateTime.parse("2024-06-01T23:59:59", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
 
         // Mock the behavior of the productRepository when there are no results for the specified Product
-        when(productRepository.findByProductIdBrandIdAndPriceDate(0, 1, timestampToQuery))
-                .thenReturn(optionalProduct);
+        when(productRepository.findProductPriceByDate(0, 1, timestampToQuery))
+                .thenReturn(optionalProductPrice);
 
         // Create the request object
         ProductPriceRequest productPriceRequest = new ProductPriceRequest();
@@ -147,15 +131,15 @@ public class ProductServiceTest {
     @Test
     public void findByProductIdBrandIdAndPriceDateTestFailIncorrectDate(){
 
-        Optional<Product> optionalProduct = Optional.empty();
+        Optional<ProductPriceResponse> optionalProductPrice = Optional.empty();
 
         // Create the Date as Timestamp to send to the service
         LocalDateTime dateToQuery = LocalDateTime.parse("0001-02-28T12:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         Timestamp timestampToQuery = Timestamp.valueOf(dateToQuery);
 
         // Mock the behavior of the productRepository when there are no results for the specified Product
-        when(productRepository.findByProductIdBrandIdAndPriceDate(0, 1, timestampToQuery))
-                .thenReturn(optionalProduct);
+        when(productRepository.findProductPriceByDate(0, 1, timestampToQuery))
+                .thenReturn(optionalProductPrice);
 
         // Create the request object
         ProductPriceRequest productPriceRequest = new ProductPriceRequest();
@@ -0,0 +1,201 @@
+package com.inventory.ex.shard;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "inventory.price-shards.enabled=true",
+        "inventory.price-shards.count=4",
+        "inventory.price-shards.threads-per-shard=2",
+        "inventory.price-shards.brand-concurrency=2",
+        "inventory.price-shards.brand-wait=50ms"
+})
+public class PriceShardsTest {
+
+    @Autowired
+    private PriceShards priceShards;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+        This Test covers the lookups of a batch spread over the shards, each one resolved by the shard of its product,
+        with the results kept in the order of the requests
+     */
+    @Test
+    public void executeAllTestPassSpreadOverShards(){
+
+        double lookupsBefore = totalLookups();
+        List<ProductPriceRequest> productPriceRequests = LongStream.range(35450, 35470)
+                .mapToObj(productId -> createRequest(productId, 1))
+                .toList();
+
+        List<ProductPriceResponse> productPriceResponses = productService.getProductPricesByDates(productPriceRequests);
+
+        assertEquals(20, productPriceResponses.size());
+        for (int i = 0; i < productPriceRequests.size(); i++) {
+            assertEquals(productPriceRequests.get(i).getProductId() == 35455l ? 2 : 0,
+                    productPriceResponses.get(i).getPriceList());
+        }
+        long shardsUsed = productPriceRequests.stream()
+                .mapToInt(request -> priceShards.shardOf(request.getProductId(), request.getBrandId()))
+                .distinct().count();
+        assertTrue(shardsUsed > 1);
+        assertEquals(lookupsBefore + shardsUsed, totalLookups());
+        assertEquals(25.45, productService.getProductPricesByDate(createRequest(35455l, 1)).get().getPrice());
+    }
+
+    /*
+        This Test covers the brands without any stored Product, sharing a single bulkhead: with every permit taken by
+        the brand 7, the next lookup of the brand 8 is rejected while the lookups of a stored brand are still resolved
+     */
+    @Test
+    public void executeTestFailBulkheadFull() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // The blocked lookups must not take the threads of the shard of the other brand
+            int otherShard = priceShards.shardOf(35455l, 1);
+            List<Future<Boolean>> blocked = LongStream.iterate(1, productId -> productId + 1)
+                    .filter(productId -> priceShards.shardOf(productId, 7) != otherShard)
+                    .limit(2)
+                    .mapToObj(productId -> executorService.submit(() -> priceShards.execute(productId, 7, () -> {
+                        started.countDown();
+                        try {
+                            return release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                    })))
+                    .toList();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            double rejectedBefore = meterRegistry.get(PriceShards.PRICE_BULKHEAD_REJECTED_COUNTER)
+                    .tag("brand", PriceShards.OTHER_BRANDS).counter().count();
+            assertThrows(PriceShardRejectedException.class,
+                    () -> productService.getProductPricesByDate(createRequest(3l, 8)));
+            assertEquals(rejectedBefore + 1, meterRegistry.get(PriceShards.PRICE_BULKHEAD_REJECTED_COUNTER)
+                    .tag("brand", PriceShards.OTHER_BRANDS).counter().count());
+            assertNull(meterRegistry.find(PriceShards.PRICE_BULKHEAD_REJECTED_COUNTER).tag("brand", "8").counter());
+
+            // A stored brand is not limited by the bulkhead of the other brands
+            assertEquals(2, productService.getProductPricesByDate(createRequest(35455l, 1)).get().getPriceList());
+
+            release.countDown();
+            for (Future<Boolean> future : blocked) {
+                assertTrue(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(0, productService.getProductPricesByDate(createRequest(3l, 7)).get().getPriceList());
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    /*
+        This Test covers a batch rejected by the bulkhead of a brand once the lookup of another shard is submitted, which
+        is cancelled and gives its permit back at once
+     */
+    @Test
+    public void executeAllTestFailCancelledOnRejection() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // Every permit of the brands without products is taken in a shard not used by the batch
+            List<Future<Boolean>> blocked = LongStream.iterate(1, productId -> productId + 1)
+                    .filter(productId -> priceShards.shardOf(productId, 7) == 2)
+                    .limit(2)
+                    .mapToObj(productId -> executorService.submit(() -> priceShards.execute(productId, 7, () -> {
+                        started.countDown();
+                        try {
+                            return release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                    })))
+                    .toList();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // The shard of the stored brand is submitted before the shard of the rejected brand
+            long submittedProductId = LongStream.iterate(1, productId -> productId + 1)
+                    .filter(productId -> priceShards.shardOf(productId, 1) == 0).findFirst().getAsLong();
+            long rejectedProductId = LongStream.iterate(1, productId -> productId + 1)
+                    .filter(productId -> priceShards.shardOf(productId, 8) == 1).findFirst().getAsLong();
+            CountDownLatch lookupStarted = new CountDownLatch(1);
+            CountDownLatch lookupFinished = new CountDownLatch(1);
+            AtomicBoolean lookupCompleted = new AtomicBoolean();
+            assertThrows(PriceShardRejectedException.class, () -> priceShards.executeAll(
+                    List.of(createRequest(submittedProductId, 1), createRequest(rejectedProductId, 8)),
+                    ProductPriceRequest::getProductId, ProductPriceRequest::getBrandId, shardRequests -> {
+                        lookupStarted.countDown();
+                        try {
+                            lookupCompleted.set(release.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            lookupFinished.countDown();
+                        }
+                        return shardRequests;
+                    }));
+
+            assertEquals(2, priceShards.availablePermits(1));
+            if (lookupStarted.getCount() == 0) {
+                assertTrue(lookupFinished.await(5, TimeUnit.SECONDS));
+            }
+            assertFalse(lookupCompleted.get());
+
+            release.countDown();
+            for (Future<Boolean> future : blocked) {
+                assertTrue(future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    private double totalLookups(){
+        return meterRegistry.get(PriceShards.PRICE_SHARD_TIMER).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static ProductPriceRequest createRequest(long productId, int brandId){
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(productId);
+        productPriceRequest.setBrandId(brandId);
+        productPriceRequest.setApplicationDate(Timestamp.valueOf(LocalDateTime.parse("2020-06-14T16:00:00")));
+        return productPriceRequest;
+    }
+}
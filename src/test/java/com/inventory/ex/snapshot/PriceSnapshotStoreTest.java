@@ -0,0 +1,70 @@
+package com.inventory.ex.snapshot;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.repository.PriceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(properties = {
+        "inventory.price-snapshot.enabled=true",
+        "inventory.price-snapshot.refresh-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:snapshotstoredb"})
+public class PriceSnapshotStoreTest {
+
+    @Autowired
+    private PriceSnapshotStore priceSnapshotStore;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    /*
+        Leave an empty snapshot of a previous run, which does not match the Data Base created by import.sql
+     */
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) throws IOException {
+
+        Path snapshotPath = Files.createTempDirectory("snapshot").resolve("price-snapshot.bin");
+        PriceSnapshotWriter.write(snapshotPath, List.of());
+        registry.add("inventory.price-snapshot.path", snapshotPath::toString);
+    }
+
+    /*
+        This Test covers the snapshot written at startup over the one of the previous run, and the committed changes,
+        which are only mapped by the next refresh
+     */
+    @Test
+    public void refreshTestPass() throws IOException {
+
+        long date = Timestamp.valueOf(LocalDateTime.parse("2020-06-15T10:00:00")).getTime();
+        PriceSnapshot before = priceSnapshotStore.getSnapshot();
+        assertEquals(4, before.size());
+        assertEquals(30.50d, before.price(before.findRow(35455l, 1, date)));
+
+        Price price = priceRepository.findById(3l).get();
+        try {
+            price.setPrice(29.99d);
+            priceRepository.save(price);
+            assertSame(before, priceSnapshotStore.getSnapshot());
+
+            priceSnapshotStore.refresh();
+            PriceSnapshot after = priceSnapshotStore.getSnapshot();
+            assertEquals(29.99d, after.price(after.findRow(35455l, 1, date)));
+        } finally {
+            price.setPrice(30.50d);
+            priceRepository.save(price);
+        }
+    }
+}
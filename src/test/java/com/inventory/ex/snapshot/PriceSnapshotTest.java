@@ -0,0 +1,98 @@
+package com.inventory.ex.snapshot;
+
+import com.inventory.ex.persistance.Price;
+import com.inventory.ex.persistance.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.inventory.ex.PriceFixtures.createPrice;
+import static com.inventory.ex.PriceFixtures.createProduct;
+import static com.inventory.ex.PriceFixtures.millis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PriceSnapshotTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private PriceSnapshot snapshot;
+
+    /*
+        Write and map a snapshot with the Prices inserted by import.sql, between the Prices of two other products
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+
+        Product product = createProduct(35455l, 1);
+        Product previousProduct = createProduct(35454l, 1);
+        Product otherBrand = createProduct(35455l, 2);
+        Product nextProduct = createProduct(35456l, 1);
+
+        Path snapshotPath = tempDir.resolve("price-snapshot.bin");
+        PriceSnapshotWriter.write(snapshotPath, List.of(
+                createPrice(nextProduct, 10, 9.99, 5, "2020-01-01T00:00:00", "2020-12-31T23:59:59", "USD"),
+                createPrice(product, 4, 38.95, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(product, 2, 25.45, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00", "EUR"),
+                createPrice(previousProduct, 11, 1.00, 9, "2020-01-01T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(product, 1, 35.50, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(otherBrand, 12, 2.00, 9, "2020-01-01T00:00:00", "2020-12-31T23:59:59", "EUR"),
+                createPrice(product, 3, 30.50, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00", "EUR")));
+        snapshot = PriceSnapshot.open(snapshotPath);
+    }
+
+    /*
+        This Test covers the five scenarios of the integration tests, where the Price with the highest priority wins
+     */
+    @Test
+    public void findRowTestPass(){
+
+        assertEquals(7, snapshot.size());
+        assertEquals(1l, findPriceId("2020-06-14T10:00:00"));
+        assertEquals(2l, findPriceId("2020-06-14T16:00:00"));
+        assertEquals(1l, findPriceId("2020-06-14T21:00:00"));
+        assertEquals(3l, findPriceId("2020-06-15T10:00:00"));
+        assertEquals(4l, findPriceId("2020-06-16T21:00:00"));
+    }
+
+    /*
+        This Test covers the values of every column of a row
+     */
+    @Test
+    public void findRowTestPassColumns(){
+
+        int row = snapshot.findRow(35455l, 1, millis("2020-06-14T16:00:00"));
+        assertEquals(35455l, snapshot.productId(row));
+        assertEquals(1, snapshot.brandId(row));
+        assertEquals(2l, snapshot.priceId(row));
+        assertEquals(1, snapshot.priority(row));
+        assertEquals(25.45d, snapshot.price(row));
+        assertEquals(millis("2020-06-14T15:00:00"), snapshot.startDate(row));
+        assertEquals(millis("2020-06-14T18:30:00"), snapshot.endDate(row));
+        assertEquals("EUR", snapshot.currency(row));
+        assertEquals("USD", snapshot.currency(snapshot.findRow(35456l, 1, millis("2020-06-14T16:00:00"))));
+    }
+
+    /*
+        This Test covers the dates without any Price and the products not stored in the snapshot
+     */
+    @Test
+    public void findRowTestPassNotFound(){
+
+        assertEquals(PriceSnapshot.NOT_FOUND, findPriceId("2020-06-13T23:59:59"));
+        assertEquals(PriceSnapshot.NOT_FOUND, findPriceId("2021-01-01T00:00:00"));
+        assertEquals(PriceSnapshot.NOT_FOUND, snapshot.findRow(35455l, 3, millis("2020-06-14T16:00:00")));
+        assertEquals(PriceSnapshot.NOT_FOUND, snapshot.findRow(1l, 1, millis("2020-06-14T16:00:00")));
+        assertEquals(PriceSnapshot.NOT_FOUND, snapshot.findRow(99999l, 1, millis("2020-06-14T16:00:00")));
+    }
+
+    private long findPriceId(String date) {
+
+        int row = snapshot.findRow(35455l, 1, millis(date));
+        return row == PriceSnapshot.NOT_FOUND ? PriceSnapshot.NOT_FOUND : snapshot.priceId(row);
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventory.ex.warmup;
+
+import com.inventory.ex.dto.request.ProductPriceRequest;
+import com.inventory.ex.dto.response.ProductPriceResponse;
+import com.inventory.ex.index.ProductKey;
+import com.inventory.ex.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "inventory.warmup.enabled=true",
+        "inventory.warmup.parallelism=2",
+        "inventory.warmup.threshold=1",
+        "spring.datasource.url=jdbc:h2:mem:warmupdb"})
+public class PriceWarmupTest {
+
+    @Autowired
+    private PriceWarmup priceWarmup;
+
+    @Autowired
+    private HotKeyRecorder hotKeyRecorder;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    /*
+        Write the hot keys of a previous run, a product of import.sql requested twice and a product without prices
+     */
+    @DynamicPropertySource
+    static void hotKeyFile(DynamicPropertyRegistry registry) throws IOException {
+
+        Path hotKeyFile = Files.createTempDirectory("warmup").resolve("hot-keys.bin");
+        HotKeyRecorder previousRun = new HotKeyRecorder(hotKeyFile, 10);
+        previousRun.record(35455l, 1);
+        previousRun.record(35455l, 1);
+        previousRun.record(1l, 1);
+        previousRun.save();
+        registry.add("inventory.warmup.file", hotKeyFile::toString);
+    }
+
+    /*
+        This Test covers the readiness probe, out of service until every hot key of the previous run is warmed up
+     */
+    @Test
+    public void warmupTestPassReadiness() throws InterruptedException {
+
+        ResponseEntity<String> readiness = testRestTemplate.getForEntity("/actuator/health/readiness", String.class);
+        for (int attempt = 0; attempt < 300 && readiness.getStatusCode() != HttpStatus.OK; attempt++) {
+            Thread.sleep(100);
+            readiness = testRestTemplate.getForEntity("/actuator/health/readiness", String.class);
+        }
+
+        assertEquals(HttpStatus.OK, readiness.getStatusCode());
+        assertEquals(Status.UP, priceWarmup.health().getStatus());
+        assertEquals(2, priceWarmup.health().getDetails().get("keys"));
+        assertEquals(2, priceWarmup.health().getDetails().get("warmed"));
+
+        // The warm-up lookups are not recorded, so the product requested only in the previous run is not kept
+        assertFalse(hotKeyRecorder.getHotKeys().contains(new ProductKey(1l, 1)));
+    }
+
+    /*
+        This Test covers the hot keys recorded from the requests, hottest first, which are read back once written,
+        while the lookups made straight through the service are not recorded
+     */
+    @Test
+    public void hotKeysTestPass() throws IOException {
+
+        Map<String, Object> lookup = Map.of("productId", 35455, "brandId", 1, "applicationDate", "2020-06-14T10:00:00");
+        for (int i = 0; i < 5; i++) {
+            testRestTemplate.postForObject("/product/price", lookup, ProductPriceResponse.class);
+        }
+        testRestTemplate.postForObject("/product/prices", List.of(lookup), ProductPriceResponse[].class);
+        testRestTemplate.getForObject("/product/35456/brand/2/price", ProductPriceResponse.class);
+
+        ProductPriceRequest productPriceRequest = new ProductPriceRequest();
+        productPriceRequest.setProductId(35457l);
+        productPriceRequest.setBrandId(3);
+        productPriceRequest.setApplicationDate(Timestamp.valueOf("2020-06-14 10:00:00"));
+        productService.getProductPricesByDate(productPriceRequest);
+
+        List<ProductKey> hotKeys = hotKeyRecorder.getHotKeys();
+        assertEquals(new ProductKey(35455l, 1), hotKeys.get(0));
+        assertTrue(hotKeys.contains(new ProductKey(35456l, 2)));
+        assertFalse(hotKeys.contains(new ProductKey(35457l, 3)));
+
+        hotKeyRecorder.save();
+        assertEquals(hotKeys, hotKeyRecorder.load());
+    }
+}